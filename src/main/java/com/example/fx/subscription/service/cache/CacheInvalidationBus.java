@@ -0,0 +1,95 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts evictions of in-process caches over a Redis pub/sub channel, so a write on one instance drops the stale
+ * local copies on all the others. Messages from this instance are ignored, it has already applied them.
+ * <p>
+ * Pub/sub is fire and forget: an instance that is disconnected while a message is sent keeps its copy until the local
+ * TTL expires, which is what bounds staleness.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+  private static final String EVICT = "E";
+  private static final String CLEAR = "C";
+  private static final String SEPARATOR = "\n";
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final String channel;
+  private final String origin = UUID.randomUUID().toString();
+  private final Map<String, LocalCache> localCaches = new ConcurrentHashMap<>();
+  private final MeterRegistry meterRegistry;
+
+  public CacheInvalidationBus(StringRedisTemplate stringRedisTemplate, String channel, MeterRegistry meterRegistry) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.channel = channel;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public void register(LocalCache localCache) {
+    localCaches.put(localCache.getName(), localCache);
+  }
+
+  public void publishEvict(String cacheName, String key) {
+    publish(String.join(SEPARATOR, origin, EVICT, cacheName, key));
+  }
+
+  public void publishClear(String cacheName) {
+    publish(String.join(SEPARATOR, origin, CLEAR, cacheName, ""));
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+    if (parts.length != 4 || parts[0].equals(origin)) {
+      return;
+    }
+
+    LocalCache localCache = localCaches.get(parts[2]);
+    if (localCache == null) {
+      return;
+    }
+
+    if (parts[1].equals(CLEAR)) {
+      localCache.clearLocal();
+    } else {
+      localCache.evictLocal(parts[3]);
+    }
+    invalidationCounter(meterRegistry, localCache.getName(), "pubsub").increment();
+  }
+
+  static Counter invalidationCounter(MeterRegistry meterRegistry, String cacheName, String source) {
+    return Counter.builder("cache.near.invalidations")
+            .description("Invalidations of in-process cache entries received from other instances")
+            .tag("cache", cacheName)
+            .tag("source", source)
+            .register(meterRegistry);
+  }
+
+  private void publish(String message) {
+    try {
+      stringRedisTemplate.convertAndSend(channel, message);
+    } catch (RuntimeException ex) {
+      // The write itself succeeded, other instances catch up when their local copies expire
+      LOGGER.warn("[CacheInvalidationBus] Failed to publish cache invalidation on [{}]", channel, ex);
+    }
+  }
+}
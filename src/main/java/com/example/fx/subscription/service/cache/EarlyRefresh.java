@@ -0,0 +1,50 @@
+package com.example.fx.subscription.service.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Probabilistic early expiration (XFetch). Each read of an entry refreshes it early with a probability that grows as
+ * its expiry approaches and with how long it took to load:
+ * {@code now - loadTime * beta * ln(random) >= expiry}. Hot keys are therefore reloaded shortly before they expire,
+ * by one reader, instead of by every reader right after.
+ * <p>
+ * Loads are often quicker than the reads between them, so the load time used is at least {@code minLoadTime}.
+ */
+public class EarlyRefresh {
+
+  private final RedisCacheWriter.TtlFunction ttlFunction;
+  private final double beta;
+  private final long minLoadMillis;
+  private final DoubleSupplier random;
+
+  public EarlyRefresh(RedisCacheWriter.TtlFunction ttlFunction, double beta, Duration minLoadTime) {
+    this(ttlFunction, beta, minLoadTime, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  EarlyRefresh(RedisCacheWriter.TtlFunction ttlFunction, double beta, Duration minLoadTime, DoubleSupplier random) {
+    this.ttlFunction = ttlFunction;
+    this.beta = beta;
+    this.minLoadMillis = minLoadTime.toMillis();
+    this.random = random;
+  }
+
+  public Object wrap(Object key, Object value, long loadNanos) {
+    Duration ttl = ttlFunction.getTimeToLive(key, value);
+    // Entries that never expire need no early refresh
+    if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+      return value;
+    }
+    return new RefreshableValue(value, Duration.ofNanos(loadNanos).toMillis(), System.currentTimeMillis() + ttl.toMillis());
+  }
+
+  public boolean shouldRefresh(RefreshableValue refreshable) {
+    long loadMillis = Math.max(refreshable.loadMillis(), minLoadMillis);
+    // 1 - random is in (0, 1], so its logarithm is finite and not positive
+    double earlyBy = -loadMillis * beta * Math.log(1 - random.getAsDouble());
+    return System.currentTimeMillis() + earlyBy >= refreshable.expiresAtMillis();
+  }
+}
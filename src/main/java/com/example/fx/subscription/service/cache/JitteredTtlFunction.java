@@ -0,0 +1,36 @@
+package com.example.fx.subscription.service.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shortens the TTL of every entry by a random share of up to {@code jitter}, so entries written together do not all
+ * expire together. The configured TTL stays the upper bound. A {@link RefreshableValue} keeps the expiry it was
+ * created with.
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+  private final Duration ttl;
+  private final double jitter;
+
+  public JitteredTtlFunction(Duration ttl, double jitter) {
+    if (jitter < 0 || jitter >= 1) {
+      throw new IllegalArgumentException("TTL jitter must be in [0, 1), was [%s]".formatted(jitter));
+    }
+    this.ttl = ttl;
+    this.jitter = jitter;
+  }
+
+  @Override
+  public Duration getTimeToLive(Object key, Object value) {
+    if (value instanceof RefreshableValue refreshable) {
+      return Duration.ofMillis(Math.max(1, refreshable.expiresAtMillis() - System.currentTimeMillis()));
+    }
+    if (jitter == 0) {
+      return ttl;
+    }
+    return Duration.ofMillis((long) (ttl.toMillis() * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+  }
+}
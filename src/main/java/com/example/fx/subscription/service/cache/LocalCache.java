@@ -0,0 +1,14 @@
+package com.example.fx.subscription.service.cache;
+
+/**
+ * An in-process cache that can be invalidated from outside the instance, through the {@link CacheInvalidationBus} or
+ * {@link RedisTrackingInvalidationListener}.
+ */
+public interface LocalCache {
+
+  String getName();
+
+  void evictLocal(String key);
+
+  void clearLocal();
+}
@@ -0,0 +1,85 @@
+package com.example.fx.subscription.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A per-key lease in Redis ({@code SET NX PX}) that lets one instance of the cluster load a missing cache entry while
+ * the others wait for it to appear. The lease expires on its own if its holder dies, and it is only deleted by the
+ * holder. When Redis cannot be reached, loads go ahead without it.
+ */
+public class RedisLoadLock {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RedisLoadLock.class);
+
+  static final String KEY_PREFIX = "lock:";
+  static final String NO_LEASE = "";
+
+  private static final RedisScript<Long> RELEASE = RedisScript.of("""
+          if redis.call('get', KEYS[1]) == ARGV[1] then
+            return redis.call('del', KEYS[1])
+          end
+          return 0
+          """, Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final Duration lease;
+  private final Duration wait;
+  private final Duration pollInterval;
+
+  public RedisLoadLock(StringRedisTemplate stringRedisTemplate, Duration lease, Duration wait, Duration pollInterval) {
+    if (wait.compareTo(lease) >= 0) {
+      throw new IllegalArgumentException("Load lock wait [%s] must be shorter than its lease [%s]".formatted(wait, lease));
+    }
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.lease = lease;
+    this.wait = wait;
+    this.pollInterval = pollInterval;
+  }
+
+  /**
+   * @return the token of the acquired lease, {@link #NO_LEASE} when Redis could not be asked, or {@code null} when
+   * another instance holds the lease
+   */
+  public String tryAcquire(String cacheName, String key) {
+    String token = UUID.randomUUID().toString();
+    try {
+      Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+      return Boolean.TRUE.equals(acquired) ? token : null;
+    } catch (RuntimeException ex) {
+      LOGGER.warn("[RedisLoadLock] Failed to acquire load lock for [{}] in cache [{}]", key, cacheName, ex);
+      return NO_LEASE;
+    }
+  }
+
+  public void release(String cacheName, String key, String token) {
+    if (token == null || NO_LEASE.equals(token)) {
+      return;
+    }
+    try {
+      stringRedisTemplate.execute(RELEASE, List.of(lockKey(cacheName, key)), token);
+    } catch (RuntimeException ex) {
+      // The lease expires on its own
+      LOGGER.warn("[RedisLoadLock] Failed to release load lock for [{}] in cache [{}]", key, cacheName, ex);
+    }
+  }
+
+  public Duration getWait() {
+    return wait;
+  }
+
+  public Duration getPollInterval() {
+    return pollInterval;
+  }
+
+  // Outside the cache key prefixes, so client tracking does not report lock writes as cache invalidations
+  static String lockKey(String cacheName, String key) {
+    return KEY_PREFIX + cacheName + "::" + key;
+  }
+}
@@ -0,0 +1,220 @@
+package com.example.fx.subscription.service.cache;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps the in-process tier of the Redis backed caches coherent with Redis client tracking. A dedicated RESP3
+ * connection subscribes in broadcasting mode to the key prefixes of the caches, and Redis pushes the name of every key
+ * written under them, by any client, to this instance. The matching L1 entry is dropped, so invalidation is exact and
+ * does not rely on writers announcing their changes.
+ * <p>
+ * Tracking state lives on the server side of the connection, so after every (re)connect tracking is enabled again and
+ * the L1 tiers are cleared, since pushes may have been missed while disconnected.
+ */
+public class RedisTrackingInvalidationListener implements SmartLifecycle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RedisTrackingInvalidationListener.class);
+
+  static final String INVALIDATE = "invalidate";
+  static final String CLIENT_NAME = "fx-cache-tracking";
+
+  private final LettuceConnectionFactory lettuceConnectionFactory;
+  private final CacheManager cacheManager;
+  private final Duration reconnectDelay;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, LocalCache> localCaches = new ConcurrentHashMap<>();
+  private final Semaphore trackingRequests = new Semaphore(0);
+
+  private volatile boolean running;
+  private RedisClient redisClient;
+  private StatefulRedisConnection<String, String> connection;
+  private Thread trackingThread;
+
+  public RedisTrackingInvalidationListener(LettuceConnectionFactory lettuceConnectionFactory,
+                                           CacheManager cacheManager,
+                                           Duration reconnectDelay,
+                                           MeterRegistry meterRegistry) {
+    this.lettuceConnectionFactory = lettuceConnectionFactory;
+    this.cacheManager = cacheManager;
+    this.reconnectDelay = reconnectDelay;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void start() {
+    registerLocalCaches();
+
+    redisClient = RedisClient.create(redisUri());
+    redisClient.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+    redisClient.addListener(new RedisConnectionStateListener() {
+      @Override
+      public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+        // Commands cannot block on the event loop thread calling back here, the tracking thread enables tracking
+        trackingRequests.release();
+      }
+
+      @Override
+      public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+        clearAll();
+      }
+    });
+
+    connection = redisClient.connect();
+    connection.addListener(this::onPushMessage);
+
+    running = true;
+    trackingThread = Thread.ofPlatform()
+            .name("cache-tracking-listener")
+            .daemon()
+            .start(this::enableTrackingOnConnect);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (trackingThread != null) {
+      trackingThread.interrupt();
+    }
+    if (redisClient != null) {
+      redisClient.shutdown();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  void registerLocalCaches() {
+    for (String cacheName : cacheManager.getCacheNames()) {
+      Cache cache = cacheManager.getCache(cacheName);
+      if (cache instanceof LocalCache localCache) {
+        localCaches.put(cacheName, localCache);
+      }
+    }
+  }
+
+  void onPushMessage(PushMessage message) {
+    if (!INVALIDATE.equals(message.getType())) {
+      return;
+    }
+
+    List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+    // A null key list means the database was flushed
+    if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+      clearAll();
+      return;
+    }
+
+    for (Object key : keys) {
+      invalidate(String.valueOf(key));
+    }
+  }
+
+  void invalidate(String redisKey) {
+    int separator = redisKey.indexOf(CacheKeyPrefix.SEPARATOR);
+    if (separator < 0) {
+      return;
+    }
+
+    LocalCache localCache = localCaches.get(redisKey.substring(0, separator));
+    if (localCache != null) {
+      localCache.evictLocal(redisKey.substring(separator + CacheKeyPrefix.SEPARATOR.length()));
+      CacheInvalidationBus.invalidationCounter(meterRegistry, localCache.getName(), "tracking").increment();
+    }
+  }
+
+  void clearAll() {
+    localCaches.values().forEach(localCache -> {
+      localCache.clearLocal();
+      CacheInvalidationBus.invalidationCounter(meterRegistry, localCache.getName(), "tracking").increment();
+    });
+  }
+
+  String[] trackedPrefixes() {
+    return localCaches.keySet().stream()
+            .map(CacheKeyPrefix.simple()::compute)
+            .toArray(String[]::new);
+  }
+
+  private void enableTrackingOnConnect() {
+    while (running) {
+      try {
+        trackingRequests.acquire();
+        enableTracking();
+      } catch (InterruptedException _) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException ex) {
+        if (running) {
+          LOGGER.warn("[RedisTrackingInvalidationListener] Failed to enable client tracking, retrying in [{}]",
+                  reconnectDelay, ex);
+          sleep(reconnectDelay);
+          trackingRequests.release();
+        }
+      }
+    }
+  }
+
+  private void enableTracking() {
+    String[] prefixes = trackedPrefixes();
+    var commands = connection.sync();
+    // Turning tracking off first drops earlier prefixes, Redis rejects registering an overlapping prefix again
+    commands.clientTracking(TrackingArgs.Builder.enabled(false));
+    commands.clientTracking(TrackingArgs.Builder.enabled().bcast().prefixes(prefixes));
+    // Anything written between losing the previous connection and now was not pushed
+    clearAll();
+    LOGGER.info("[RedisTrackingInvalidationListener] Tracking key prefixes {}", List.of(prefixes));
+  }
+
+  private RedisURI redisUri() {
+    RedisStandaloneConfiguration configuration = lettuceConnectionFactory.getStandaloneConfiguration();
+    var builder = RedisURI.builder()
+            .withHost(configuration.getHostName())
+            .withPort(configuration.getPort())
+            .withDatabase(configuration.getDatabase())
+            .withSsl(lettuceConnectionFactory.isUseSsl())
+            .withClientName(CLIENT_NAME);
+    configuration.getPassword().toOptional().ifPresent(password -> {
+      if (configuration.getUsername() != null) {
+        builder.withAuthentication(configuration.getUsername(), password);
+      } else {
+        builder.withPassword(password);
+      }
+    });
+    return builder.build();
+  }
+
+  private void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
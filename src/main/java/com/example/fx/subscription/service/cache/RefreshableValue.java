@@ -0,0 +1,11 @@
+package com.example.fx.subscription.service.cache;
+
+/**
+ * A loaded cache value together with what probabilistic early refresh needs: how long the load took and when the
+ * entry expires in Redis.
+ */
+public record RefreshableValue(
+        Object value,
+        long loadMillis,
+        long expiresAtMillis
+) {}
@@ -0,0 +1,63 @@
+package com.example.fx.subscription.service.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stores a {@link RefreshableValue} as a header in front of the value written by the wrapped serializer; any other
+ * value is written by the wrapped serializer alone.
+ *
+ * <pre>
+ * header        magic:u8 ('X')  version:u8  loadMillis:i32  expiresAtMillis:i64
+ * </pre>
+ *
+ * The magic byte collides with neither the binary nor the JSON value format. Instances that predate the header fail to
+ * decode such values, so early refresh is only turned on once none of them is running.
+ */
+public class RefreshableValueSerializer implements RedisSerializer<Object> {
+
+  static final byte MAGIC = 'X';
+  static final byte VERSION = 1;
+  static final int HEADER_LENGTH = 2 + Integer.BYTES + Long.BYTES;
+
+  private final RedisSerializer<Object> valueSerializer;
+
+  @SuppressWarnings("unchecked")
+  public RefreshableValueSerializer(RedisSerializer<?> valueSerializer) {
+    this.valueSerializer = (RedisSerializer<Object>) valueSerializer;
+  }
+
+  @Override
+  public byte[] serialize(Object value) {
+    if (!(value instanceof RefreshableValue refreshable)) {
+      return valueSerializer.serialize(value);
+    }
+
+    byte[] serialized = valueSerializer.serialize(refreshable.value());
+    return ByteBuffer.allocate(HEADER_LENGTH + serialized.length)
+            .put(MAGIC)
+            .put(VERSION)
+            .putInt((int) Math.min(refreshable.loadMillis(), Integer.MAX_VALUE))
+            .putLong(refreshable.expiresAtMillis())
+            .put(serialized)
+            .array();
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+      return valueSerializer.deserialize(bytes);
+    }
+    if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION) {
+      return null;
+    }
+
+    var header = ByteBuffer.wrap(bytes, 2, HEADER_LENGTH - 2);
+    int loadMillis = header.getInt();
+    long expiresAtMillis = header.getLong();
+    Object value = valueSerializer.deserialize(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+    return value != null ? new RefreshableValue(value, loadMillis, expiresAtMillis) : null;
+  }
+}
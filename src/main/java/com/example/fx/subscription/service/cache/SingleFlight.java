@@ -0,0 +1,70 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. Callers that ask for a key while it is being loaded wait for that load and
+ * share its result or its exception, instead of each querying the database and writing the same value back.
+ */
+public class SingleFlight {
+
+  private final Map<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+  private final Counter coalesced;
+
+  public SingleFlight(String cacheName, MeterRegistry meterRegistry) {
+    this.coalesced = coalescedCounter(meterRegistry, cacheName, "local");
+  }
+
+  public Object load(String key, Supplier<Object> loader) {
+    var flight = new CompletableFuture<>();
+    CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+    if (inFlight != null) {
+      coalesced.increment();
+      return await(inFlight);
+    }
+
+    try {
+      Object value = loader.get();
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error ex) {
+      flight.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  int inFlight() {
+    return flights.size();
+  }
+
+  static Counter coalescedCounter(MeterRegistry meterRegistry, String cacheName, String scope) {
+    return Counter.builder("cache.coalesced")
+            .description("Cache misses served by a load another caller had already started")
+            .tag("cache", cacheName)
+            .tag("scope", scope)
+            .register(meterRegistry);
+  }
+
+  private static Object await(CompletableFuture<Object> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (ex.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Coalesces the misses of {@code @Cacheable(sync = true)} per key when there is no {@link TwoTierCache} in front of
+ * Redis. {@link org.springframework.data.redis.cache.RedisCache#get(Object, Callable)} synchronizes on the whole cache,
+ * so a slow load of one key would hold up the misses of every other key on the instance.
+ */
+public class SingleFlightCache implements Cache {
+
+  private final Cache delegate;
+  private final SingleFlight singleFlight;
+
+  public SingleFlightCache(Cache delegate, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.singleFlight = new SingleFlight(delegate.getName(), meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+
+    return (T) singleFlight.load(String.valueOf(key), () -> {
+      // A flight that completed between the lookup above and this one has already stored the value
+      ValueWrapper stored = delegate.get(key);
+      if (stored != null) {
+        return stored.get();
+      }
+
+      T value = call(key, valueLoader);
+      delegate.put(key, value);
+      return value;
+    });
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    return delegate.invalidate();
+  }
+
+  private static <T> T call(Object key, Callable<T> valueLoader) {
+    try {
+      return valueLoader.call();
+    } catch (Exception ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a {@link SingleFlightCache} in front of every cache of the wrapped (Redis) cache manager, so synchronized
+ * lookups wait only for a load of the same key. Used when the near cache, which coalesces loads itself, is disabled.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+  private final CacheManager delegate;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+  public SingleFlightCacheManager(CacheManager delegate, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    SingleFlightCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+
+    Cache target = delegate.getCache(name);
+    if (target == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(name, _ -> new SingleFlightCache(target, meterRegistry));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return delegate.getCacheNames();
+  }
+}
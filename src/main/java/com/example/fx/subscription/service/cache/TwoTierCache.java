@@ -0,0 +1,382 @@
+package com.example.fx.subscription.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded in-process cache (L1) in front of a shared cache (L2, Redis). Reads are served from L1 when present and
+ * fill it from L2 otherwise; writes and evictions go to both tiers. Other instances drop their L1 copy either through
+ * a broadcast on the {@link CacheInvalidationBus} or, without a bus, through Redis client tracking. L1 entries expire
+ * after a short TTL, which bounds how stale a copy can get if an invalidation is missed.
+ * <p>
+ * Loads on a miss are coalesced per key: one caller per instance runs the loader while the others wait for its
+ * result. With a {@link RedisLoadLock}, one instance per cluster does, the others pick the value up from L2.
+ * <p>
+ * With {@link EarlyRefresh}, loaded values are stored as {@link RefreshableValue}s in both tiers, and a read through
+ * {@link #get(Object, Callable)} may reload the entry in the background shortly before it expires while the current
+ * value is returned.
+ * <p>
+ * L1 keys are the string form of the cache key, the same form Redis keys are built from.
+ * <p>
+ * A value read from L2 or loaded is only kept in L1 if its key was not invalidated meanwhile, judged per key against
+ * the invalidations recorded for the L1 TTL. With client tracking, Redis also pushes this instance's own writes back
+ * to it; those pushes are skipped so they do not drop the value this instance has just stored.
+ */
+public class TwoTierCache implements Cache, LocalCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TwoTierCache.class);
+
+  private static final Duration DEFAULT_RECORD_TTL = Duration.ofMinutes(1);
+
+  private final Cache l2;
+  private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final RedisLoadLock loadLock;
+  private final SingleFlight singleFlight;
+  private final EarlyRefresh earlyRefresh;
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final AtomicLong invalidationSequence = new AtomicLong();
+  private final com.github.benmanes.caffeine.cache.Cache<String, Long> invalidatedAt;
+  private final com.github.benmanes.caffeine.cache.Cache<String, Integer> ownWrites;
+  private volatile long clearedAt;
+  private final Counter clusterCoalesced;
+  private final Counter missLoads;
+  private final Counter earlyRefreshes;
+  private final Counter l1Hits;
+  private final Counter l2Hits;
+  private final Counter misses;
+
+  /**
+   * @param cacheInvalidationBus where local writes are broadcast, {@code null} when Redis client tracking tells the
+   *                             other instances instead
+   * @param loadLock             cluster-wide lease on loading a key, {@code null} to coalesce loads per instance only
+   * @param earlyRefresh         when to reload entries before they expire, {@code null} to only load on a miss
+   */
+  public TwoTierCache(Cache l2,
+                      com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                      CacheInvalidationBus cacheInvalidationBus,
+                      RedisLoadLock loadLock,
+                      EarlyRefresh earlyRefresh,
+                      MeterRegistry meterRegistry) {
+    this.l2 = l2;
+    this.l1 = l1;
+    this.cacheInvalidationBus = cacheInvalidationBus;
+    this.loadLock = loadLock;
+    this.earlyRefresh = earlyRefresh;
+    this.singleFlight = new SingleFlight(l2.getName(), meterRegistry);
+    // A missed invalidation is bounded by the L1 TTL anyway, so neither record needs to outlive it
+    Duration l1Ttl = l1.policy().expireAfterWrite()
+            .map(Policy.FixedExpiration::getExpiresAfter)
+            .orElse(DEFAULT_RECORD_TTL);
+    this.invalidatedAt = Caffeine.newBuilder().expireAfterWrite(l1Ttl).build();
+    this.ownWrites = Caffeine.newBuilder().expireAfterWrite(l1Ttl).build();
+    this.clusterCoalesced = SingleFlight.coalescedCounter(meterRegistry, l2.getName(), "cluster");
+    this.missLoads = loadsCounter(meterRegistry, "miss");
+    this.earlyRefreshes = loadsCounter(meterRegistry, "early_refresh");
+    this.l1Hits = getsCounter(meterRegistry, "l1_hit");
+    this.l2Hits = getsCounter(meterRegistry, "l2_hit");
+    this.misses = getsCounter(meterRegistry, "miss");
+    Gauge.builder("cache.near.size", l1, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+            .description("Entries held in the in-process tier of a cache")
+            .tag("cache", l2.getName())
+            .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return l2.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return l2.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    Object value = lookup(key, null);
+    return value != null ? new SimpleValueWrapper(value) : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException("Cached value is not of required type [%s]: %s".formatted(type.getName(), value));
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    long stamp = invalidationSequence.get();
+    Object value = lookup(key, valueLoader);
+    if (value != null) {
+      return (T) value;
+    }
+
+    String localKey = localKey(key);
+    return (T) singleFlight.load(localKey, () -> load(key, localKey, valueLoader, stamp));
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    String localKey = localKey(key);
+    if (value != null) {
+      recordOwnWrite(localKey);
+    }
+    l2.put(key, value);
+    if (value != null) {
+      l1.put(localKey, value);
+    } else {
+      l1.invalidate(localKey);
+    }
+    broadcastEvict(localKey);
+  }
+
+  @Override
+  public void evict(Object key) {
+    l2.evict(key);
+    String localKey = localKey(key);
+    l1.invalidate(localKey);
+    broadcastEvict(localKey);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    boolean evicted = l2.evictIfPresent(key);
+    String localKey = localKey(key);
+    l1.invalidate(localKey);
+    broadcastEvict(localKey);
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    l2.clear();
+    l1.invalidateAll();
+    broadcastClear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = l2.invalidate();
+    l1.invalidateAll();
+    broadcastClear();
+    return invalidated;
+  }
+
+  @Override
+  public void evictLocal(String key) {
+    if (consumeOwnWrite(key)) {
+      return;
+    }
+
+    l1.asMap().compute(key, (localKey, _) -> {
+      invalidatedAt.put(localKey, invalidationSequence.incrementAndGet());
+      return null;
+    });
+  }
+
+  @Override
+  public void clearLocal() {
+    // Pushes for own writes may have been lost along with the others
+    ownWrites.invalidateAll();
+    clearedAt = invalidationSequence.incrementAndGet();
+    l1.invalidateAll();
+  }
+
+  // Entries are stored as read from L2, so a RefreshableValue keeps its expiry in L1 too
+  private Object lookup(Object key, Callable<?> refreshLoader) {
+    String localKey = localKey(key);
+    Object stored = l1.getIfPresent(localKey);
+    if (stored != null) {
+      l1Hits.increment();
+    } else {
+      long stamp = invalidationSequence.get();
+      ValueWrapper wrapper = l2.get(key);
+      stored = wrapper != null ? wrapper.get() : null;
+      if (stored == null) {
+        misses.increment();
+        return null;
+      }
+      l2Hits.increment();
+      fillLocal(localKey, stored, stamp);
+    }
+
+    if (refreshLoader != null && earlyRefresh != null && stored instanceof RefreshableValue refreshable
+            && earlyRefresh.shouldRefresh(refreshable)) {
+      refreshInBackground(key, localKey, refreshLoader);
+    }
+    return unwrap(stored);
+  }
+
+  private Object load(Object key, String localKey, Callable<?> valueLoader, long stamp) {
+    // A load that completed between this caller's miss and this load starting has filled L1 already
+    Object local = l1.getIfPresent(localKey);
+    if (local != null) {
+      return unwrap(local);
+    }
+
+    String lease = null;
+    if (loadLock != null) {
+      lease = loadLock.tryAcquire(getName(), localKey);
+      if (lease == null) {
+        ValueWrapper loaded = awaitLoadElsewhere(key);
+        if (loaded != null) {
+          clusterCoalesced.increment();
+          fillLocal(localKey, loaded.get(), stamp);
+          return unwrap(loaded.get());
+        }
+      }
+    }
+
+    try {
+      Object value;
+      long start = System.nanoTime();
+      try {
+        value = valueLoader.call();
+      } catch (Exception ex) {
+        throw new ValueRetrievalException(key, valueLoader, ex);
+      }
+      missLoads.increment();
+      if (value != null) {
+        Object stored = store(key, value, System.nanoTime() - start);
+        fillLocal(localKey, stored, stamp);
+      }
+      return value;
+    } finally {
+      if (loadLock != null) {
+        loadLock.release(getName(), localKey, lease);
+      }
+    }
+  }
+
+  // The caller that won the draw returns the current value, the reload runs on its own thread
+  private void refreshInBackground(Object key, String localKey, Callable<?> valueLoader) {
+    if (!refreshing.add(localKey)) {
+      return;
+    }
+
+    long stamp = invalidationSequence.get();
+    Thread.ofVirtual().name("cache-refresh-" + getName()).start(() -> {
+      try {
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        if (value != null) {
+          fillLocal(localKey, store(key, value, System.nanoTime() - start), stamp);
+          earlyRefreshes.increment();
+        }
+      } catch (Exception ex) {
+        // The current entry stays until it expires, then the next read loads it
+        LOGGER.warn("[TwoTierCache] Early refresh of [{}] in cache [{}] failed", localKey, getName(), ex);
+      } finally {
+        refreshing.remove(localKey);
+      }
+    });
+  }
+
+  private Object store(Object key, Object value, long loadNanos) {
+    Object stored = earlyRefresh != null ? earlyRefresh.wrap(key, value, loadNanos) : value;
+    recordOwnWrite(localKey(key));
+    l2.put(key, stored);
+    return stored;
+  }
+
+  private static Object unwrap(Object stored) {
+    return stored instanceof RefreshableValue refreshable ? refreshable.value() : stored;
+  }
+
+  // Waits for the instance holding the lease to write the value; if it does not in time, this caller loads it itself
+  private ValueWrapper awaitLoadElsewhere(Object key) {
+    long deadline = System.nanoTime() + loadLock.getWait().toNanos();
+    while (System.nanoTime() - deadline < 0) {
+      try {
+        Thread.sleep(loadLock.getPollInterval());
+      } catch (InterruptedException _) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+
+      ValueWrapper wrapper = l2.get(key);
+      if (wrapper != null && wrapper.get() != null) {
+        return wrapper;
+      }
+    }
+    return null;
+  }
+
+  private void fillLocal(String localKey, Object value, long stamp) {
+    // An invalidation of this key that arrived while L2 was read may be for this very value, so it is not kept locally
+    l1.asMap().compute(localKey, (_, current) -> isInvalidatedSince(localKey, stamp) ? current : value);
+  }
+
+  private boolean isInvalidatedSince(String localKey, long stamp) {
+    Long invalidated = invalidatedAt.getIfPresent(localKey);
+    return clearedAt > stamp || (invalidated != null && invalidated > stamp);
+  }
+
+  // Only with client tracking, where Redis pushes every write of a key to every instance, this one included
+  private void recordOwnWrite(String localKey) {
+    if (cacheInvalidationBus == null) {
+      ownWrites.asMap().merge(localKey, 1, Integer::sum);
+    }
+  }
+
+  private boolean consumeOwnWrite(String localKey) {
+    boolean[] own = new boolean[1];
+    ownWrites.asMap().computeIfPresent(localKey, (_, pending) -> {
+      own[0] = true;
+      return pending > 1 ? pending - 1 : null;
+    });
+    return own[0];
+  }
+
+  private void broadcastEvict(String localKey) {
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.publishEvict(getName(), localKey);
+    }
+  }
+
+  private void broadcastClear() {
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.publishClear(getName());
+    }
+  }
+
+  private Counter loadsCounter(MeterRegistry meterRegistry, String cause) {
+    return Counter.builder("cache.loads")
+            .description("Cache loads, on a miss or as an early refresh of an entry about to expire")
+            .tag("cache", l2.getName())
+            .tag("cause", cause)
+            .register(meterRegistry);
+  }
+
+  private Counter getsCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("cache.near.gets")
+            .description("Cache reads by the tier that answered them")
+            .tag("cache", l2.getName())
+            .tag("result", result)
+            .register(meterRegistry);
+  }
+
+  static String localKey(Object key) {
+    return String.valueOf(key);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.fx.subscription.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a {@link TwoTierCache} in front of every cache of the wrapped (Redis) cache manager. Each cache gets its own
+ * Caffeine L1, bounded by size with W-TinyLFU admission and eviction and by a write TTL.
+ * <p>
+ * Without a {@link CacheInvalidationBus} the caches do not broadcast their writes, the L1 copies on other instances are
+ * then expected to be invalidated by {@link RedisTrackingInvalidationListener}.
+ * <p>
+ * Caches backed by Redis refresh entries early when {@code earlyRefreshBeta} is positive, with the expiry given by the
+ * TTL function of their Redis configuration.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+  private final CacheManager l2CacheManager;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final long maximumSize;
+  private final Duration ttl;
+  private final RedisLoadLock loadLock;
+  private final double earlyRefreshBeta;
+  private final Duration earlyRefreshMinLoadTime;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+  public TwoTierCacheManager(CacheManager l2CacheManager,
+                             CacheInvalidationBus cacheInvalidationBus,
+                             long maximumSize,
+                             Duration ttl,
+                             RedisLoadLock loadLock,
+                             double earlyRefreshBeta,
+                             Duration earlyRefreshMinLoadTime,
+                             MeterRegistry meterRegistry) {
+    this.l2CacheManager = l2CacheManager;
+    this.cacheInvalidationBus = cacheInvalidationBus;
+    this.maximumSize = maximumSize;
+    this.ttl = ttl;
+    this.loadLock = loadLock;
+    this.earlyRefreshBeta = earlyRefreshBeta;
+    this.earlyRefreshMinLoadTime = earlyRefreshMinLoadTime;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    TwoTierCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+
+    Cache l2 = l2CacheManager.getCache(name);
+    if (l2 == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(name, _ -> createCache(l2));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return l2CacheManager.getCacheNames();
+  }
+
+  public CacheManager getL2CacheManager() {
+    return l2CacheManager;
+  }
+
+  private TwoTierCache createCache(Cache l2) {
+    var l1 = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .<String, Object>build();
+    EarlyRefresh earlyRefresh = null;
+    if (earlyRefreshBeta > 0 && l2 instanceof RedisCache redisCache) {
+      earlyRefresh = new EarlyRefresh(redisCache.getCacheConfiguration().getTtlFunction(), earlyRefreshBeta,
+              earlyRefreshMinLoadTime);
+    }
+
+    var cache = new TwoTierCache(l2, l1, cacheInvalidationBus, loadLock, earlyRefresh, meterRegistry);
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.register(cache);
+    }
+    return cache;
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Reads an entry this instance cannot decode, one written in a newer format by another instance during a rolling
+ * deploy, as a cache miss: the method runs and its result overwrites the entry. Any other cache error is rethrown.
+ */
+public class UnreadableEntryCacheErrorHandler extends SimpleCacheErrorHandler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(UnreadableEntryCacheErrorHandler.class);
+
+  private final MeterRegistry meterRegistry;
+
+  public UnreadableEntryCacheErrorHandler(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+    if (!(exception instanceof SerializationException)) {
+      super.handleCacheGetError(exception, cache, key);
+      return;
+    }
+
+    LOGGER.debug("Unreadable entry [{}] in cache [{}], treating it as a miss", key, cache.getName(), exception);
+    Counter.builder("cache.unreadable")
+            .description("Cache entries that could not be decoded and were read as a miss")
+            .tag("cache", cache.getName())
+            .register(meterRegistry)
+            .increment();
+  }
+}
@@ -1,53 +1,103 @@
 package com.example.fx.subscription.service.config;
 
+import com.example.fx.subscription.service.cache.JitteredTtlFunction;
+import com.example.fx.subscription.service.cache.RefreshableValueSerializer;
+import com.example.fx.subscription.service.cache.UnreadableEntryCacheErrorHandler;
 import com.example.fx.subscription.service.dto.subscription.SubscriptionListResponse;
 import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.serialization.SubscriptionCacheSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.cache.autoconfigure.RedisCacheManagerBuilderCustomizer;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 
 @Configuration
 @EnableCaching
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
   private final int cacheTtlSeconds;
+  private final String valueFormat;
+  private final int compressionThresholdBytes;
+  private final double ttlJitter;
+  private final int negativeTtlSeconds;
+  private final MeterRegistry meterRegistry;
 
   public CacheConfig(
-          @Value(value = "${spring.cache.redis.time-to-live-seconds}") int cacheTtlSeconds
+          @Value(value = "${spring.cache.redis.time-to-live-seconds}") int cacheTtlSeconds,
+          @Value(value = "${spring.cache.redis.value-format}") String valueFormat,
+          @Value(value = "${spring.cache.redis.compression-threshold-bytes}") int compressionThresholdBytes,
+          @Value(value = "${spring.cache.redis.ttl-jitter}") double ttlJitter,
+          @Value(value = "${spring.cache.redis.negative-ttl-seconds}") int negativeTtlSeconds,
+          MeterRegistry meterRegistry
   ) {
     this.cacheTtlSeconds = cacheTtlSeconds;
+    this.valueFormat = valueFormat;
+    this.compressionThresholdBytes = compressionThresholdBytes;
+    this.ttlJitter = ttlJitter;
+    this.negativeTtlSeconds = negativeTtlSeconds;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public CacheErrorHandler errorHandler() {
+    return new UnreadableEntryCacheErrorHandler(meterRegistry);
   }
 
   @Bean
   public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer(
   ) {
     return builder -> {
-      JacksonJsonRedisSerializer<SubscriptionListResponse> subListSerializer =
-              new JacksonJsonRedisSerializer<>(SubscriptionListResponse.class);
+      SubscriptionCacheSerializer<SubscriptionListResponse> subListSerializer =
+              SubscriptionCacheSerializer.forSubscriptionList(valueFormat, compressionThresholdBytes);
       builder.withCacheConfiguration("subscriptionsByUser",
               RedisCacheConfiguration.defaultCacheConfig()
                       .serializeValuesWith(
-                              RedisSerializationContext.SerializationPair.fromSerializer(subListSerializer)
+                              RedisSerializationContext.SerializationPair.fromSerializer(
+                                      new RefreshableValueSerializer(subListSerializer))
                       )
-                      .entryTtl(Duration.ofSeconds(cacheTtlSeconds))
+                      .entryTtl(new JitteredTtlFunction(Duration.ofSeconds(cacheTtlSeconds), ttlJitter))
                       .disableCachingNullValues()
       );
 
-      JacksonJsonRedisSerializer<SubscriptionResponse> subSerializer =
-              new JacksonJsonRedisSerializer<>(SubscriptionResponse.class);
+      SubscriptionCacheSerializer<SubscriptionResponse> subSerializer =
+              SubscriptionCacheSerializer.forSubscription(valueFormat, compressionThresholdBytes);
       builder.withCacheConfiguration("subscription",
               RedisCacheConfiguration.defaultCacheConfig()
                       .serializeValuesWith(
-                              RedisSerializationContext.SerializationPair.fromSerializer(subSerializer)
+                              RedisSerializationContext.SerializationPair.fromSerializer(
+                                      new RefreshableValueSerializer(subSerializer))
+                      )
+                      .entryTtl(new JitteredTtlFunction(Duration.ofSeconds(cacheTtlSeconds), ttlJitter))
+                      .disableCachingNullValues()
+      );
+
+      builder.withCacheConfiguration("subscriptionOwner",
+              RedisCacheConfiguration.defaultCacheConfig()
+                      .serializeValuesWith(
+                              RedisSerializationContext.SerializationPair.fromSerializer(
+                                      new RefreshableValueSerializer(RedisSerializer.string()))
+                      )
+                      .entryTtl(new JitteredTtlFunction(Duration.ofSeconds(cacheTtlSeconds), ttlJitter))
+                      .disableCachingNullValues()
+      );
+
+      builder.withCacheConfiguration("subscriptionMisses",
+              RedisCacheConfiguration.defaultCacheConfig()
+                      .serializeValuesWith(
+                              RedisSerializationContext.SerializationPair.fromSerializer(
+                                      new RefreshableValueSerializer(new GenericToStringSerializer<>(Boolean.class)))
                       )
-                      .entryTtl(Duration.ofSeconds(cacheTtlSeconds))
+                      .entryTtl(new JitteredTtlFunction(Duration.ofSeconds(negativeTtlSeconds), ttlJitter))
                       .disableCachingNullValues()
       );
     };
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,8 +27,13 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     String token = jwtTokenProvider.resolveToken(request);
 
     if (token != null && jwtTokenProvider.validateToken(token)) {
-      Authentication auth = jwtTokenProvider.getAuthentication(token);
-      SecurityContextHolder.getContext().setAuthentication(auth);
+      try {
+        Authentication auth = jwtTokenProvider.getAuthentication(token);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+      } catch (DisabledException _) {
+        // A valid token of a disabled user authenticates nothing, the request goes on anonymously
+        SecurityContextHolder.clearContext();
+      }
     }
 
     filterChain.doFilter(request, response);
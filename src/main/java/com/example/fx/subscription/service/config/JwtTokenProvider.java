@@ -1,6 +1,6 @@
 package com.example.fx.subscription.service.config;
 
-import com.example.fx.subscription.service.service.FxUserDetailsService;
+import com.example.fx.subscription.service.service.FxPrincipalCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -10,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,14 +27,14 @@ public class JwtTokenProvider {
 
   private SecretKey secretKey;
 
-  private final FxUserDetailsService fxUserDetailsService;
+  private final FxPrincipalCache fxPrincipalCache;
   private final String secret;
   private final long validityInMilliseconds;
 
-  public JwtTokenProvider(FxUserDetailsService fxUserDetailsService,
+  public JwtTokenProvider(FxPrincipalCache fxPrincipalCache,
                           @Value("${security.jwt.token.secret-key}") String secret,
                           @Value("${security.jwt.token.expire-length}") long validityInMilliseconds) {
-    this.fxUserDetailsService = fxUserDetailsService;
+    this.fxPrincipalCache = fxPrincipalCache;
     this.secret = secret;
     this.validityInMilliseconds = validityInMilliseconds;
   }
@@ -46,7 +47,10 @@ public class JwtTokenProvider {
 
   public Authentication getAuthentication(String token) {
     String username = getUsername(token);
-    UserDetails userDetails = fxUserDetailsService.loadUserByUsername(username);
+    UserDetails userDetails = fxPrincipalCache.loadUserByUsername(username);
+    if (!userDetails.isEnabled()) {
+      throw new DisabledException("User is disabled");
+    }
     return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
   }
 
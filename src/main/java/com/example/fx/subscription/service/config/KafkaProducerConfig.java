@@ -1,11 +1,13 @@
 package com.example.fx.subscription.service.config;
 
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.serialization.SubscriptionChangeEventBinarySerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -18,26 +20,74 @@ import java.util.Map;
 public class KafkaProducerConfig {
 
   private final String bootstrapAddress;
+  private final String valueFormat;
+  private final String transactionIdPrefix;
 
   public KafkaProducerConfig(
-          @Value(value = "${spring.kafka.bootstrap-servers}") String bootstrapAddress
+          @Value(value = "${spring.kafka.bootstrap-servers}") String bootstrapAddress,
+          @Value(value = "${outbox.subscriptions.publish.format}") String valueFormat,
+          @Value(value = "${outbox.subscriptions.publish.transactional}") boolean transactional,
+          @Value(value = "${outbox.subscriptions.publish.transaction-id-prefix}") String transactionIdPrefix
   ) {
+    if (!valueFormat.equals("json") && !valueFormat.equals("binary")) {
+      throw new IllegalArgumentException("outbox.subscriptions.publish.format must be json or binary");
+    }
+
     this.bootstrapAddress = bootstrapAddress;
+    this.valueFormat = valueFormat;
+    this.transactionIdPrefix = transactional ? transactionIdPrefix : null;
   }
 
   @Bean
+  @Primary
   public ProducerFactory<String, SubscriptionChangeEvent> producerFactory() {
+    return createProducerFactory(KafkaProducerProfile.LOW_LATENCY, transactionIdPrefix);
+  }
+
+  @Bean
+  public ProducerFactory<String, SubscriptionChangeEvent> bulkProducerFactory() {
+    // Transactional ids must not be shared between factories, the bulk producers get their own prefix
+    return createProducerFactory(KafkaProducerProfile.BULK, transactionIdPrefix != null ? transactionIdPrefix + "bulk-" : null);
+  }
+
+  @Bean
+  @Primary
+  public KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate() {
+    return createKafkaTemplate(producerFactory());
+  }
+
+  @Bean
+  public KafkaTemplate<String, SubscriptionChangeEvent> bulkKafkaTemplate() {
+    return createKafkaTemplate(bulkProducerFactory());
+  }
+
+  private ProducerFactory<String, SubscriptionChangeEvent> createProducerFactory(KafkaProducerProfile profile,
+                                                                                String transactionIdPrefix) {
     Map<String, Object> configProps = new HashMap<>();
     configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+    // Idempotence keeps records of the same key in send order when pipelined sends are retried
+    profile.applyTo(configProps);
     configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JacksonJsonSerializer.class);
-    configProps.put(JacksonJsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+    if (valueFormat.equals("binary")) {
+      // Tagged with a format header, consumers read both formats with SubscriptionChangeEventDeserializer
+      configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, SubscriptionChangeEventBinarySerializer.class);
+    } else {
+      configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JacksonJsonSerializer.class);
+      configProps.put(JacksonJsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+    }
 
-    return new DefaultKafkaProducerFactory<>(configProps);
+    var producerFactory = new DefaultKafkaProducerFactory<String, SubscriptionChangeEvent>(configProps);
+    if (transactionIdPrefix != null) {
+      producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+    }
+    return producerFactory;
   }
 
-  @Bean
-  public KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate() {
-    return new KafkaTemplate<>(producerFactory());
+  private static KafkaTemplate<String, SubscriptionChangeEvent> createKafkaTemplate(
+          ProducerFactory<String, SubscriptionChangeEvent> producerFactory) {
+    var kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    // Only the outbox relay opens Kafka transactions, single sends elsewhere stay non-transactional
+    kafkaTemplate.setAllowNonTransactional(true);
+    return kafkaTemplate;
   }
 }
@@ -0,0 +1,41 @@
+package com.example.fx.subscription.service.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Producer settings tuned for the two ways the outbox is published. {@link #LOW_LATENCY} sends each record as soon as
+ * it is handed over, for single events and small chunks. {@link #BULK} waits a few milliseconds to fill larger,
+ * compressed batches, trading a little latency per record for throughput while a backlog is drained. Both stay
+ * idempotent with {@code acks=all}, so retried batches never reorder or duplicate the records of a subscription.
+ */
+public enum KafkaProducerProfile {
+
+  LOW_LATENCY("low-latency", 0, 16_384, "none"),
+  BULK("bulk", 20, 262_144, "lz4");
+
+  private final String profileName;
+  private final int lingerMs;
+  private final int batchSize;
+  private final String compressionType;
+
+  KafkaProducerProfile(String profileName, int lingerMs, int batchSize, String compressionType) {
+    this.profileName = profileName;
+    this.lingerMs = lingerMs;
+    this.batchSize = batchSize;
+    this.compressionType = compressionType;
+  }
+
+  public String profileName() {
+    return profileName;
+  }
+
+  void applyTo(Map<String, Object> configProps) {
+    configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+    configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+    configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+    configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+  }
+}
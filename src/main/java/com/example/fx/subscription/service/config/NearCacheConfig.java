@@ -0,0 +1,104 @@
+package com.example.fx.subscription.service.config;
+
+import com.example.fx.subscription.service.cache.CacheInvalidationBus;
+import com.example.fx.subscription.service.cache.RedisLoadLock;
+import com.example.fx.subscription.service.cache.RedisTrackingInvalidationListener;
+import com.example.fx.subscription.service.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+@ConditionalOnBooleanProperty("cache.near.enabled")
+public class NearCacheConfig {
+
+  static final String PUBSUB_INVALIDATION = "pubsub";
+  static final String TRACKING_INVALIDATION = "tracking";
+
+  @Bean
+  public CacheInvalidationBus cacheInvalidationBus(
+          StringRedisTemplate stringRedisTemplate,
+          @Value(value = "${cache.near.invalidation-channel}") String invalidationChannel,
+          MeterRegistry meterRegistry
+  ) {
+    return new CacheInvalidationBus(stringRedisTemplate, invalidationChannel, meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnBooleanProperty("cache.near.load-lock.enabled")
+  public RedisLoadLock redisLoadLock(
+          StringRedisTemplate stringRedisTemplate,
+          @Value(value = "${cache.near.load-lock.lease}") Duration lease,
+          @Value(value = "${cache.near.load-lock.wait}") Duration wait,
+          @Value(value = "${cache.near.load-lock.poll-interval}") Duration pollInterval
+  ) {
+    return new RedisLoadLock(stringRedisTemplate, lease, wait, pollInterval);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "cache.near.invalidation", havingValue = TRACKING_INVALIDATION)
+  public RedisTrackingInvalidationListener redisTrackingInvalidationListener(
+          LettuceConnectionFactory lettuceConnectionFactory,
+          CacheManager cacheManager,
+          @Value(value = "${cache.near.tracking-retry-delay}") Duration trackingRetryDelay,
+          MeterRegistry meterRegistry
+  ) {
+    return new RedisTrackingInvalidationListener(lettuceConnectionFactory, cacheManager, trackingRetryDelay,
+            meterRegistry);
+  }
+
+  @Bean
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                          CacheInvalidationBus cacheInvalidationBus) {
+    var container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+    return container;
+  }
+
+  // Wraps the RedisCacheManager built by Spring Boot, so its RedisCacheManagerBuilderCustomizers still apply to L2.
+  // With client tracking, Redis itself tells every instance about writes, so the caches do not broadcast them.
+  @Bean
+  public static BeanPostProcessor twoTierCacheManagerPostProcessor(
+          ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+          ObjectProvider<RedisLoadLock> redisLoadLock,
+          ObjectProvider<MeterRegistry> meterRegistry,
+          @Value(value = "${cache.near.maximum-size}") long maximumSize,
+          @Value(value = "${cache.near.ttl}") Duration ttl,
+          @Value(value = "${cache.near.invalidation}") String invalidation,
+          @Value(value = "${cache.near.early-refresh.beta}") double earlyRefreshBeta,
+          @Value(value = "${cache.near.early-refresh.min-load-time}") Duration earlyRefreshMinLoadTime
+  ) {
+    if (!PUBSUB_INVALIDATION.equals(invalidation) && !TRACKING_INVALIDATION.equals(invalidation)) {
+      throw new IllegalArgumentException("cache.near.invalidation must be [%s] or [%s], was [%s]"
+              .formatted(PUBSUB_INVALIDATION, TRACKING_INVALIDATION, invalidation));
+    }
+
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RedisCacheManager redisCacheManager) {
+          CacheInvalidationBus bus = PUBSUB_INVALIDATION.equals(invalidation) ? cacheInvalidationBus.getObject() : null;
+          return new TwoTierCacheManager(redisCacheManager, bus, maximumSize, ttl, redisLoadLock.getIfAvailable(),
+                  earlyRefreshBeta, earlyRefreshMinLoadTime, meterRegistry.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+}
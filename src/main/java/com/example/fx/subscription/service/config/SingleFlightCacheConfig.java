@@ -0,0 +1,31 @@
+package com.example.fx.subscription.service.config;
+
+import com.example.fx.subscription.service.cache.SingleFlightCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+@ConditionalOnBooleanProperty(name = "cache.near.enabled", havingValue = false, matchIfMissing = true)
+public class SingleFlightCacheConfig {
+
+  // Without the near cache, sync = true would otherwise fall through to RedisCache, which locks the whole cache
+  @Bean
+  public static BeanPostProcessor singleFlightCacheManagerPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RedisCacheManager redisCacheManager) {
+          return new SingleFlightCacheManager(redisCacheManager, meterRegistry.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+}
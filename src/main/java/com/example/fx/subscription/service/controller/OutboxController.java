@@ -0,0 +1,57 @@
+package com.example.fx.subscription.service.controller;
+
+import com.example.fx.subscription.service.dto.outbox.OutboxEventListResponse;
+import com.example.fx.subscription.service.dto.outbox.OutboxEventResponse;
+import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.service.EventsOutboxService;
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/outbox")
+@Observed(name = "outbox.controller")
+public class OutboxController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxController.class);
+  private final EventsOutboxService eventsOutboxService;
+
+  public OutboxController(EventsOutboxService eventsOutboxService) {
+    this.eventsOutboxService = eventsOutboxService;
+  }
+
+  @GetMapping(path = "/dead-letters", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<OutboxEventListResponse> getDeadLetters(
+          @PageableDefault(size = 20, sort = "timestamp", direction = Sort.Direction.ASC) Pageable pageable) {
+    Page<EventsOutbox> deadLettersPage = eventsOutboxService.findOutboxesByStatus("DEAD", pageable);
+    List<OutboxEventResponse> events = deadLettersPage.getContent().stream()
+            .map(OutboxEventResponse::fromEventsOutbox)
+            .toList();
+
+    OutboxEventListResponse response = new OutboxEventListResponse(
+            events,
+            deadLettersPage.getTotalElements(),
+            deadLettersPage.getTotalPages(),
+            deadLettersPage.getNumber(),
+            deadLettersPage.getSize()
+    );
+
+    LOGGER.info("Retrieved {} dead-lettered outbox events from page {} of {}",
+            deadLettersPage.getNumberOfElements(), deadLettersPage.getNumber(), deadLettersPage.getTotalPages());
+
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.fx.subscription.service.dto.outbox;
+
+import java.util.List;
+
+public record OutboxEventListResponse(
+        List<OutboxEventResponse> events,
+        long totalElements,
+        int totalPages,
+        int currentPage,
+        int pageSize
+) {
+}
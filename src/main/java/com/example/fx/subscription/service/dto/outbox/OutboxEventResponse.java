@@ -0,0 +1,27 @@
+package com.example.fx.subscription.service.dto.outbox;
+
+import com.example.fx.subscription.service.model.EventsOutbox;
+
+public record OutboxEventResponse(
+        String id,
+        String aggregateType,
+        String aggregateId,
+        String eventType,
+        String status,
+        int attempts,
+        long timestamp,
+        long nextAttemptAt
+) {
+  public static OutboxEventResponse fromEventsOutbox(EventsOutbox eventsOutbox) {
+    return new OutboxEventResponse(
+            eventsOutbox.getId().toString(),
+            eventsOutbox.getAggregateType(),
+            eventsOutbox.getAggregateId() != null ? eventsOutbox.getAggregateId().toString() : null,
+            eventsOutbox.getEventType(),
+            eventsOutbox.getStatus(),
+            eventsOutbox.getAttempts(),
+            eventsOutbox.getTimestamp(),
+            eventsOutbox.getNextAttemptAt()
+    );
+  }
+}
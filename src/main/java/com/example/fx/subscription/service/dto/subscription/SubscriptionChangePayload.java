@@ -0,0 +1,111 @@
+package com.example.fx.subscription.service.dto.subscription;
+
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.Subscription;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Payload of a subscription change in the outbox and on the topic. A create carries the full state (a snapshot), an
+ * update carries only the fields it changed and a delete carries only the subscription and user ids. Absent fields are
+ * unchanged, and {@code version} orders the changes of one subscription, so state is rebuilt by applying each delta to
+ * the snapshot in version order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SubscriptionChangePayload(
+        String id,
+        long version,
+        String userId,
+        UserSummaryResponse user,
+        String currencyPair,
+        BigDecimal threshold,
+        ThresholdDirection direction,
+        List<String> notificationsChannels,
+        SubscriptionStatus status,
+        String createdAt,
+        String updatedAt
+) implements Serializable {
+
+  public static SubscriptionChangePayload snapshot(Subscription subscription) {
+    var user = subscription.getUser();
+    return new SubscriptionChangePayload(
+            subscription.getId().toString(),
+            subscription.getVersion(),
+            user != null ? user.getId().toString() : null,
+            user != null ? UserSummaryResponse.fromFxUser(user) : null,
+            subscription.getCurrencyPair(),
+            subscription.getThreshold(),
+            subscription.getDirection(),
+            subscription.getNotificationsChannels() != null ? List.copyOf(subscription.getNotificationsChannels()) : List.of(),
+            subscription.getStatus(),
+            subscription.getCreatedAt().toString(),
+            subscription.getUpdatedAt() != null ? subscription.getUpdatedAt().toString() : null
+    );
+  }
+
+  /**
+   * The fields of {@code updated} that differ from {@code before}, a snapshot taken before the update was applied.
+   */
+  public static SubscriptionChangePayload delta(SubscriptionChangePayload before, Subscription updated) {
+    var after = snapshot(updated);
+    return new SubscriptionChangePayload(
+            after.id(),
+            after.version(),
+            null,
+            null,
+            changed(before.currencyPair(), after.currencyPair()),
+            before.threshold() != null && after.threshold() != null && before.threshold().compareTo(after.threshold()) == 0
+                    ? null
+                    : after.threshold(),
+            changed(before.direction(), after.direction()),
+            changed(before.notificationsChannels(), after.notificationsChannels()),
+            changed(before.status(), after.status()),
+            null,
+            after.updatedAt()
+    );
+  }
+
+  public static SubscriptionChangePayload deletion(Subscription subscription) {
+    // A delete does not bump the row version, the next number still orders it after the last update
+    return new SubscriptionChangePayload(
+            subscription.getId().toString(),
+            subscription.getVersion() + 1,
+            subscription.getUser() != null ? subscription.getUser().getId().toString() : null,
+            null, null, null, null, null, null, null, null
+    );
+  }
+
+  /**
+   * Applies a later change of the same subscription on top of this one: fields present in {@code change} win and the
+   * version moves to the change's version. A snapshot stays a snapshot, two deltas merge into one delta.
+   */
+  public SubscriptionChangePayload apply(SubscriptionChangePayload change) {
+    return new SubscriptionChangePayload(
+            id,
+            change.version(),
+            orCurrent(change.userId(), userId),
+            orCurrent(change.user(), user),
+            orCurrent(change.currencyPair(), currencyPair),
+            orCurrent(change.threshold(), threshold),
+            orCurrent(change.direction(), direction),
+            orCurrent(change.notificationsChannels(), notificationsChannels),
+            orCurrent(change.status(), status),
+            orCurrent(change.createdAt(), createdAt),
+            orCurrent(change.updatedAt(), updatedAt)
+    );
+  }
+
+  private static <T> T orCurrent(T changed, T current) {
+    return changed != null ? changed : current;
+  }
+
+  private static <T> T changed(T before, T after) {
+    return Objects.equals(before, after) ? null : after;
+  }
+}
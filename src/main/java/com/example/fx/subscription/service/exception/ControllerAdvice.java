@@ -4,6 +4,7 @@ import io.jsonwebtoken.JwtException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -85,6 +86,20 @@ public class ControllerAdvice {
             .body(problemDetail);
   }
 
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(
+          OptimisticLockingFailureException ex,
+          WebRequest request
+  ) {
+    logException(ex.getMessage(), ex, request);
+
+    return createProblemDetail(
+            HttpStatus.CONFLICT,
+            "The resource was modified concurrently, please retry",
+            "CONCURRENT_MODIFICATION"
+    );
+  }
+
   @ExceptionHandler({
           NoResourceFoundException.class,
           NoHandlerFoundException.class
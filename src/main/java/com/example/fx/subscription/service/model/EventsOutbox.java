@@ -1,7 +1,8 @@
 package com.example.fx.subscription.service.model;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -14,7 +15,10 @@ import java.util.UUID;
 @Table(
         name = "events_outbox",
         indexes = {
-                @Index(name = "idx_events_outbox_status", columnList = "status")
+                @Index(name = "idx_events_outbox_status", columnList = "status"),
+                @Index(name = "idx_events_outbox_status_timestamp", columnList = "status, timestamp"),
+                @Index(name = "idx_events_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_events_outbox_aggregate_status_timestamp", columnList = "aggregate_id, status, timestamp")
         }
 )
 public class EventsOutbox implements Serializable {
@@ -34,12 +38,18 @@ public class EventsOutbox implements Serializable {
 
   @JdbcTypeCode(SqlTypes.JSON)
   @Column(columnDefinition = "jsonb")
-  private SubscriptionResponse payload;
+  private SubscriptionChangePayload payload;
 
   private String status;
 
   private long timestamp;
 
+  @ColumnDefault("0")
+  private int attempts;
+
+  @ColumnDefault("0")
+  private long nextAttemptAt;
+
   public UUID getId() {
     return id;
   }
@@ -72,11 +82,11 @@ public class EventsOutbox implements Serializable {
     this.eventType = eventType;
   }
 
-  public SubscriptionResponse getPayload() {
+  public SubscriptionChangePayload getPayload() {
     return payload;
   }
 
-  public void setPayload(SubscriptionResponse payload) {
+  public void setPayload(SubscriptionChangePayload payload) {
     this.payload = payload;
   }
 
@@ -96,6 +106,22 @@ public class EventsOutbox implements Serializable {
     this.timestamp = timestamp;
   }
 
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public long getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(long nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
   public EventsOutbox() {}
 
   public EventsOutbox(UUID id, String status) {
@@ -116,12 +142,15 @@ public class EventsOutbox implements Serializable {
             && Objects.equals(getEventType(), that.getEventType())
             && Objects.equals(getPayload(), that.getPayload())
             && Objects.equals(getStatus(), that.getStatus())
-            && Objects.equals(getTimestamp(), that.getTimestamp());
+            && Objects.equals(getTimestamp(), that.getTimestamp())
+            && getAttempts() == that.getAttempts()
+            && getNextAttemptAt() == that.getNextAttemptAt();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, getAggregateType(), getAggregateId(), getEventType(), getPayload(), getStatus(), getTimestamp());
+    return Objects.hash(id, getAggregateType(), getAggregateId(), getEventType(), getPayload(), getStatus(), getTimestamp(),
+            getAttempts(), getNextAttemptAt());
   }
 
   @Override
@@ -134,6 +163,8 @@ public class EventsOutbox implements Serializable {
             ", payload=" + payload +
             ", status=" + status +
             ", timestamp=" + timestamp +
+            ", attempts=" + attempts +
+            ", nextAttemptAt=" + nextAttemptAt +
             '}';
   }
 }
@@ -0,0 +1,8 @@
+package com.example.fx.subscription.service.model;
+
+import java.util.UUID;
+
+public record EventsOutboxSaved(
+        UUID outboxId
+) {
+}
@@ -2,6 +2,7 @@ package com.example.fx.subscription.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -52,6 +53,11 @@ public class Subscription implements Serializable {
   @Column(insertable = false)
   private Instant updatedAt;
 
+  // Orders the change events of this subscription, bumped by every update
+  @Version
+  @ColumnDefault("0")
+  private long version;
+
   public Subscription() {
   }
 
@@ -142,6 +148,14 @@ public class Subscription implements Serializable {
     this.updatedAt = updatedAt;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (!(o instanceof Subscription that)) return false;
@@ -170,6 +184,7 @@ public class Subscription implements Serializable {
             ", status=" + status +
             ", createdAt=" + createdAt +
             ", updatedAt=" + updatedAt +
+            ", version=" + version +
             '}';
   }
 }
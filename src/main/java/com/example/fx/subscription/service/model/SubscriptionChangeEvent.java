@@ -1,11 +1,19 @@
 package com.example.fx.subscription.service.model;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 
 public record SubscriptionChangeEvent(
         String eventId,
         long timestamp,
         String eventType,
-        SubscriptionResponse payload
+        SubscriptionChangePayload payload
 ) {
+  public static SubscriptionChangeEvent fromEventsOutbox(EventsOutbox eventsOutbox) {
+    return new SubscriptionChangeEvent(
+            eventsOutbox.getId().toString(),
+            eventsOutbox.getTimestamp(),
+            eventsOutbox.getEventType(),
+            eventsOutbox.getPayload()
+    );
+  }
 }
@@ -1,9 +1,15 @@
 package com.example.fx.subscription.service.repository;
 
 import com.example.fx.subscription.service.model.EventsOutbox;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +18,67 @@ public interface EventsOutboxRepository extends JpaRepository<EventsOutbox, UUID
 
   List<EventsOutbox> findByStatus(String status);
 
+  Page<EventsOutbox> findByStatus(String status, Pageable pageable);
+
+  long countByStatus(String status);
+
+  @Query("SELECT MIN(e.timestamp) FROM EventsOutbox e WHERE e.status = :status")
+  Long findOldestTimestampByStatus(@Param("status") String status);
+
+  // A row waits while an older row of its aggregate is still PENDING or FAILED, so it cannot overtake it. An older row
+  // in the same chunk does not hold it back, one locked by the after-commit dispatcher does: the row held back stays
+  // locked until the chunk commits and goes out with a later chunk
+  @Query(value = """
+          WITH claimed AS (
+            SELECT * FROM events_outbox e
+            WHERE e.status = :status
+              AND NOT EXISTS (
+                SELECT 1 FROM events_outbox f
+                WHERE f.aggregate_id = e.aggregate_id AND f.status = 'FAILED' AND f.timestamp < e.timestamp
+              )
+            ORDER BY e.timestamp
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+          )
+          SELECT * FROM claimed c
+          WHERE NOT EXISTS (
+            SELECT 1 FROM events_outbox f
+            WHERE f.aggregate_id = c.aggregate_id AND f.status IN ('PENDING', 'FAILED') AND f.timestamp < c.timestamp
+              AND f.id NOT IN (SELECT id FROM claimed)
+          )
+          ORDER BY c.timestamp
+          """, nativeQuery = true)
+  List<EventsOutbox> claimByStatus(@Param("status") String status, @Param("limit") int limit);
+
+  @Query(value = """
+          SELECT * FROM events_outbox e
+          WHERE e.id IN (:ids) AND e.status = :status
+            AND NOT EXISTS (
+              SELECT 1 FROM events_outbox f
+              WHERE f.aggregate_id = e.aggregate_id AND f.status IN ('PENDING', 'FAILED') AND f.timestamp < e.timestamp
+            )
+          ORDER BY e.timestamp
+          FOR UPDATE SKIP LOCKED
+          """, nativeQuery = true)
+  List<EventsOutbox> claimByIdInAndStatus(@Param("ids") Collection<UUID> ids, @Param("status") String status);
+
+  // Due rows go out in write order and not ahead of an older row of their aggregate that is still backing off
+  @Query(value = """
+          SELECT * FROM events_outbox e
+          WHERE e.status = :status AND e.next_attempt_at <= :now
+            AND NOT EXISTS (
+              SELECT 1 FROM events_outbox f
+              WHERE f.aggregate_id = e.aggregate_id AND f.status = 'FAILED' AND f.timestamp < e.timestamp
+                AND f.next_attempt_at > :now
+            )
+          ORDER BY e.timestamp
+          LIMIT :limit
+          FOR UPDATE SKIP LOCKED
+          """, nativeQuery = true)
+  List<EventsOutbox> claimDueByStatus(@Param("status") String status, @Param("now") long now, @Param("limit") int limit);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE EventsOutbox e SET e.status = :status WHERE e.id IN :ids")
+  int updateStatusByIdIn(@Param("ids") Collection<UUID> ids, @Param("status") String status);
+
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -17,4 +18,7 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
 
   boolean existsByIdAndUserId(UUID id, UUID userId);
 
+  @Query("SELECT s.user.id FROM Subscription s WHERE s.id = :id")
+  Optional<UUID> findUserIdById(@Param("id") UUID id);
+
 }
@@ -0,0 +1,217 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionListResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.fx.subscription.service.serialization.SubscriptionChangeEventBinaryCodec.*;
+
+/**
+ * Binary encoding of the cached {@link SubscriptionResponse} and {@link SubscriptionListResponse} values, version 1.
+ * Field encodings are those of {@link SubscriptionChangeEventBinaryCodec}.
+ *
+ * <pre>
+ * value         version:u8  flags:u8  body                   flags bit 0: body is LZ4 compressed
+ * compressed    length:i32  lz4 block of the body
+ * subscription  id:uuid  user:opt(user)  fields
+ * list          totalCount:i32  userCount:u16 user*  count:i32 (id:uuid  userRef:u16  fields)*
+ * fields        currencyPair:opt(str)  threshold:opt(decimal)  direction:opt(u8)  channels:opt(u16 str*)
+ *               status:opt(u8)  createdAt:opt(instant)  updatedAt:opt(instant)
+ * </pre>
+ *
+ * A list stores every distinct user summary once and refers to it by its 1-based position, 0 meaning no user. The
+ * version byte never collides with the opening brace of the JSON format, so both can be told apart when read.
+ */
+public final class SubscriptionCacheBinaryCodec {
+
+  static final byte VERSION = 1;
+  static final int COMPRESSED = 0x01;
+
+  private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+  private SubscriptionCacheBinaryCodec() {
+  }
+
+  public static byte[] encodeSubscription(SubscriptionResponse subscription, int compressionThreshold) {
+    var bytes = new ByteArrayOutputStream(128);
+    try (var out = new DataOutputStream(bytes)) {
+      writeUuid(out, subscription.id());
+      writeUser(out, subscription.user());
+      writeFields(out, subscription);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return frame(bytes.toByteArray(), compressionThreshold);
+  }
+
+  public static byte[] encodeSubscriptionList(SubscriptionListResponse list, int compressionThreshold) {
+    List<SubscriptionResponse> subscriptions = list.subscriptions() != null ? list.subscriptions() : List.of();
+    Map<UserSummaryResponse, Integer> userRefs = new HashMap<>();
+    List<UserSummaryResponse> users = new ArrayList<>();
+    for (SubscriptionResponse subscription : subscriptions) {
+      if (subscription.user() != null && userRefs.putIfAbsent(subscription.user(), users.size() + 1) == null) {
+        users.add(subscription.user());
+      }
+    }
+
+    var bytes = new ByteArrayOutputStream(64 + subscriptions.size() * 80);
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(list.totalCount());
+      out.writeShort(users.size());
+      for (UserSummaryResponse user : users) {
+        writeUser(out, user);
+      }
+
+      out.writeInt(subscriptions.size());
+      for (SubscriptionResponse subscription : subscriptions) {
+        writeUuid(out, subscription.id());
+        out.writeShort(subscription.user() != null ? userRefs.get(subscription.user()) : 0);
+        writeFields(out, subscription);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return frame(bytes.toByteArray(), compressionThreshold);
+  }
+
+  /**
+   * @return the decoded subscription, or {@code null} when the value was written in a version this instance does not
+   * know, so that the caller treats it as a cache miss
+   */
+  public static SubscriptionResponse decodeSubscription(byte[] data) {
+    byte[] body = unframe(data);
+    if (body == null) {
+      return null;
+    }
+
+    try (var in = new DataInputStream(new ByteArrayInputStream(body))) {
+      String id = readUuid(in);
+      UserSummaryResponse user = readUser(in);
+      return readFields(in, id, user);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * @return the decoded list, or {@code null} when the value was written in a version this instance does not know
+   */
+  public static SubscriptionListResponse decodeSubscriptionList(byte[] data) {
+    byte[] body = unframe(data);
+    if (body == null) {
+      return null;
+    }
+
+    try (var in = new DataInputStream(new ByteArrayInputStream(body))) {
+      int totalCount = in.readInt();
+      int userCount = in.readUnsignedShort();
+      List<UserSummaryResponse> users = new ArrayList<>(userCount);
+      for (int i = 0; i < userCount; i++) {
+        users.add(readUser(in));
+      }
+
+      int count = in.readInt();
+      List<SubscriptionResponse> subscriptions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        String id = readUuid(in);
+        int userRef = in.readUnsignedShort();
+        subscriptions.add(readFields(in, id, userRef == 0 ? null : users.get(userRef - 1)));
+      }
+      return new SubscriptionListResponse(subscriptions, totalCount);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void writeFields(DataOutputStream out, SubscriptionResponse subscription) throws IOException {
+    writeString(out, subscription.currencyPair());
+    writeDecimal(out, subscription.threshold());
+    writeOrdinal(out, subscription.direction());
+
+    List<String> channels = subscription.notificationsChannels();
+    out.writeBoolean(channels != null);
+    if (channels != null) {
+      writeChannels(out, channels);
+    }
+
+    writeOrdinal(out, subscription.status());
+    writeInstant(out, subscription.createdAt());
+    writeInstant(out, subscription.updatedAt());
+  }
+
+  private static SubscriptionResponse readFields(DataInputStream in, String id, UserSummaryResponse user)
+          throws IOException {
+    String currencyPair = readString(in);
+    BigDecimal threshold = readDecimal(in);
+    ThresholdDirection direction = readOrdinal(in, ThresholdDirection.values());
+    List<String> channels = in.readBoolean() ? readChannels(in) : null;
+    SubscriptionStatus status = readOrdinal(in, SubscriptionStatus.values());
+
+    return new SubscriptionResponse(id, user, currencyPair, threshold, direction, channels, status,
+            readInstant(in), readInstant(in));
+  }
+
+  private static byte[] frame(byte[] body, int compressionThreshold) {
+    if (body.length >= compressionThreshold) {
+      LZ4Compressor compressor = LZ4.fastCompressor();
+      byte[] compressed = compressor.compress(body);
+      // Uniformly random fields such as ids may not compress at all, then the plain body is kept
+      if (compressed.length + Integer.BYTES < body.length) {
+        return ByteBuffer.allocate(2 + Integer.BYTES + compressed.length)
+                .put(VERSION)
+                .put((byte) COMPRESSED)
+                .putInt(body.length)
+                .put(compressed)
+                .array();
+      }
+    }
+
+    return ByteBuffer.allocate(2 + body.length)
+            .put(VERSION)
+            .put((byte) 0)
+            .put(body)
+            .array();
+  }
+
+  private static byte[] unframe(byte[] data) {
+    if (data.length < 2 || data[0] != VERSION) {
+      return null;
+    }
+
+    var buffer = ByteBuffer.wrap(data, 2, data.length - 2);
+    if ((data[1] & COMPRESSED) == 0) {
+      byte[] body = new byte[buffer.remaining()];
+      buffer.get(body);
+      return body;
+    }
+
+    int length = buffer.getInt();
+    // LZ4 expands a block by at most 255 times, a longer length is corrupt and must not size the allocation
+    if (length < 0 || length > (long) buffer.remaining() * 255) {
+      throw new IllegalArgumentException("Corrupt compressed cache value, body length: " + length);
+    }
+
+    byte[] body = new byte[length];
+    LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+    decompressor.decompress(data, buffer.position(), buffer.remaining(), body, 0);
+    return body;
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionListResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Writes cached subscription values in the configured format and reads both, so instances writing JSON and instances
+ * writing binary can share one Redis during a rolling deploy. Binary values of an unknown version read as a cache miss
+ * and are overwritten by the next load; a truncated or corrupt binary value fails with a {@link SerializationException},
+ * which the cache error handler also reads as a miss.
+ */
+public final class SubscriptionCacheSerializer<T> implements RedisSerializer<T> {
+
+  public static final String JSON = "json";
+  public static final String BINARY = "binary";
+
+  private static final byte[] EMPTY = new byte[0];
+  private static final byte JSON_OBJECT = '{';
+
+  private final JacksonJsonRedisSerializer<T> jsonSerializer;
+  private final BiFunction<T, Integer, byte[]> binaryEncoder;
+  private final Function<byte[], T> binaryDecoder;
+  private final boolean binary;
+  private final int compressionThreshold;
+
+  private SubscriptionCacheSerializer(Class<T> type,
+                                      BiFunction<T, Integer, byte[]> binaryEncoder,
+                                      Function<byte[], T> binaryDecoder,
+                                      String format,
+                                      int compressionThreshold) {
+    if (!JSON.equals(format) && !BINARY.equals(format)) {
+      throw new IllegalArgumentException("Cache value format must be [%s] or [%s], was [%s]"
+              .formatted(JSON, BINARY, format));
+    }
+    this.jsonSerializer = new JacksonJsonRedisSerializer<>(type);
+    this.binaryEncoder = binaryEncoder;
+    this.binaryDecoder = binaryDecoder;
+    this.binary = BINARY.equals(format);
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  public static SubscriptionCacheSerializer<SubscriptionResponse> forSubscription(String format,
+                                                                                  int compressionThreshold) {
+    return new SubscriptionCacheSerializer<>(SubscriptionResponse.class,
+            SubscriptionCacheBinaryCodec::encodeSubscription,
+            SubscriptionCacheBinaryCodec::decodeSubscription,
+            format, compressionThreshold);
+  }
+
+  public static SubscriptionCacheSerializer<SubscriptionListResponse> forSubscriptionList(String format,
+                                                                                          int compressionThreshold) {
+    return new SubscriptionCacheSerializer<>(SubscriptionListResponse.class,
+            SubscriptionCacheBinaryCodec::encodeSubscriptionList,
+            SubscriptionCacheBinaryCodec::decodeSubscriptionList,
+            format, compressionThreshold);
+  }
+
+  @Override
+  public byte[] serialize(T value) {
+    if (value == null) {
+      return EMPTY;
+    }
+    return binary ? binaryEncoder.apply(value, compressionThreshold) : jsonSerializer.serialize(value);
+  }
+
+  @Override
+  public T deserialize(byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (bytes[0] == JSON_OBJECT) {
+      return jsonSerializer.deserialize(bytes);
+    }
+
+    try {
+      return binaryDecoder.apply(bytes);
+    } catch (RuntimeException ex) {
+      throw new SerializationException("Cannot decode binary cache value", ex);
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary encoding of {@link SubscriptionChangeEvent}, version 2. All numbers are big-endian, strings are
+ * length-prefixed modified UTF-8 and every nullable field is preceded by a presence byte.
+ *
+ * <pre>
+ * event         version:u8  eventId:uuid  timestamp:i64  eventType:u8 [name:str if 0xFF]  payload
+ * payload       id:uuid  version:i64  userId:opt(uuid)  user:opt(user)  currencyPair:opt(str)  threshold:opt(decimal)
+ *               direction:opt(u8)  channels:opt(u16 str*)  status:opt(u8)  createdAt:opt(instant)  updatedAt:opt(instant)
+ * payload v1    id:uuid  user:opt(user)  currencyPair:opt(str)  threshold:opt(decimal)  direction:opt(u8)
+ *               channels:u16 str*  status:opt(u8)  createdAt:opt(instant)  updatedAt:opt(instant)
+ * user          id:uuid  email:opt(str)  mobile:opt(str)  enabled:bool  createdAt:opt(instant)  updatedAt:opt(instant)
+ * uuid          msb:i64  lsb:i64
+ * decimal       scale:i32  length:u8  unscaled two's complement bytes
+ * instant       epoch nanoseconds:i64
+ * </pre>
+ *
+ * Enums are written as ordinals, so new constants may only be appended. Version 1 records, written before update
+ * events carried deltas, still decode as snapshots with version 0.
+ */
+public final class SubscriptionChangeEventBinaryCodec {
+
+  public static final String FORMAT_HEADER = "fx-event-format";
+  public static final String BINARY_V1 = "binary/v1";
+  public static final String BINARY_V2 = "binary/v2";
+  public static final String JSON = "json";
+
+  static final byte VERSION = 2;
+  private static final byte VERSION_1 = 1;
+
+  private static final List<String> EVENT_TYPES =
+          List.of("SubscriptionCreated", "SubscriptionUpdated", "SubscriptionDeleted");
+  private static final int OTHER_EVENT_TYPE = 0xFF;
+
+  private SubscriptionChangeEventBinaryCodec() {
+  }
+
+  public static byte[] encode(SubscriptionChangeEvent event) {
+    var bytes = new ByteArrayOutputStream(128);
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      writeUuid(out, event.eventId());
+      out.writeLong(event.timestamp());
+
+      int eventType = EVENT_TYPES.indexOf(event.eventType());
+      out.writeByte(eventType >= 0 ? eventType : OTHER_EVENT_TYPE);
+      if (eventType < 0) {
+        out.writeUTF(event.eventType());
+      }
+
+      writePayload(out, event.payload());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static SubscriptionChangeEvent decode(byte[] data) {
+    try (var in = new DataInputStream(new ByteArrayInputStream(data))) {
+      byte version = in.readByte();
+      if (version != VERSION && version != VERSION_1) {
+        throw new IllegalArgumentException("Unsupported SubscriptionChangeEvent binary version: " + version);
+      }
+
+      String eventId = readUuid(in);
+      long timestamp = in.readLong();
+      int eventTypeCode = in.readUnsignedByte();
+      String eventType = eventTypeCode == OTHER_EVENT_TYPE ? in.readUTF() : EVENT_TYPES.get(eventTypeCode);
+
+      return new SubscriptionChangeEvent(eventId, timestamp, eventType,
+              version == VERSION_1 ? readPayloadV1(in) : readPayload(in));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void writePayload(DataOutputStream out, SubscriptionChangePayload payload) throws IOException {
+    writeUuid(out, payload.id());
+    out.writeLong(payload.version());
+    out.writeBoolean(payload.userId() != null);
+    if (payload.userId() != null) {
+      writeUuid(out, payload.userId());
+    }
+    writeUser(out, payload.user());
+
+    writeString(out, payload.currencyPair());
+    writeDecimal(out, payload.threshold());
+    writeOrdinal(out, payload.direction());
+
+    List<String> channels = payload.notificationsChannels();
+    out.writeBoolean(channels != null);
+    if (channels != null) {
+      writeChannels(out, channels);
+    }
+
+    writeOrdinal(out, payload.status());
+    writeInstant(out, payload.createdAt());
+    writeInstant(out, payload.updatedAt());
+  }
+
+  private static SubscriptionChangePayload readPayload(DataInputStream in) throws IOException {
+    String id = readUuid(in);
+    long version = in.readLong();
+    String userId = in.readBoolean() ? readUuid(in) : null;
+    UserSummaryResponse user = readUser(in);
+
+    String currencyPair = readString(in);
+    BigDecimal threshold = readDecimal(in);
+    ThresholdDirection direction = readOrdinal(in, ThresholdDirection.values());
+    List<String> channels = in.readBoolean() ? readChannels(in) : null;
+    SubscriptionStatus status = readOrdinal(in, SubscriptionStatus.values());
+
+    return new SubscriptionChangePayload(id, version, userId, user, currencyPair, threshold, direction, channels, status,
+            readInstant(in), readInstant(in));
+  }
+
+  private static SubscriptionChangePayload readPayloadV1(DataInputStream in) throws IOException {
+    String id = readUuid(in);
+    UserSummaryResponse user = readUser(in);
+
+    String currencyPair = readString(in);
+    BigDecimal threshold = readDecimal(in);
+    ThresholdDirection direction = readOrdinal(in, ThresholdDirection.values());
+    List<String> channels = readChannels(in);
+    SubscriptionStatus status = readOrdinal(in, SubscriptionStatus.values());
+
+    return new SubscriptionChangePayload(id, 0, user != null ? user.id() : null, user, currencyPair, threshold,
+            direction, channels, status, readInstant(in), readInstant(in));
+  }
+
+  static void writeUser(DataOutputStream out, UserSummaryResponse user) throws IOException {
+    out.writeBoolean(user != null);
+    if (user != null) {
+      writeUuid(out, user.id());
+      writeString(out, user.email());
+      writeString(out, user.mobile());
+      out.writeBoolean(user.enabled());
+      writeInstant(out, user.createdAt());
+      writeInstant(out, user.updatedAt());
+    }
+  }
+
+  static UserSummaryResponse readUser(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    return new UserSummaryResponse(readUuid(in), readString(in), readString(in), in.readBoolean(),
+            readInstant(in), readInstant(in));
+  }
+
+  static void writeChannels(DataOutputStream out, List<String> channels) throws IOException {
+    out.writeShort(channels.size());
+    for (String channel : channels) {
+      out.writeUTF(channel);
+    }
+  }
+
+  static List<String> readChannels(DataInputStream in) throws IOException {
+    int channelCount = in.readUnsignedShort();
+    List<String> channels = new ArrayList<>(channelCount);
+    for (int i = 0; i < channelCount; i++) {
+      channels.add(in.readUTF());
+    }
+    return channels;
+  }
+
+  static void writeUuid(DataOutputStream out, String value) throws IOException {
+    UUID uuid = UUID.fromString(value);
+    out.writeLong(uuid.getMostSignificantBits());
+    out.writeLong(uuid.getLeastSignificantBits());
+  }
+
+  static String readUuid(DataInputStream in) throws IOException {
+    return new UUID(in.readLong(), in.readLong()).toString();
+  }
+
+  static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      byte[] unscaled = value.unscaledValue().toByteArray();
+      out.writeInt(value.scale());
+      out.writeByte(unscaled.length);
+      out.write(unscaled);
+    }
+  }
+
+  static BigDecimal readDecimal(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    int scale = in.readInt();
+    byte[] unscaled = new byte[in.readUnsignedByte()];
+    in.readFully(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  static void writeOrdinal(DataOutputStream out, Enum<?> value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeByte(value.ordinal());
+    }
+  }
+
+  static <E extends Enum<E>> E readOrdinal(DataInputStream in, E[] values) throws IOException {
+    return in.readBoolean() ? values[in.readUnsignedByte()] : null;
+  }
+
+  static void writeInstant(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      Instant instant = Instant.parse(value);
+      out.writeLong(Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano()));
+    }
+  }
+
+  static String readInstant(DataInputStream in) throws IOException {
+    return in.readBoolean() ? Instant.ofEpochSecond(0, in.readLong()).toString() : null;
+  }
+}
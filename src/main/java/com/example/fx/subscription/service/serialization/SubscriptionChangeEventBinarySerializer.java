@@ -0,0 +1,24 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+public class SubscriptionChangeEventBinarySerializer implements Serializer<SubscriptionChangeEvent> {
+
+  private static final byte[] BINARY_V2_HEADER = SubscriptionChangeEventBinaryCodec.BINARY_V2.getBytes(StandardCharsets.UTF_8);
+
+  @Override
+  public byte[] serialize(String topic, SubscriptionChangeEvent data) {
+    return data == null ? null : SubscriptionChangeEventBinaryCodec.encode(data);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Headers headers, SubscriptionChangeEvent data) {
+    headers.remove(SubscriptionChangeEventBinaryCodec.FORMAT_HEADER);
+    headers.add(SubscriptionChangeEventBinaryCodec.FORMAT_HEADER, BINARY_V2_HEADER);
+    return serialize(topic, data);
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Reads {@link SubscriptionChangeEvent} records in either wire format, chosen by the format header. Records without
+ * the header are JSON, as written before the binary format existed.
+ */
+public class SubscriptionChangeEventDeserializer implements Deserializer<SubscriptionChangeEvent> {
+
+  private final JacksonJsonDeserializer<SubscriptionChangeEvent> jsonDeserializer =
+          new JacksonJsonDeserializer<>(SubscriptionChangeEvent.class, false);
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    jsonDeserializer.configure(configs, isKey);
+  }
+
+  @Override
+  public SubscriptionChangeEvent deserialize(String topic, byte[] data) {
+    return jsonDeserializer.deserialize(topic, data);
+  }
+
+  @Override
+  public SubscriptionChangeEvent deserialize(String topic, Headers headers, byte[] data) {
+    Header format = headers.lastHeader(SubscriptionChangeEventBinaryCodec.FORMAT_HEADER);
+    if (format == null || data == null) {
+      return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    String value = new String(format.value(), StandardCharsets.UTF_8);
+    return switch (value) {
+      case SubscriptionChangeEventBinaryCodec.BINARY_V1, SubscriptionChangeEventBinaryCodec.BINARY_V2 ->
+              SubscriptionChangeEventBinaryCodec.decode(data);
+      case SubscriptionChangeEventBinaryCodec.JSON -> jsonDeserializer.deserialize(topic, headers, data);
+      default -> throw new SerializationException("Unknown SubscriptionChangeEvent format: " + value);
+    };
+  }
+
+  @Override
+  public void close() {
+    jsonDeserializer.close();
+  }
+}
@@ -1,29 +1,134 @@
 package com.example.fx.subscription.service.service;
 
 import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
 import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class EventsOutboxService {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventsOutboxService.class);
+
   private final EventsOutboxRepository eventsOutboxRepository;
+  private final OutboxRetryPolicy outboxRetryPolicy;
+  private final MeterRegistry meterRegistry;
+  private final Counter retriesScheduledCounter;
+  private final Counter deadLetteredCounter;
+  private final DistributionSummary failedAttemptsSummary;
 
-  public EventsOutboxService(EventsOutboxRepository eventsOutboxRepository) {
+  public EventsOutboxService(EventsOutboxRepository eventsOutboxRepository,
+                             OutboxRetryPolicy outboxRetryPolicy,
+                             MeterRegistry meterRegistry) {
     this.eventsOutboxRepository = eventsOutboxRepository;
+    this.outboxRetryPolicy = outboxRetryPolicy;
+    this.meterRegistry = meterRegistry;
+    this.retriesScheduledCounter = Counter.builder("outbox.retry.scheduled")
+            .description("Failed outbox events scheduled for another attempt")
+            .register(meterRegistry);
+    this.deadLetteredCounter = Counter.builder("outbox.dead.lettered")
+            .description("Outbox events moved to DEAD after exhausting their attempts")
+            .register(meterRegistry);
+    this.failedAttemptsSummary = DistributionSummary.builder("outbox.retry.failed.attempt")
+            .description("Attempt number at which an outbox event failed to publish")
+            .register(meterRegistry);
+  }
+
+  @Transactional
+  public void updateOutboxStatuses(Map<String, ? extends Collection<String>> outboxIdsByStatus) {
+    outboxIdsByStatus.forEach((newStatus, outboxIds) -> {
+      if (outboxIds.isEmpty()) {
+        return;
+      }
+
+      var ids = outboxIds.stream().map(UUID::fromString).toList();
+
+      DistributionSummary.builder("outbox.status.update.batch.size")
+              .description("Number of outbox events moved to a status in one statement")
+              .tag("status", newStatus)
+              .register(meterRegistry)
+              .record(ids.size());
+
+      Timer.builder("outbox.status.update")
+              .description("Time taken by one bulk outbox status update statement")
+              .tag("status", newStatus)
+              .register(meterRegistry)
+              .record(() -> {
+                eventsOutboxRepository.updateStatusByIdIn(ids, newStatus);
+              });
+    });
+  }
+
+  @Transactional
+  public void updateOutboxEvents(Collection<SubscriptionChangeEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    Map<UUID, SubscriptionChangeEvent> eventsById = new HashMap<>();
+    events.forEach(event -> eventsById.put(UUID.fromString(event.eventId()), event));
+
+    var outboxes = eventsOutboxRepository.findAllById(eventsById.keySet());
+    for (EventsOutbox outbox : outboxes) {
+      var event = eventsById.get(outbox.getId());
+      outbox.setEventType(event.eventType());
+      outbox.setPayload(event.payload());
+    }
+
+    eventsOutboxRepository.saveAll(outboxes);
   }
 
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  public void updateOutboxStatus(String outboxId, String newStatus) {
-    EventsOutbox outbox = eventsOutboxRepository.findById(UUID.fromString(outboxId))
-            .orElseThrow(() -> new RuntimeException("Outbox event not found with id: " + outboxId));
+  @Transactional
+  public void recordFailedAttempts(Collection<String> outboxIds) {
+    if (outboxIds.isEmpty()) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    var outboxes = eventsOutboxRepository.findAllById(outboxIds.stream().map(UUID::fromString).toList());
+
+    // One jittered backoff per aggregate, drawn from its highest attempt count, so its failed events come due together
+    Map<UUID, Integer> aggregateAttempts = new HashMap<>();
+    outboxes.forEach(outbox -> aggregateAttempts.merge(outbox.getAggregateId(), outbox.getAttempts() + 1, Math::max));
+    Map<UUID, Long> aggregateNextAttemptAt = new HashMap<>();
+
+    for (EventsOutbox outbox : outboxes) {
+      int attempts = outbox.getAttempts() + 1;
+      outbox.setAttempts(attempts);
+      failedAttemptsSummary.record(attempts);
+
+      if (outboxRetryPolicy.isExhausted(attempts)) {
+        outbox.setStatus("DEAD");
+        deadLetteredCounter.increment();
+        LOGGER.warn("Outbox event: [{}] moved to DEAD after [{}] attempts", outbox.getId(), attempts);
+        continue;
+      }
+
+      outbox.setStatus("FAILED");
+      outbox.setNextAttemptAt(aggregateNextAttemptAt.computeIfAbsent(outbox.getAggregateId(),
+              aggregateId -> now + outboxRetryPolicy.backoff(aggregateAttempts.get(aggregateId)).toMillis()));
+      retriesScheduledCounter.increment();
+    }
+
+    eventsOutboxRepository.saveAll(outboxes);
+  }
 
-    outbox.setStatus(newStatus);
-    eventsOutboxRepository.save(outbox);
+  public Page<EventsOutbox> findOutboxesByStatus(String status, Pageable pageable) {
+    return eventsOutboxRepository.findByStatus(status, pageable);
   }
 
   public EventsOutbox findOutboxById(String id) {
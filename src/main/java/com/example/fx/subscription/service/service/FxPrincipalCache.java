@@ -0,0 +1,91 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.cache.CacheInvalidationBus;
+import com.example.fx.subscription.service.cache.LocalCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * The principals of authenticated requests by token subject, so a request does not look its user up again. Entries are
+ * evicted when the user changes, on the other instances too through the {@link CacheInvalidationBus} when there is
+ * one; the write TTL bounds how long a change missed by an instance, such as disabling a user, goes unnoticed.
+ */
+@Component
+public class FxPrincipalCache implements LocalCache {
+
+  static final String NAME = "principals";
+
+  private final FxUserDetailsService fxUserDetailsService;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final Cache<String, UserDetails> principals;
+
+  public FxPrincipalCache(FxUserDetailsService fxUserDetailsService,
+                          @Value("${security.jwt.principal-cache.maximum-size}") long maximumSize,
+                          @Value("${security.jwt.principal-cache.ttl}") Duration ttl,
+                          @Nullable CacheInvalidationBus cacheInvalidationBus,
+                          MeterRegistry meterRegistry) {
+    this.fxUserDetailsService = fxUserDetailsService;
+    this.cacheInvalidationBus = cacheInvalidationBus;
+    this.principals = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.register(this);
+    }
+    CaffeineCacheMetrics.monitor(meterRegistry, principals, NAME);
+  }
+
+  public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    return principals.get(username, fxUserDetailsService::loadUserByUsername);
+  }
+
+  // After the commit, since a request reloading the user before it would cache the old row again
+  public void evict(String username) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      evictEverywhere(username);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        evictEverywhere(username);
+      }
+    });
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public void evictLocal(String key) {
+    principals.invalidate(key);
+  }
+
+  @Override
+  public void clearLocal() {
+    principals.invalidateAll();
+  }
+
+  private void evictEverywhere(String username) {
+    principals.invalidate(username);
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.publishEvict(NAME, username);
+    }
+  }
+}
@@ -26,10 +26,14 @@ public class FxUsersService {
 
   private final FxUserRepository fxUserRepository;
   private final SubscriptionRepository subscriptionRepository;
+  private final FxPrincipalCache fxPrincipalCache;
 
-  public FxUsersService(FxUserRepository fxUserRepository, SubscriptionRepository subscriptionRepository) {
+  public FxUsersService(FxUserRepository fxUserRepository,
+                        SubscriptionRepository subscriptionRepository,
+                        FxPrincipalCache fxPrincipalCache) {
     this.fxUserRepository = fxUserRepository;
     this.subscriptionRepository = subscriptionRepository;
+    this.fxPrincipalCache = fxPrincipalCache;
   }
 
   @Transactional(readOnly = true)
@@ -50,6 +54,7 @@ public class FxUsersService {
   public FxUser updateUser(String id, UserUpdateRequest userUpdateRequest) {
     FxUser user = fxUserRepository.findByIdWithSubscriptions(UUID.fromString(id))
             .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + id, id));
+    String previousEmail = user.getEmail();
 
     Optional.ofNullable(userUpdateRequest.email())
             .filter(StringUtils::hasText)
@@ -63,6 +68,11 @@ public class FxUsersService {
             .filter(StringUtils::hasText)
             .ifPresent(user::setPushDeviceToken);
 
+    fxPrincipalCache.evict(previousEmail);
+    // Token subjects are emails, so a principal cached under the new one would be another user's stale entry
+    if (!previousEmail.equals(user.getEmail())) {
+      fxPrincipalCache.evict(user.getEmail());
+    }
     return fxUserRepository.save(user);
   }
 
@@ -71,6 +81,7 @@ public class FxUsersService {
             .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + id, id));
 
     user.setEnabled(enabled);
+    fxPrincipalCache.evict(user.getEmail());
     return fxUserRepository.save(user);
   }
 
@@ -85,6 +96,7 @@ public class FxUsersService {
     }
 
     fxUserRepository.delete(user);
+    fxPrincipalCache.evict(user.getEmail());
   }
 
   @Transactional(readOnly = true)
@@ -0,0 +1,246 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.PGReplicationStream;
+import org.postgresql.util.PSQLState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@ConditionalOnProperty(name = "outbox.subscriptions.relay.mode", havingValue = "cdc")
+public class OutboxCdcRelay implements SmartLifecycle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxCdcRelay.class);
+
+  private static final String OUTBOX_TABLE = "events_outbox";
+  private static final Duration IDLE_WAIT = Duration.ofMillis(10);
+  private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcConnectionDetails jdbcConnectionDetails;
+  private final SubscriptionChangePublisher subscriptionChangePublisher;
+  private final SchedulerLeadership schedulerLeadership;
+  private final JsonMapper jsonMapper;
+  private final String slotName;
+  private final String publicationName;
+  private final Duration statusInterval;
+  private final Duration reconnectDelay;
+
+  private volatile boolean running;
+  private Thread relayThread;
+
+  public OutboxCdcRelay(JdbcTemplate jdbcTemplate,
+                        JdbcConnectionDetails jdbcConnectionDetails,
+                        SubscriptionChangePublisher subscriptionChangePublisher,
+                        SchedulerLeadership schedulerLeadership,
+                        JsonMapper jsonMapper,
+                        @Value("${outbox.subscriptions.cdc.slot-name}") String slotName,
+                        @Value("${outbox.subscriptions.cdc.publication-name}") String publicationName,
+                        @Value("${outbox.subscriptions.cdc.status-interval}") Duration statusInterval,
+                        @Value("${outbox.subscriptions.cdc.reconnect-delay}") Duration reconnectDelay,
+                        @Value("${outbox.subscriptions.dispatch.after-commit}") boolean afterCommitDispatch) {
+    if (afterCommitDispatch) {
+      throw new IllegalStateException(
+              "outbox.subscriptions.dispatch.after-commit must be false when outbox.subscriptions.relay.mode is cdc");
+    }
+    if (!slotName.matches("[a-z0-9_]+") || !publicationName.matches("[a-z0-9_]+")) {
+      throw new IllegalArgumentException("CDC slot and publication names may only contain [a-z0-9_]");
+    }
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.jdbcConnectionDetails = jdbcConnectionDetails;
+    this.subscriptionChangePublisher = subscriptionChangePublisher;
+    this.schedulerLeadership = schedulerLeadership;
+    this.jsonMapper = jsonMapper;
+    this.slotName = slotName;
+    this.publicationName = publicationName;
+    this.statusInterval = statusInterval;
+    this.reconnectDelay = reconnectDelay;
+  }
+
+  @Override
+  public void start() {
+    // Publishing through the partition root keeps the relation name stable when events_outbox is partitioned
+    if (jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_publication WHERE pubname = ?", Integer.class, publicationName) == 0) {
+      jdbcTemplate.execute("CREATE PUBLICATION %s FOR TABLE %s WITH (publish = 'insert', publish_via_partition_root = true)"
+              .formatted(publicationName, OUTBOX_TABLE));
+    } else {
+      jdbcTemplate.execute("ALTER PUBLICATION %s SET (publish = 'insert', publish_via_partition_root = true)"
+              .formatted(publicationName));
+      // A table recreated since the publication was made, e.g. when it was partitioned, has to be added back
+      if (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_publication_tables WHERE pubname = ? AND tablename = ?",
+              Integer.class, publicationName, OUTBOX_TABLE) == 0) {
+        jdbcTemplate.execute("ALTER PUBLICATION %s ADD TABLE %s".formatted(publicationName, OUTBOX_TABLE));
+      }
+    }
+    // The slot keeps the confirmed position on the server, so a restart resumes from the last acknowledged commit
+    jdbcTemplate.queryForList("""
+            SELECT pg_create_logical_replication_slot(?, 'pgoutput')
+            WHERE NOT EXISTS (SELECT 1 FROM pg_replication_slots WHERE slot_name = ?)
+            """, slotName, slotName);
+
+    running = true;
+    relayThread = Thread.ofPlatform()
+            .name("outbox-cdc-relay")
+            .daemon()
+            .start(this::relay);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (relayThread == null) {
+      return;
+    }
+
+    // Wait for the stream to close, so a restart never runs two consumers on the same slot
+    relayThread.interrupt();
+    try {
+      relayThread.join(STOP_TIMEOUT);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void relay() {
+    while (running) {
+      // Only one consumer can stream the slot, the other instances wait for the leadership instead of failing on it
+      if (!schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_CDC)) {
+        LOGGER.debug("[OutboxCdcRelay] Not the leader of [{}], checking again in [{}]",
+                SchedulerLeadership.OUTBOX_CDC, reconnectDelay);
+        sleep(reconnectDelay);
+        continue;
+      }
+
+      try (Connection connection = openReplicationConnection()) {
+        PGReplicationStream stream = connection.unwrap(PGConnection.class)
+                .getReplicationAPI()
+                .replicationStream()
+                .logical()
+                .withSlotName(slotName)
+                .withSlotOption("proto_version", 1)
+                .withSlotOption("publication_names", publicationName)
+                .withStatusInterval((int) statusInterval.toMillis(), TimeUnit.MILLISECONDS)
+                .start();
+        LOGGER.info("[OutboxCdcRelay] Streaming [{}] from replication slot [{}]", OUTBOX_TABLE, slotName);
+
+        streamTransactions(stream);
+      } catch (SQLException | RuntimeException ex) {
+        if (running) {
+          logStreamFailure(ex);
+          // Nothing after the last confirmed commit was acknowledged, so the reconnect replays it
+          sleep(reconnectDelay);
+        }
+      }
+    }
+  }
+
+  private void logStreamFailure(Exception ex) {
+    // Expected while the previous leader still streams the slot, or on every instance when leadership is disabled
+    if (ex instanceof SQLException sqlException && PSQLState.OBJECT_IN_USE.getState().equals(sqlException.getSQLState())) {
+      LOGGER.debug("[OutboxCdcRelay] Replication slot [{}] is active elsewhere, retrying in [{}]", slotName, reconnectDelay);
+      return;
+    }
+    LOGGER.warn("[OutboxCdcRelay] Replication stream failed, resuming in [{}]", reconnectDelay, ex);
+  }
+
+  private void streamTransactions(PGReplicationStream stream) throws SQLException {
+    PgOutputDecoder decoder = new PgOutputDecoder(OUTBOX_TABLE);
+    List<SubscriptionChangeEvent> transactionEvents = new ArrayList<>();
+
+    // A node that lost the leadership hands the slot over, its unacknowledged transaction is replayed by the new leader
+    while (running && schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_CDC)) {
+      ByteBuffer message = stream.readPending();
+      if (message == null) {
+        sleep(IDLE_WAIT);
+        continue;
+      }
+
+      PgOutputDecoder.Message decoded = decoder.decode(message);
+      switch (decoded.type()) {
+        case PgOutputDecoder.BEGIN -> transactionEvents.clear();
+        case PgOutputDecoder.INSERT -> {
+          if (decoded.row() != null) {
+            transactionEvents.add(toEvent(decoded.row()));
+          }
+        }
+        case PgOutputDecoder.COMMIT -> {
+          // Commits without outbox rows only move the confirmed position forward
+          if (!transactionEvents.isEmpty()) {
+            subscriptionChangePublisher.sendAll(transactionEvents);
+          }
+          stream.setAppliedLSN(stream.getLastReceiveLSN());
+          stream.setFlushedLSN(stream.getLastReceiveLSN());
+          stream.forceUpdateStatus();
+
+          if (!transactionEvents.isEmpty()) {
+            LOGGER.info("[OutboxCdcRelay] Published [{}] outbox events up to LSN [{}]",
+                    transactionEvents.size(), stream.getLastReceiveLSN());
+          }
+          transactionEvents.clear();
+        }
+        default -> {
+          // relation, type and origin messages carry no outbox rows
+        }
+      }
+    }
+  }
+
+  private SubscriptionChangeEvent toEvent(Map<String, String> row) {
+    return new SubscriptionChangeEvent(
+            row.get("id"),
+            Long.parseLong(row.get("timestamp")),
+            row.get("event_type"),
+            jsonMapper.readValue(row.get("payload"), SubscriptionChangePayload.class)
+    );
+  }
+
+  private Connection openReplicationConnection() throws SQLException {
+    Properties properties = new Properties();
+    PGProperty.USER.set(properties, jdbcConnectionDetails.getUsername());
+    if (jdbcConnectionDetails.getPassword() != null) {
+      PGProperty.PASSWORD.set(properties, jdbcConnectionDetails.getPassword());
+    }
+    PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+    PGProperty.REPLICATION.set(properties, "database");
+    PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+
+    return DriverManager.getConnection(jdbcConnectionDetails.getJdbcUrl(), properties);
+  }
+
+  private void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OutboxCompactor {
+
+  static final String COMPACTED = "COMPACTED";
+
+  private static final String CREATED = "SubscriptionCreated";
+  private static final String DELETED = "SubscriptionDeleted";
+
+  private final EventsOutboxService eventsOutboxService;
+  private final boolean enabled;
+  private final Counter supersededCounter;
+
+  public OutboxCompactor(EventsOutboxService eventsOutboxService,
+                         @Value("${outbox.subscriptions.compaction.enabled}") boolean enabled,
+                         MeterRegistry meterRegistry) {
+    this.eventsOutboxService = eventsOutboxService;
+    this.enabled = enabled;
+    this.supersededCounter = Counter.builder("outbox.compaction.superseded")
+            .description("Outbox events not published because a later event of the same subscription replaced them")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Collapses the events of each subscription in a claimed chunk into one event and marks the others COMPACTED. Update
+   * deltas are folded into the earlier payload, so a create followed by updates is published as a create of the latest
+   * state and several updates as one delta. A delete is always the event that survives. The merged event is written
+   * back to the surviving row, so a retry after a failed publish sends what the compacted rows no longer carry.
+   */
+  public List<SubscriptionChangeEvent> compact(List<SubscriptionChangeEvent> events) {
+    if (!enabled || events.size() < 2) {
+      return events;
+    }
+
+    Map<String, List<SubscriptionChangeEvent>> eventsByKey = new LinkedHashMap<>();
+    events.forEach(event -> eventsByKey.computeIfAbsent(event.payload().id(), _ -> new ArrayList<>()).add(event));
+    if (eventsByKey.size() == events.size()) {
+      return events;
+    }
+
+    List<SubscriptionChangeEvent> latestEvents = new ArrayList<>(eventsByKey.size());
+    List<SubscriptionChangeEvent> mergedEvents = new ArrayList<>();
+    List<String> supersededIds = new ArrayList<>();
+    eventsByKey.values().forEach(keyEvents -> {
+      var latest = keyEvents.getLast();
+      keyEvents.subList(0, keyEvents.size() - 1).forEach(event -> supersededIds.add(event.eventId()));
+      if (DELETED.equals(latest.eventType())) {
+        latestEvents.add(latest);
+        return;
+      }
+
+      var payload = keyEvents.getFirst().payload();
+      for (var event : keyEvents.subList(1, keyEvents.size())) {
+        payload = payload.apply(event.payload());
+      }
+      boolean created = keyEvents.stream().anyMatch(event -> CREATED.equals(event.eventType()));
+      var merged = new SubscriptionChangeEvent(latest.eventId(), latest.timestamp(),
+              created ? CREATED : latest.eventType(), payload);
+      latestEvents.add(merged);
+      if (!merged.equals(latest)) {
+        mergedEvents.add(merged);
+      }
+    });
+
+    // Same transaction as the claim, the rows are only compacted together with the survivor carrying their changes
+    eventsOutboxService.updateOutboxEvents(mergedEvents);
+    eventsOutboxService.updateOutboxStatuses(Map.of(COMPACTED, supersededIds));
+    supersededCounter.increment(supersededIds.size());
+
+    // Keep the chunk's timestamp order for the surviving events
+    latestEvents.sort(Comparator.comparingLong(SubscriptionChangeEvent::timestamp));
+    return latestEvents;
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OutboxLagHealthIndicator implements HealthIndicator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxLagHealthIndicator.class);
+
+  static final Status DEGRADED = new Status("DEGRADED", "Outbox events are waiting longer than the lag threshold");
+
+  private final EventsOutboxRepository eventsOutboxRepository;
+  private final Duration lagThreshold;
+  private final boolean monitored;
+
+  private final AtomicLong pendingCount = new AtomicLong();
+  private final AtomicLong oldestPendingTimestamp = new AtomicLong();
+
+  public OutboxLagHealthIndicator(EventsOutboxRepository eventsOutboxRepository,
+                                  @Value("${outbox.subscriptions.health.lag-threshold}") Duration lagThreshold,
+                                  @Value("${outbox.subscriptions.relay.mode:polling}") String relayMode,
+                                  MeterRegistry meterRegistry) {
+    this.eventsOutboxRepository = eventsOutboxRepository;
+    this.lagThreshold = lagThreshold;
+    // The CDC relay delivers from the WAL and leaves rows PENDING, so their age says nothing about delivery lag
+    this.monitored = !relayMode.equals("cdc");
+
+    Gauge.builder("outbox.pending", pendingCount, AtomicLong::get)
+            .description("Outbox events waiting in PENDING")
+            .register(meterRegistry);
+    TimeGauge.builder("outbox.pending.oldest.age", this, TimeUnit.MILLISECONDS, OutboxLagHealthIndicator::oldestPendingAgeMillis)
+            .description("Age of the oldest PENDING outbox event")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(fixedRateString = "${outbox.subscriptions.health.refresh-rate}")
+  public void refresh() {
+    if (!monitored) {
+      return;
+    }
+
+    try {
+      pendingCount.set(eventsOutboxRepository.countByStatus("PENDING"));
+      oldestPendingTimestamp.set(Objects.requireNonNullElse(
+              eventsOutboxRepository.findOldestTimestampByStatus("PENDING"), 0L));
+    } catch (RuntimeException ex) {
+      LOGGER.warn("[OutboxLagHealthIndicator] Failed to refresh outbox lag", ex);
+    }
+  }
+
+  /**
+   * Reports DEGRADED once the oldest PENDING event is older than the lag threshold. The lag is shared by every replica,
+   * a broker outage raises it on all of them at once, so it is surfaced in its own health group and alerted on rather
+   * than taking the replicas out of readiness.
+   */
+  @Override
+  public Health health() {
+    if (!monitored) {
+      return Health.up().withDetail("relayMode", "cdc").build();
+    }
+
+    Duration oldestPendingAge = Duration.ofMillis(oldestPendingAgeMillis());
+    var health = oldestPendingAge.compareTo(lagThreshold) > 0 ? Health.status(DEGRADED) : Health.up();
+    return health
+            .withDetail("pending", pendingCount.get())
+            .withDetail("oldestPendingAge", oldestPendingAge.toString())
+            .withDetail("lagThreshold", lagThreshold.toString())
+            .build();
+  }
+
+  private double oldestPendingAgeMillis() {
+    long oldest = oldestPendingTimestamp.get();
+    return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+  }
+}
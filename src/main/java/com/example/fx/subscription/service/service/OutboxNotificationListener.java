@@ -0,0 +1,154 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+@Service
+@ConditionalOnProperty(name = "outbox.subscriptions.notify.enabled", havingValue = "true")
+public class OutboxNotificationListener implements SmartLifecycle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxNotificationListener.class);
+
+  static final String CHANNEL = "events_outbox";
+
+  // Statement level with a constant payload, so Postgres folds all inserts of one transaction into one notification
+  private static final String CREATE_NOTIFY_FUNCTION = """
+          CREATE OR REPLACE FUNCTION notify_events_outbox() RETURNS trigger AS $$
+          BEGIN
+            PERFORM pg_notify('%s', '');
+            RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql
+          """.formatted(CHANNEL);
+
+  private static final String CREATE_NOTIFY_TRIGGER = """
+          CREATE OR REPLACE TRIGGER events_outbox_notify
+          AFTER INSERT ON events_outbox
+          FOR EACH STATEMENT EXECUTE FUNCTION notify_events_outbox()
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcConnectionDetails jdbcConnectionDetails;
+  private final SubscriptionChangeScheduler subscriptionChangeScheduler;
+  private final Duration pollTimeout;
+  private final Duration reconnectDelay;
+  private final Counter notificationsCounter;
+  private final Counter wakeUpsCounter;
+
+  private volatile boolean running;
+  private Thread listenerThread;
+
+  public OutboxNotificationListener(JdbcTemplate jdbcTemplate,
+                                    JdbcConnectionDetails jdbcConnectionDetails,
+                                    SubscriptionChangeScheduler subscriptionChangeScheduler,
+                                    @Value("${outbox.subscriptions.notify.poll-timeout}") Duration pollTimeout,
+                                    @Value("${outbox.subscriptions.notify.reconnect-delay}") Duration reconnectDelay,
+                                    MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.jdbcConnectionDetails = jdbcConnectionDetails;
+    this.subscriptionChangeScheduler = subscriptionChangeScheduler;
+    this.pollTimeout = pollTimeout;
+    this.reconnectDelay = reconnectDelay;
+    this.notificationsCounter = Counter.builder("outbox.notify.notifications")
+            .description("Postgres notifications received for new outbox rows")
+            .register(meterRegistry);
+    this.wakeUpsCounter = Counter.builder("outbox.notify.wakeups")
+            .description("Outbox drains triggered by Postgres notifications")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    jdbcTemplate.execute(CREATE_NOTIFY_FUNCTION);
+    jdbcTemplate.execute(CREATE_NOTIFY_TRIGGER);
+
+    running = true;
+    listenerThread = Thread.ofPlatform()
+            .name("outbox-notify-listener")
+            .daemon()
+            .start(this::listen);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = DriverManager.getConnection(
+              jdbcConnectionDetails.getJdbcUrl(),
+              jdbcConnectionDetails.getUsername(),
+              jdbcConnectionDetails.getPassword())) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        LOGGER.info("[OutboxNotificationListener] Listening on channel [{}]", CHANNEL);
+
+        // Pick up anything inserted while this instance was not listening
+        drain();
+        awaitNotifications(connection.unwrap(PGConnection.class));
+      } catch (SQLException ex) {
+        if (running) {
+          LOGGER.warn("[OutboxNotificationListener] Listener connection lost, reconnecting in [{}]", reconnectDelay, ex);
+          sleep(reconnectDelay);
+        }
+      }
+    }
+  }
+
+  private void awaitNotifications(PGConnection connection) throws SQLException {
+    while (running) {
+      PGNotification[] notifications = connection.getNotifications((int) pollTimeout.toMillis());
+      if (notifications == null || notifications.length == 0) {
+        continue;
+      }
+
+      // Notifications that arrive while a drain runs are returned together by the next call, coalescing bursts
+      notificationsCounter.increment(notifications.length);
+      drain();
+    }
+  }
+
+  private void drain() {
+    wakeUpsCounter.increment();
+    try {
+      subscriptionChangeScheduler.checkForOutboxSubscriptions();
+    } catch (RuntimeException ex) {
+      LOGGER.error("[OutboxNotificationListener] Outbox drain failed", ex);
+    }
+  }
+
+  private void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,322 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@ConditionalOnProperty(name = "outbox.subscriptions.partitioning.enabled", havingValue = "true")
+public class OutboxPartitionManager implements SmartLifecycle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxPartitionManager.class);
+
+  static final String OUTBOX_TABLE = "events_outbox";
+  static final String DEFAULT_PARTITION = OUTBOX_TABLE + "_default";
+  private static final String PARTITION_PREFIX = OUTBOX_TABLE + "_p";
+  private static final Pattern DAILY_PARTITION = Pattern.compile(PARTITION_PREFIX + "(\\d{8})");
+  private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private static final String IS_PARTITIONED = """
+          SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('events_outbox')
+          """;
+
+  private static final String LIST_PARTITIONS = """
+          SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+          WHERE i.inhparent = 'events_outbox'::regclass
+          ORDER BY c.relname
+          """;
+
+  private static final String TABLE_SIZE = """
+          SELECT coalesce(sum(pg_total_relation_size(inhrelid)), 0) FROM pg_inherits
+          WHERE inhparent = 'events_outbox'::regclass
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final SchedulerLeadership schedulerLeadership;
+  private final int premakeDays;
+  private final Duration retention;
+  private final boolean detachOnPurge;
+  private final int maxPurgedPerRun;
+  private final boolean requireSentBeforePurge;
+  private final int defaultPurgeBatchSize;
+  private final Counter partitionFailures;
+
+  private final AtomicLong tableSizeBytes = new AtomicLong();
+  private final AtomicLong partitionCount = new AtomicLong();
+
+  private volatile boolean running;
+
+  public OutboxPartitionManager(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                SchedulerLeadership schedulerLeadership,
+                                @Value("${outbox.subscriptions.partitioning.premake-days}") int premakeDays,
+                                @Value("${outbox.subscriptions.partitioning.retention}") Duration retention,
+                                @Value("${outbox.subscriptions.partitioning.purge-action}") String purgeAction,
+                                @Value("${outbox.subscriptions.partitioning.max-purged-per-run}") int maxPurgedPerRun,
+                                @Value("${outbox.subscriptions.partitioning.default-purge-batch-size}") int defaultPurgeBatchSize,
+                                @Value("${outbox.subscriptions.relay.mode:polling}") String relayMode,
+                                MeterRegistry meterRegistry) {
+    if (!purgeAction.equals("drop") && !purgeAction.equals("detach")) {
+      throw new IllegalArgumentException("outbox.subscriptions.partitioning.purge-action must be drop or detach");
+    }
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.schedulerLeadership = schedulerLeadership;
+    this.premakeDays = premakeDays;
+    this.retention = retention;
+    this.detachOnPurge = purgeAction.equals("detach");
+    this.maxPurgedPerRun = maxPurgedPerRun;
+    // The CDC relay delivers from the WAL and never moves rows to SENT, so age alone decides there
+    this.requireSentBeforePurge = !relayMode.equals("cdc");
+    this.defaultPurgeBatchSize = defaultPurgeBatchSize;
+
+    Gauge.builder("outbox.table.size", tableSizeBytes, AtomicLong::get)
+            .description("Total on-disk size of the outbox table and its partitions, including indexes")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    Gauge.builder("outbox.partitions", partitionCount, AtomicLong::get)
+            .description("Number of attached outbox partitions")
+            .register(meterRegistry);
+    this.partitionFailures = Counter.builder("outbox.partition.create.failures")
+            .description("Daily outbox partitions that could not be created in a maintenance run")
+            .register(meterRegistry);
+  }
+
+  // Starts before the relays, which install their triggers and publications on the partitioned table
+  @Override
+  public int getPhase() {
+    return DEFAULT_PHASE - 1;
+  }
+
+  @Override
+  public void start() {
+    transactionTemplate.executeWithoutResult(_ -> {
+      lockMaintenance();
+      if (isPartitioned()) {
+        return;
+      }
+      partitionExistingTable();
+    });
+    maintain();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Scheduled(
+          initialDelayString = "${outbox.subscriptions.partitioning.maintenance-rate}",
+          fixedRateString = "${outbox.subscriptions.partitioning.maintenance-rate}"
+  )
+  public void scheduledMaintenance() {
+    // Every instance maintains once on start, so its first inserts find a partition, later runs are the leader's
+    if (schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_PARTITIONS)) {
+      maintain();
+    }
+  }
+
+  public void maintain() {
+    try {
+      createUpcomingPartitions();
+      purgeExpiredPartitions();
+      purgeExpiredDefaultRows();
+    } finally {
+      refreshGauges();
+    }
+  }
+
+  void createUpcomingPartitions() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    for (int day = 0; day <= premakeDays; day++) {
+      LocalDate date = today.plusDays(day);
+      // One transaction per day, so a day that cannot be created does not keep the others from being premade
+      try {
+        transactionTemplate.executeWithoutResult(_ -> createPartition(date));
+      } catch (RuntimeException ex) {
+        partitionFailures.increment();
+        LOGGER.error("[OutboxPartitionManager] Failed to create outbox partition [{}], its rows stay in [{}]",
+                partitionName(date), DEFAULT_PARTITION, ex);
+      }
+    }
+  }
+
+  private void createPartition(LocalDate date) {
+    lockMaintenance();
+    String partition = partitionName(date);
+    if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+      return;
+    }
+
+    // Rows the default partition caught for this day would make PARTITION OF fail, so they move over before attaching
+    long from = startOfDay(date);
+    long to = startOfDay(date.plusDays(1));
+    jdbcTemplate.execute("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS)".formatted(partition, OUTBOX_TABLE));
+    int moved = jdbcTemplate.update("""
+            WITH moved AS (DELETE FROM %s WHERE timestamp >= ? AND timestamp < ? RETURNING *)
+            INSERT INTO %s SELECT * FROM moved
+            """.formatted(DEFAULT_PARTITION, partition), from, to);
+    jdbcTemplate.execute("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM (%d) TO (%d)"
+            .formatted(OUTBOX_TABLE, partition, from, to));
+
+    if (moved > 0) {
+      LOGGER.info("[OutboxPartitionManager] Moved [{}] outbox events from [{}] into [{}]", moved, DEFAULT_PARTITION,
+              partition);
+    }
+  }
+
+  void purgeExpiredPartitions() {
+    long cutoff = Instant.now().minus(retention).toEpochMilli();
+    int purged = 0;
+
+    for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+      if (purged >= maxPurgedPerRun) {
+        break;
+      }
+
+      Matcher matcher = DAILY_PARTITION.matcher(partition);
+      if (!matcher.matches()
+              || startOfDay(LocalDate.parse(matcher.group(1), PARTITION_DATE).plusDays(1)) > cutoff) {
+        continue;
+      }
+
+      // One short transaction per partition, so the parent lock taken by DETACH is never held across partitions
+      if (Boolean.TRUE.equals(transactionTemplate.execute(_ -> purgePartition(partition)))) {
+        purged++;
+      }
+    }
+
+    if (purged > 0) {
+      LOGGER.info("[OutboxPartitionManager] {} [{}] expired outbox partitions",
+              detachOnPurge ? "Detached" : "Dropped", purged);
+    }
+  }
+
+  void purgeExpiredDefaultRows() {
+    // The default partition is never dropped, so its expired rows are deleted in bounded batches instead
+    long cutoff = Instant.now().minus(retention).toEpochMilli();
+    String purgeable = requireSentBeforePurge ? "AND status IN ('SENT', 'COMPACTED')" : "";
+    int deleted = jdbcTemplate.update("""
+            DELETE FROM %s WHERE ctid IN (
+              SELECT ctid FROM %s WHERE timestamp < ? %s LIMIT ?
+            )
+            """.formatted(DEFAULT_PARTITION, DEFAULT_PARTITION, purgeable), cutoff, defaultPurgeBatchSize);
+
+    if (deleted > 0) {
+      LOGGER.info("[OutboxPartitionManager] Deleted [{}] expired outbox events from [{}]", deleted, DEFAULT_PARTITION);
+    }
+  }
+
+  private boolean purgePartition(String partition) {
+    lockMaintenance();
+    if (requireSentBeforePurge && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM %s WHERE status NOT IN ('SENT', 'COMPACTED'))".formatted(partition), Boolean.class))) {
+      LOGGER.warn("[OutboxPartitionManager] Keeping expired partition [{}], it still has undelivered events", partition);
+      return false;
+    }
+
+    jdbcTemplate.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(OUTBOX_TABLE, partition));
+    if (!detachOnPurge) {
+      jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+    return true;
+  }
+
+  void refreshGauges() {
+    try {
+      List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+      partitionCount.set(partitions.size());
+      tableSizeBytes.set(Objects.requireNonNullElse(jdbcTemplate.queryForObject(TABLE_SIZE, Long.class), 0L));
+    } catch (RuntimeException ex) {
+      LOGGER.warn("[OutboxPartitionManager] Failed to refresh outbox gauges", ex);
+    }
+  }
+
+  /**
+   * One-off conversion of a plain outbox table, run by the first instance started with partitioning enabled. The table
+   * is renamed and copied in a single transaction, so every other instance blocks on the outbox until it commits; it is
+   * meant for a maintenance window or a rollout that starts one instance first, see the README.
+   */
+  private void partitionExistingTable() {
+    LOGGER.info("[OutboxPartitionManager] Converting [{}] to a table partitioned by timestamp", OUTBOX_TABLE);
+
+    // The primary key of a partitioned table must include the partition key
+    jdbcTemplate.execute("ALTER TABLE events_outbox RENAME TO events_outbox_unpartitioned");
+    jdbcTemplate.execute("ALTER TABLE events_outbox_unpartitioned DROP CONSTRAINT IF EXISTS events_outbox_pkey");
+    jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_outbox_status, idx_events_outbox_status_timestamp, "
+            + "idx_events_outbox_status_next_attempt, idx_events_outbox_aggregate_status_timestamp");
+    jdbcTemplate.execute("""
+            CREATE TABLE events_outbox (LIKE events_outbox_unpartitioned INCLUDING DEFAULTS, PRIMARY KEY (id, timestamp))
+            PARTITION BY RANGE (timestamp)
+            """);
+    jdbcTemplate.execute("CREATE INDEX idx_events_outbox_status ON events_outbox (status)");
+    jdbcTemplate.execute("CREATE INDEX idx_events_outbox_status_timestamp ON events_outbox (status, timestamp)");
+    jdbcTemplate.execute("CREATE INDEX idx_events_outbox_status_next_attempt ON events_outbox (status, next_attempt_at)");
+    jdbcTemplate.execute("CREATE INDEX idx_events_outbox_aggregate_status_timestamp ON events_outbox "
+            + "(aggregate_id, status, timestamp)");
+    // Catches rows outside the premade range, so an insert never fails for a missing partition
+    jdbcTemplate.execute("CREATE TABLE %s PARTITION OF events_outbox DEFAULT".formatted(DEFAULT_PARTITION));
+
+    // Rows written before the conversion share one partition ending today, which the purge drops as a whole
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM events_outbox_unpartitioned WHERE timestamp < ?)", Boolean.class,
+            startOfDay(today)))) {
+      jdbcTemplate.execute("CREATE TABLE %s PARTITION OF events_outbox FOR VALUES FROM (MINVALUE) TO (%d)"
+              .formatted(partitionName(today.minusDays(1)), startOfDay(today)));
+    }
+    for (int day = 0; day <= premakeDays; day++) {
+      LocalDate date = today.plusDays(day);
+      jdbcTemplate.execute("CREATE TABLE %s PARTITION OF events_outbox FOR VALUES FROM (%d) TO (%d)"
+              .formatted(partitionName(date), startOfDay(date), startOfDay(date.plusDays(1))));
+    }
+
+    jdbcTemplate.execute("INSERT INTO events_outbox SELECT * FROM events_outbox_unpartitioned");
+    jdbcTemplate.execute("DROP TABLE events_outbox_unpartitioned");
+  }
+
+  private boolean isPartitioned() {
+    return Objects.requireNonNullElse(jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class), 0) > 0;
+  }
+
+  private void lockMaintenance() {
+    // Serialises partition DDL across instances, released with the surrounding transaction
+    jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('events_outbox_partitions'))");
+  }
+
+  static String partitionName(LocalDate date) {
+    return PARTITION_PREFIX + date.format(PARTITION_DATE);
+  }
+
+  private static long startOfDay(LocalDate date) {
+    return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+}
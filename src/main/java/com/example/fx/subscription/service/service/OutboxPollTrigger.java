@@ -0,0 +1,82 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "outbox.subscriptions.relay.mode", havingValue = "polling", matchIfMissing = true)
+public class OutboxPollTrigger implements Trigger {
+
+  private final Duration initialDelay;
+  private final long minIntervalMillis;
+  private final long maxIntervalMillis;
+  private final long lagTargetMillis;
+  private final AtomicLong intervalMillis;
+
+  public OutboxPollTrigger(@Value("${outbox.subscriptions.check.rate}") Duration rate,
+                           @Value("${outbox.subscriptions.check.initial-delay}") Duration initialDelay,
+                           @Value("${outbox.subscriptions.check.min-rate}") Duration minRate,
+                           @Value("${outbox.subscriptions.check.max-rate}") Duration maxRate,
+                           @Value("${outbox.subscriptions.check.lag-target}") Duration lagTarget,
+                           MeterRegistry meterRegistry) {
+    if (minRate.compareTo(maxRate) > 0) {
+      throw new IllegalArgumentException("outbox.subscriptions.check.min-rate must not exceed max-rate");
+    }
+
+    this.initialDelay = initialDelay;
+    this.minIntervalMillis = minRate.toMillis();
+    this.maxIntervalMillis = maxRate.toMillis();
+    this.lagTargetMillis = lagTarget.toMillis();
+    this.intervalMillis = new AtomicLong(Math.clamp(rate.toMillis(), minIntervalMillis, maxIntervalMillis));
+
+    TimeGauge.builder("outbox.poll.interval", intervalMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Current delay between two outbox polls")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public Instant nextExecution(TriggerContext triggerContext) {
+    Instant lastCompletion = triggerContext.lastCompletion();
+    if (lastCompletion == null) {
+      return triggerContext.getClock().instant().plus(initialDelay);
+    }
+    return lastCompletion.plusMillis(intervalMillis.get());
+  }
+
+  /**
+   * Adjusts the delay before the next poll from the outcome of the last drain. A run that stopped at its chunk limit
+   * or found events older than the lag target polls again at the minimum rate, a run that found a few events halves
+   * the delay, and an empty run doubles it up to the maximum rate.
+   *
+   * @param published        events claimed by the run
+   * @param backlogRemaining whether the run stopped at its chunk limit with more events left to claim
+   * @param oldestTimestamp  outbox timestamp of the oldest claimed event, ignored when nothing was claimed
+   */
+  public void onDrain(int published, boolean backlogRemaining, long oldestTimestamp) {
+    if (published == 0) {
+      intervalMillis.updateAndGet(interval -> Math.min(maxIntervalMillis, Math.max(1, interval) * 2));
+      return;
+    }
+
+    if (backlogRemaining || System.currentTimeMillis() - oldestTimestamp >= lagTargetMillis) {
+      intervalMillis.set(minIntervalMillis);
+      return;
+    }
+
+    intervalMillis.updateAndGet(interval -> Math.max(minIntervalMillis, interval / 2));
+  }
+
+  public Duration currentInterval() {
+    return Duration.ofMillis(intervalMillis.get());
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.fx.subscription.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class OutboxRetryPolicy {
+
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final int maxAttempts;
+
+  public OutboxRetryPolicy(@Value("${outbox.subscriptions.retry.initial-backoff}") Duration initialBackoff,
+                           @Value("${outbox.subscriptions.retry.max-backoff}") Duration maxBackoff,
+                           @Value("${outbox.subscriptions.retry.max-attempts}") int maxAttempts) {
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.maxAttempts = maxAttempts;
+  }
+
+  public boolean isExhausted(int attempts) {
+    return attempts >= maxAttempts;
+  }
+
+  /**
+   * Exponential backoff with full jitter: a random delay up to initial * 2^(attempts - 1), capped at the max backoff,
+   * so events that failed together during a broker outage do not all come back at the same moment.
+   */
+  public Duration backoff(int attempts) {
+    int exponent = Math.clamp(attempts - 1L, 0, 30);
+    long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << exponent);
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+}
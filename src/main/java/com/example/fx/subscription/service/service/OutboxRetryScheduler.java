@@ -0,0 +1,82 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OutboxRetryScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRetryScheduler.class);
+
+  private final EventsOutboxRepository eventsOutboxRepository;
+  private final SubscriptionChangePublisher subscriptionChangePublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final SchedulerLeadership schedulerLeadership;
+  private final int batchSize;
+  private final Counter retriedCounter;
+  private final AtomicLong retryBacklog = new AtomicLong();
+  private final AtomicLong deadLetters = new AtomicLong();
+
+  public OutboxRetryScheduler(EventsOutboxRepository eventsOutboxRepository,
+                              SubscriptionChangePublisher subscriptionChangePublisher,
+                              TransactionTemplate transactionTemplate,
+                              SchedulerLeadership schedulerLeadership,
+                              @Value("${outbox.subscriptions.retry.batch-size}") int batchSize,
+                              MeterRegistry meterRegistry) {
+    this.eventsOutboxRepository = eventsOutboxRepository;
+    this.subscriptionChangePublisher = subscriptionChangePublisher;
+    this.transactionTemplate = transactionTemplate;
+    this.schedulerLeadership = schedulerLeadership;
+    this.batchSize = batchSize;
+    this.retriedCounter = Counter.builder("outbox.retry.attempts")
+            .description("Failed outbox events picked up again by the retry worker")
+            .register(meterRegistry);
+    Gauge.builder("outbox.retry.backlog", retryBacklog, AtomicLong::get)
+            .description("Outbox events in FAILED waiting for their next attempt")
+            .register(meterRegistry);
+    Gauge.builder("outbox.dead.letters", deadLetters, AtomicLong::get)
+            .description("Outbox events in DEAD after exhausting their attempts")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(
+          initialDelayString = "${outbox.subscriptions.retry.rate}",
+          fixedRateString = "${outbox.subscriptions.retry.rate}"
+  )
+  public void retryFailedEvents() {
+    if (!schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_RETRY)) {
+      return;
+    }
+
+    // One bounded batch per run, so a recovering broker sees a steady trickle rather than the whole backlog
+    int retried = Objects.requireNonNullElse(transactionTemplate.execute(_ -> retryDueBatch()), 0);
+    if (retried > 0) {
+      LOGGER.info("[OutboxRetryScheduler] Retried [{}] FAILED outbox events", retried);
+    }
+
+    retryBacklog.set(eventsOutboxRepository.countByStatus("FAILED"));
+    deadLetters.set(eventsOutboxRepository.countByStatus("DEAD"));
+  }
+
+  private int retryDueBatch() {
+    var dueEvents = eventsOutboxRepository.claimDueByStatus("FAILED", System.currentTimeMillis(), batchSize).stream()
+            .map(SubscriptionChangeEvent::fromEventsOutbox)
+            .toList();
+
+    retriedCounter.increment(dueEvents.size());
+    subscriptionChangePublisher.sendMessages(dueEvents);
+    return dueEvents.size();
+  }
+}
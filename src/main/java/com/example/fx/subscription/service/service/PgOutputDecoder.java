@@ -0,0 +1,94 @@
+package com.example.fx.subscription.service.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the subset of the pgoutput logical replication protocol (version 1) the outbox relay needs:
+ * relation messages to learn column names, and inserts into the given table as column-to-text maps.
+ */
+final class PgOutputDecoder {
+
+  static final char BEGIN = 'B';
+  static final char COMMIT = 'C';
+  static final char RELATION = 'R';
+  static final char INSERT = 'I';
+
+  record Message(char type, Map<String, String> row) {
+  }
+
+  private record Relation(String name, List<String> columns) {
+  }
+
+  private final String table;
+  private final Map<Integer, Relation> relations = new HashMap<>();
+
+  PgOutputDecoder(String table) {
+    this.table = table;
+  }
+
+  Message decode(ByteBuffer buffer) {
+    char type = (char) buffer.get();
+    return switch (type) {
+      case RELATION -> {
+        readRelation(buffer);
+        yield new Message(type, null);
+      }
+      case INSERT -> new Message(type, readInsert(buffer));
+      default -> new Message(type, null);
+    };
+  }
+
+  private void readRelation(ByteBuffer buffer) {
+    int relationId = buffer.getInt();
+    readString(buffer); // namespace
+    String name = readString(buffer);
+    buffer.get(); // replica identity setting
+    short columnCount = buffer.getShort();
+
+    List<String> columns = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      buffer.get(); // flags
+      columns.add(readString(buffer));
+      buffer.getInt(); // type oid
+      buffer.getInt(); // type modifier
+    }
+    relations.put(relationId, new Relation(name, columns));
+  }
+
+  private Map<String, String> readInsert(ByteBuffer buffer) {
+    Relation relation = relations.get(buffer.getInt());
+    buffer.get(); // 'N', new tuple
+    short columnCount = buffer.getShort();
+
+    Map<String, String> row = new HashMap<>();
+    for (int i = 0; i < columnCount; i++) {
+      char kind = (char) buffer.get();
+      String value = null;
+      if (kind == 't' || kind == 'b') {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        value = new String(bytes, StandardCharsets.UTF_8);
+      }
+      if (relation != null) {
+        row.put(relation.columns().get(i), value);
+      }
+    }
+
+    return relation != null && relation.name().equals(table) ? row : null;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int start = buffer.position();
+    while (buffer.get() != 0) {
+      // advance to the terminating zero byte
+    }
+    byte[] bytes = new byte[buffer.position() - start - 1];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,213 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elects one instance per scheduled job with Postgres session advisory locks, so a job runs on a single replica
+ * instead of on every one of them.
+ * <p>
+ * The locks are held on a dedicated connection whose {@code idle_session_timeout} is the lease: the connection is used
+ * every renew interval, and if the holder stops renewing (paused, partitioned, hung) Postgres ends the session and
+ * releases its locks once the lease runs out. A graceful shutdown or crash closes the session and releases them at
+ * once. Other instances retry the free locks on every renewal, so a job moves within one renew interval of its lock
+ * being released. Locally, leadership also lapses when the last renewal is older than the lease, so a holder never
+ * keeps running jobs after the server may have handed them on.
+ */
+@Service
+public class SchedulerLeadership implements SmartLifecycle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerLeadership.class);
+
+  public static final String OUTBOX_DRAIN = "outbox-drain";
+  public static final String OUTBOX_RETRY = "outbox-retry";
+  public static final String OUTBOX_PARTITIONS = "outbox-partitions";
+  public static final String OUTBOX_CDC = "outbox-cdc";
+
+  static final List<String> JOBS = List.of(OUTBOX_DRAIN, OUTBOX_RETRY, OUTBOX_PARTITIONS, OUTBOX_CDC);
+
+  private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(hashtext(?))";
+
+  private final JdbcConnectionDetails jdbcConnectionDetails;
+  private final boolean enabled;
+  private final Duration lease;
+  private final Duration renewInterval;
+  private final String nodeId;
+  private final Set<String> heldJobs = ConcurrentHashMap.newKeySet();
+
+  private volatile long leaseExpiresAt;
+  private volatile boolean running;
+  private Thread renewalThread;
+  private Connection connection;
+
+  public SchedulerLeadership(JdbcConnectionDetails jdbcConnectionDetails,
+                             @Value("${outbox.subscriptions.leadership.enabled}") boolean enabled,
+                             @Value("${outbox.subscriptions.leadership.lease}") Duration lease,
+                             @Value("${outbox.subscriptions.leadership.renew-interval}") Duration renewInterval,
+                             @Value("${outbox.subscriptions.leadership.node-id}") String nodeId,
+                             MeterRegistry meterRegistry) {
+    if (renewInterval.compareTo(lease) >= 0) {
+      throw new IllegalArgumentException("outbox.subscriptions.leadership.renew-interval must be shorter than lease");
+    }
+
+    this.jdbcConnectionDetails = jdbcConnectionDetails;
+    this.enabled = enabled;
+    this.lease = lease;
+    this.renewInterval = renewInterval;
+    this.nodeId = nodeId;
+
+    // 1 on the node that holds the job, so max by job across instances shows its leader
+    JOBS.forEach(job -> Gauge.builder("scheduler.leader", () -> isLeader(job) ? 1 : 0)
+            .description("Whether this node holds the leadership of a scheduled job")
+            .tag("job", job)
+            .tag("node", nodeId)
+            .register(meterRegistry));
+  }
+
+  /**
+   * Whether scheduled runs of {@code job} should execute on this instance. Always true when leadership is disabled.
+   */
+  public boolean isLeader(String job) {
+    if (!enabled) {
+      return true;
+    }
+    return heldJobs.contains(job) && System.nanoTime() - leaseExpiresAt < 0;
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+
+    running = true;
+    renewalThread = Thread.ofPlatform()
+            .name("scheduler-leadership")
+            .daemon()
+            .start(this::renewUntilStopped);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (renewalThread == null) {
+      return;
+    }
+
+    renewalThread.interrupt();
+    try {
+      // Closing the session is what releases the locks, give the thread a chance to do it before shutdown goes on
+      renewalThread.join(renewInterval);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void renewUntilStopped() {
+    while (running) {
+      try {
+        renew();
+      } catch (SQLException ex) {
+        LOGGER.warn("[SchedulerLeadership] Leadership connection lost, releasing jobs [{}]", heldJobs, ex);
+        release();
+      }
+      sleep(renewInterval);
+    }
+    release();
+  }
+
+  void renew() throws SQLException {
+    // Taken before the round trip, the server starts its idle timer only after it, so the local lease ends first
+    long renewedAt = System.nanoTime();
+    if (connection == null) {
+      connection = connect();
+    }
+
+    try (PreparedStatement tryLock = connection.prepareStatement(TRY_LOCK)) {
+      for (String job : JOBS) {
+        if (heldJobs.contains(job)) {
+          continue;
+        }
+
+        tryLock.setString(1, "scheduler:" + job);
+        try (ResultSet resultSet = tryLock.executeQuery()) {
+          if (resultSet.next() && resultSet.getBoolean(1)) {
+            heldJobs.add(job);
+            LOGGER.info("[SchedulerLeadership] Node [{}] is now leader of [{}]", nodeId, job);
+          }
+        }
+      }
+    }
+
+    // Any statement resets the idle timer, this is the renewal when every lock is already held
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SELECT 1");
+    }
+    leaseExpiresAt = renewedAt + lease.toNanos();
+  }
+
+  private Connection connect() throws SQLException {
+    Properties properties = new Properties();
+    properties.setProperty("user", jdbcConnectionDetails.getUsername());
+    properties.setProperty("password", jdbcConnectionDetails.getPassword());
+    // Shows the holder in pg_stat_activity, joined with pg_locks on the advisory lock
+    properties.setProperty("ApplicationName", "fx-scheduler-" + nodeId);
+
+    Connection newConnection = DriverManager.getConnection(jdbcConnectionDetails.getJdbcUrl(), properties);
+    try (Statement statement = newConnection.createStatement()) {
+      statement.execute("SET idle_session_timeout = " + lease.toMillis());
+    } catch (SQLException ex) {
+      newConnection.close();
+      throw ex;
+    }
+    return newConnection;
+  }
+
+  private void release() {
+    if (!heldJobs.isEmpty()) {
+      LOGGER.info("[SchedulerLeadership] Node [{}] released [{}]", nodeId, heldJobs);
+    }
+    heldJobs.clear();
+
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException ex) {
+        LOGGER.debug("[SchedulerLeadership] Failed to close leadership connection", ex);
+      }
+      connection = null;
+    }
+  }
+
+  private void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.model.EventsOutboxSaved;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@ConditionalOnProperty(name = "outbox.subscriptions.dispatch.after-commit", havingValue = "true")
+public class SubscriptionChangeDispatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionChangeDispatcher.class);
+
+  private final EventsOutboxRepository eventsOutboxRepository;
+  private final SubscriptionChangePublisher subscriptionChangePublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final TaskExecutor taskExecutor;
+  private final Timer commitToAckTimer;
+
+  public SubscriptionChangeDispatcher(EventsOutboxRepository eventsOutboxRepository,
+                                      SubscriptionChangePublisher subscriptionChangePublisher,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                      MeterRegistry meterRegistry) {
+    this.eventsOutboxRepository = eventsOutboxRepository;
+    this.subscriptionChangePublisher = subscriptionChangePublisher;
+    this.transactionTemplate = transactionTemplate;
+    this.taskExecutor = taskExecutor;
+    this.commitToAckTimer = Timer.builder("outbox.dispatch.commit.to.ack")
+            .description("Time from the outbox transaction commit to the Kafka ack of its event")
+            .register(meterRegistry);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onEventsOutboxSaved(EventsOutboxSaved eventsOutboxSaved) {
+    long committedAt = System.nanoTime();
+    taskExecutor.execute(() -> dispatch(eventsOutboxSaved.outboxId(), committedAt));
+  }
+
+  void dispatch(UUID outboxId, long committedAt) {
+    try {
+      List<String> acked = Objects.requireNonNullElse(transactionTemplate.execute(_ -> {
+        // SKIP LOCKED leaves the row to the scheduler if a sweep has already claimed it, and so does an older
+        // unpublished event of the same subscription, which has to go out first
+        var events = eventsOutboxRepository.claimByIdInAndStatus(List.of(outboxId), "PENDING").stream()
+                .map(SubscriptionChangeEvent::fromEventsOutbox)
+                .toList();
+
+        return subscriptionChangePublisher.sendMessages(events);
+      }), List.of());
+
+      // A claimed event that failed to publish was never acked, the retry worker's latency is not this timer's
+      if (!acked.isEmpty()) {
+        commitToAckTimer.record(System.nanoTime() - committedAt, TimeUnit.NANOSECONDS);
+      }
+    } catch (Exception ex) {
+      LOGGER.warn("After-commit dispatch failed for outbox event: [{}], leaving it to the scheduler", outboxId, ex);
+    }
+  }
+}
@@ -1,44 +1,272 @@
 package com.example.fx.subscription.service.service;
 
+import com.example.fx.subscription.service.config.KafkaProducerProfile;
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class SubscriptionChangePublisher {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionChangePublisher.class);
 
   private final KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
+  private final KafkaTemplate<String, SubscriptionChangeEvent> bulkKafkaTemplate;
+  private final int bulkThreshold;
   private final EventsOutboxService eventsOutboxService;
   private final String subscriptionChangesTopic;
+  private final boolean pipelined;
+  private final int lanes;
+  private final boolean transactional;
+  private final MeterRegistry meterRegistry;
+  private final Timer publishLatencyTimer;
+  private final Counter lowLatencyChunks;
+  private final Counter bulkChunks;
+
+  private record LaneResult(List<String> sentIds, List<String> failedIds) {
+  }
 
   public SubscriptionChangePublisher(KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate,
+                                     @Qualifier("bulkKafkaTemplate") KafkaTemplate<String, SubscriptionChangeEvent> bulkKafkaTemplate,
                                      EventsOutboxService eventsOutboxService,
-                                     @Value(value = "${spring.kafka.topic.subscription-changes}") String subscriptionChangesTopic) {
+                                     @Value(value = "${spring.kafka.topic.subscription-changes}") String subscriptionChangesTopic,
+                                     @Value(value = "${outbox.subscriptions.publish.pipelined}") boolean pipelined,
+                                     @Value(value = "${outbox.subscriptions.publish.lanes}") int lanes,
+                                     @Value(value = "${outbox.subscriptions.publish.transactional}") boolean transactional,
+                                     @Value(value = "${outbox.subscriptions.publish.bulk-threshold}") int bulkThreshold,
+                                     MeterRegistry meterRegistry) {
     this.kafkaTemplate = kafkaTemplate;
+    this.bulkKafkaTemplate = bulkKafkaTemplate;
+    this.bulkThreshold = bulkThreshold;
     this.eventsOutboxService = eventsOutboxService;
     this.subscriptionChangesTopic = subscriptionChangesTopic;
+    this.pipelined = pipelined;
+    this.lanes = lanes;
+    this.transactional = transactional;
+    this.meterRegistry = meterRegistry;
+    this.publishLatencyTimer = Timer.builder("outbox.publish.latency")
+            .description("Time from an outbox event being written to its broker ack")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.lowLatencyChunks = profileChunksCounter(KafkaProducerProfile.LOW_LATENCY);
+    this.bulkChunks = profileChunksCounter(KafkaProducerProfile.BULK);
   }
 
-  public void sendMessage(SubscriptionChangeEvent event) {
-    final String key = event.payload().id();
+  /**
+   * @return the ids of the events the broker acked, the others are recorded as failed attempts
+   */
+  public List<String> sendMessages(List<SubscriptionChangeEvent> events) {
+    if (events.isEmpty()) {
+      return List.of();
+    }
+
+    var template = templateFor(events.size());
+    if (transactional) {
+      return sendMessagesInTransaction(template, events);
+    }
+
+    // Events are split into lanes by key, each lane keeps its events in order while lanes publish side by side
+    Map<Integer, List<SubscriptionChangeEvent>> eventsByLane = new LinkedHashMap<>();
+    events.forEach(event -> eventsByLane
+            .computeIfAbsent(Math.floorMod(event.payload().id().hashCode(), lanes), _ -> new ArrayList<>())
+            .add(event));
+
+    List<LaneResult> results;
+    if (eventsByLane.size() == 1) {
+      results = List.of(publishLane(template, events));
+    } else {
+      List<Future<LaneResult>> futures;
+      // Closing the executor waits for every lane to finish
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        futures = eventsByLane.values().stream()
+                .map(lane -> executor.submit(() -> publishLane(template, lane)))
+                .toList();
+      }
+      results = futures.stream().map(Future::resultNow).toList();
+    }
+
+    List<String> sentIds = new ArrayList<>();
+    List<String> failedIds = new ArrayList<>();
+    results.forEach(result -> {
+      sentIds.addAll(result.sentIds());
+      failedIds.addAll(result.failedIds());
+    });
+
+    eventsOutboxService.updateOutboxStatuses(Map.of("SENT", sentIds));
+    // Failed events are rescheduled with backoff by the retry worker, or dead-lettered once out of attempts
+    eventsOutboxService.recordFailedAttempts(failedIds);
+    LOGGER.info("Published [{}] of [{}] SubscriptionChangeEvents across [{}] lanes",
+            sentIds.size(), events.size(), eventsByLane.size());
+    return sentIds;
+  }
+
+  private List<String> sendMessagesInTransaction(KafkaTemplate<String, SubscriptionChangeEvent> template,
+                                         List<SubscriptionChangeEvent> events) {
+    List<String> eventIds = events.stream().map(SubscriptionChangeEvent::eventId).toList();
 
     try {
-      var result = kafkaTemplate.send(subscriptionChangesTopic, key, event).join();
+      template.executeInTransaction(operations -> {
+        var acks = events.stream()
+                .map(event -> observe(event, operations.send(subscriptionChangesTopic, event.payload().id(), event)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(acks).join();
+
+        // The rows move to SENT before the Kafka commit, so a failed status update aborts the chunk's records as well
+        eventsOutboxService.updateOutboxStatuses(Map.of("SENT", eventIds));
+        return null;
+      });
+    } catch (DataAccessException ex) {
+      // Roll the claim back too, the rows stay PENDING and nothing was committed to Kafka
+      throw ex;
+    } catch (RuntimeException ex) {
+      // The Kafka transaction was aborted, read_committed consumers never see any record of this chunk
+      LOGGER.error("Failed to publish [{}] SubscriptionChangeEvents in one Kafka transaction", events.size(), ex);
+      eventsOutboxService.recordFailedAttempts(eventIds);
+      restoreInterruptFlag(ex);
+      return List.of();
+    }
+
+    LOGGER.info("Published [{}] SubscriptionChangeEvents in one Kafka transaction", events.size());
+    return eventIds;
+  }
+
+  private LaneResult publishLane(KafkaTemplate<String, SubscriptionChangeEvent> template,
+                                 List<SubscriptionChangeEvent> lane) {
+    // Pipelined lanes send every event before waiting, the producer keeps records with the same key in send order
+    List<CompletableFuture<Throwable>> acks = pipelined
+            ? lane.stream().map(event -> sendAsync(template, event)).toList()
+            : null;
 
-      LOGGER.info("Published SubscriptionChangeEvent with id: [{}] at offset: [{}]", key, result.getRecordMetadata().offset());
-      eventsOutboxService.updateOutboxStatus(event.eventId(), "SENT");
+    Set<String> failedKeys = new HashSet<>();
+    List<String> sentIds = new ArrayList<>();
+    List<String> failedIds = new ArrayList<>();
+    for (int i = 0; i < lane.size(); i++) {
+      var event = lane.get(i);
+      final String key = event.payload().id();
+      if (acks == null && failedKeys.contains(key)) {
+        failedIds.add(event.eventId());
+        continue;
+      }
+
+      Throwable failure = acks != null ? acks.get(i).join() : sendAsync(template, event).join();
+      if (failure == null && !failedKeys.contains(key)) {
+        sentIds.add(event.eventId());
+        continue;
+      }
+
+      // Once an event fails, later events for the same key are failed too so a retry keeps their order
+      if (failure != null) {
+        LOGGER.error("Failed to publish SubscriptionChangeEvent with id: [{}]", key, failure);
+        restoreInterruptFlag(failure);
+      }
+      failedKeys.add(key);
+      failedIds.add(event.eventId());
+    }
+
+    return new LaneResult(sentIds, failedIds);
+  }
+
+  public void sendAll(List<SubscriptionChangeEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    // No outbox status change here, the caller owns the delivery position and retries on failure
+    var template = templateFor(events.size());
+    if (transactional) {
+      template.executeInTransaction(operations -> {
+        sendAll(operations, events);
+        return null;
+      });
+      return;
+    }
+    sendAll(template, events);
+  }
+
+  private void sendAll(KafkaOperations<String, SubscriptionChangeEvent> operations, List<SubscriptionChangeEvent> events) {
+    var acks = events.stream()
+            .map(event -> observe(event, operations.send(subscriptionChangesTopic, event.payload().id(), event)))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(acks).join();
+  }
+
+  private CompletableFuture<Throwable> sendAsync(KafkaTemplate<String, SubscriptionChangeEvent> template,
+                                                 SubscriptionChangeEvent event) {
+    try {
+      return observe(event, template.send(subscriptionChangesTopic, event.payload().id(), event))
+              .handle((_, ex) -> unwrap(ex));
     } catch (Exception ex) {
-      LOGGER.error("Failed to publish SubscriptionChangeEvent with id: [{}]", key, ex);
-      eventsOutboxService.updateOutboxStatus(event.eventId(), "FAILED");
+      recordFailure(ex);
+      return CompletableFuture.completedFuture(ex);
+    }
+  }
+
+  /**
+   * Picks the producer for a batch by its size: a batch at or above the bulk threshold comes from a backlog and is
+   * published with the batching, compressed bulk profile, anything smaller goes out on the low-latency producer.
+   */
+  private KafkaTemplate<String, SubscriptionChangeEvent> templateFor(int batchSize) {
+    if (batchSize >= bulkThreshold) {
+      bulkChunks.increment();
+      return bulkKafkaTemplate;
+    }
+    lowLatencyChunks.increment();
+    return kafkaTemplate;
+  }
+
+  private Counter profileChunksCounter(KafkaProducerProfile profile) {
+    return Counter.builder("outbox.publish.chunks")
+            .description("Outbox chunks published, by producer profile")
+            .tag("profile", profile.profileName())
+            .register(meterRegistry);
+  }
 
-      if (ex.getCause() instanceof InterruptedException) {
-        Thread.currentThread().interrupt();
+  private <R> CompletableFuture<R> observe(SubscriptionChangeEvent event, CompletableFuture<R> ack) {
+    return ack.whenComplete((_, ex) -> {
+      if (ex == null) {
+        publishLatencyTimer.record(Math.max(0, System.currentTimeMillis() - event.timestamp()), TimeUnit.MILLISECONDS);
+      } else {
+        recordFailure(unwrap(ex));
       }
+    });
+  }
+
+  private void recordFailure(Throwable ex) {
+    Counter.builder("outbox.publish.failures")
+            .description("Outbox events whose publish failed, by exception type")
+            .tag("exception", ex.getClass().getSimpleName())
+            .register(meterRegistry)
+            .increment();
+  }
+
+  private static Throwable unwrap(Throwable ex) {
+    return ex instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : ex;
+  }
+
+  private static void restoreInterruptFlag(Throwable ex) {
+    if (ex instanceof InterruptedException || ex.getCause() instanceof InterruptedException) {
+      Thread.currentThread().interrupt();
     }
   }
 }
@@ -1,59 +1,130 @@
 package com.example.fx.subscription.service.service;
 
-import com.example.fx.subscription.service.model.EventsOutbox;
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
 import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
-public class SubscriptionChangeScheduler {
+@ConditionalOnProperty(name = "outbox.subscriptions.relay.mode", havingValue = "polling", matchIfMissing = true)
+public class SubscriptionChangeScheduler implements SchedulingConfigurer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionChangeScheduler.class);
 
   private final EventsOutboxRepository eventsOutboxRepository;
   private final SubscriptionChangePublisher subscriptionChangePublisher;
+  private final OutboxCompactor outboxCompactor;
+  private final OutboxPollTrigger outboxPollTrigger;
+  private final SchedulerLeadership schedulerLeadership;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+  private final Timer drainTimer;
+  private final DistributionSummary drainSizeSummary;
+  // The poll trigger and the notification listener both drain, one at a time so chunks are published in claim order
+  private final ReentrantLock drainLock = new ReentrantLock();
 
   public SubscriptionChangeScheduler(EventsOutboxRepository eventsOutboxRepository,
-                                     SubscriptionChangePublisher subscriptionChangePublisher) {
+                                     SubscriptionChangePublisher subscriptionChangePublisher,
+                                     OutboxCompactor outboxCompactor,
+                                     OutboxPollTrigger outboxPollTrigger,
+                                     SchedulerLeadership schedulerLeadership,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${outbox.subscriptions.drain.chunk-size}") int chunkSize,
+                                     @Value("${outbox.subscriptions.drain.max-chunks-per-run}") int maxChunksPerRun,
+                                     MeterRegistry meterRegistry) {
     this.eventsOutboxRepository = eventsOutboxRepository;
     this.subscriptionChangePublisher = subscriptionChangePublisher;
+    this.outboxCompactor = outboxCompactor;
+    this.outboxPollTrigger = outboxPollTrigger;
+    this.schedulerLeadership = schedulerLeadership;
+    this.transactionTemplate = transactionTemplate;
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+    this.drainTimer = Timer.builder("outbox.drain.duration")
+            .description("Time taken by one scheduled drain of the outbox, across all its chunks")
+            .register(meterRegistry);
+    this.drainSizeSummary = DistributionSummary.builder("outbox.drain.events")
+            .description("Outbox events claimed by one scheduled drain")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+    // Polled on an adaptive delay instead of a fixed rate, see OutboxPollTrigger
+    taskRegistrar.addTriggerTask(this::checkForOutboxSubscriptions, outboxPollTrigger);
   }
 
-  @Scheduled(
-          initialDelayString = "${outbox.subscriptions.check.initial-delay}",
-          fixedRateString = "${outbox.subscriptions.check.rate}"
-  )
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
   public void checkForOutboxSubscriptions() {
+    if (!schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_DRAIN)) {
+      LOGGER.debug("[SubscriptionChangeScheduler] Not the leader of [{}], skipping", SchedulerLeadership.OUTBOX_DRAIN);
+      return;
+    }
+
+    drainLock.lock();
+    try {
+      drain();
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
+  private void drain() {
     LOGGER.info("[SubscriptionChangeScheduler] START checking outbox table for subscriptions to publish...");
 
-    var pendingEvents = eventsOutboxRepository.findByStatus("PENDING").stream()
-            .map(this::toEvent)
-            .toList();
+    long start = System.nanoTime();
+    int published = 0;
+    long oldestTimestamp = Long.MAX_VALUE;
+    boolean backlogRemaining = false;
+    for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+      // Each chunk is claimed and published in its own transaction, so row locks are held only for one chunk
+      List<SubscriptionChangeEvent> claimed =
+              Objects.requireNonNullElse(transactionTemplate.execute(_ -> publishNextChunk()), List.of());
+      published += claimed.size();
+      for (SubscriptionChangeEvent event : claimed) {
+        oldestTimestamp = Math.min(oldestTimestamp, event.timestamp());
+      }
 
-    if (pendingEvents.isEmpty()) {
-      LOGGER.info("[SubscriptionChangeScheduler] END No events to publish!!!");
-      return;
+      backlogRemaining = claimed.size() >= chunkSize;
+      if (!backlogRemaining) {
+        break;
+      }
     }
 
-    for (var event : pendingEvents) {
-      subscriptionChangePublisher.sendMessage(event);
+    drainTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    drainSizeSummary.record(published);
+    outboxPollTrigger.onDrain(published, backlogRemaining, oldestTimestamp);
+
+    if (published == 0) {
+      LOGGER.info("[SubscriptionChangeScheduler] END No events to publish!!!");
+      return;
     }
 
-    LOGGER.info("[SubscriptionChangeScheduler] END published all PENDING subscriptions");
+    LOGGER.info("[SubscriptionChangeScheduler] END published [{}] PENDING subscriptions, next check in [{}]",
+            published, outboxPollTrigger.currentInterval());
   }
 
-  private SubscriptionChangeEvent toEvent(EventsOutbox eventsOutbox) {
-    return new SubscriptionChangeEvent(
-            eventsOutbox.getId().toString(),
-            eventsOutbox.getTimestamp(),
-            eventsOutbox.getEventType(),
-            eventsOutbox.getPayload()
-    );
+  private List<SubscriptionChangeEvent> publishNextChunk() {
+    // FOR UPDATE SKIP LOCKED lets other instances claim a different chunk instead of waiting on this one
+    var pendingEvents = eventsOutboxRepository.claimByStatus("PENDING", chunkSize).stream()
+            .map(SubscriptionChangeEvent::fromEventsOutbox)
+            .toList();
+
+    subscriptionChangePublisher.sendMessages(outboxCompactor.compact(pendingEvents));
+    return pendingEvents;
   }
 }
@@ -0,0 +1,47 @@
+package com.example.fx.subscription.service.service;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Short-lived markers for lookups that found nothing, a subscription id that does not exist or a user without
+ * subscriptions, so clients polling for them or probing ids do not reach Postgres on every request. Markers are
+ * evicted when a subscription is created and otherwise expire after their TTL, which bounds how long a missed eviction
+ * hides new data.
+ */
+@Service
+@CacheConfig(cacheNames = "subscriptionMisses")
+public class SubscriptionNegativeCache {
+
+  private static final String SUBSCRIPTION_PREFIX = "subscription:";
+  private static final String USER_PREFIX = "user:";
+
+  /**
+   * @return whether a lookup of the key found nothing recently; only markers are cached, never their absence
+   */
+  @Cacheable(key = "#key", unless = "!#result")
+  public boolean isKnownMissing(String key) {
+    return false;
+  }
+
+  @CachePut(key = "#key")
+  public boolean recordMissing(String key) {
+    return true;
+  }
+
+  @CacheEvict(key = "#key")
+  public void forget(String key) {
+    // Evicted by the cache interceptor
+  }
+
+  public static String subscriptionKey(String subscriptionId) {
+    return SUBSCRIPTION_PREFIX + subscriptionId;
+  }
+
+  public static String userKey(String userId) {
+    return USER_PREFIX + userId;
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.repository.SubscriptionRepository;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Cached mapping of a subscription id to the id of the user owning it, so the ownership check of every subscription
+ * request is answered without a query. The owner of a subscription never changes, so the entry is written when the
+ * subscription is created and evicted when it is deleted; on a miss it is read from Postgres. Ids found not to exist
+ * are remembered by the {@link SubscriptionNegativeCache}, so probing unknown ids does not query Postgres every time.
+ */
+@Service
+@CacheConfig(cacheNames = "subscriptionOwner")
+public class SubscriptionOwnershipIndex {
+
+  private final SubscriptionRepository subscriptionRepository;
+  private final SubscriptionNegativeCache subscriptionNegativeCache;
+
+  public SubscriptionOwnershipIndex(SubscriptionRepository subscriptionRepository,
+                                    SubscriptionNegativeCache subscriptionNegativeCache) {
+    this.subscriptionRepository = subscriptionRepository;
+    this.subscriptionNegativeCache = subscriptionNegativeCache;
+  }
+
+  /**
+   * @return the owner's user id, or {@code null} when there is no such subscription; unknown ids are cached as misses
+   */
+  @Cacheable(key = "#subscriptionId", unless = "#result == null")
+  public String findOwnerId(String subscriptionId) {
+    String missKey = SubscriptionNegativeCache.subscriptionKey(subscriptionId);
+    if (subscriptionNegativeCache.isKnownMissing(missKey)) {
+      return null;
+    }
+
+    String ownerId = subscriptionRepository.findUserIdById(UUID.fromString(subscriptionId))
+            .map(UUID::toString)
+            .orElse(null);
+    if (ownerId == null) {
+      subscriptionNegativeCache.recordMissing(missKey);
+    }
+    return ownerId;
+  }
+
+  @CachePut(key = "#subscriptionId")
+  public String recordOwner(String subscriptionId, String ownerId) {
+    return ownerId;
+  }
+
+  @CacheEvict(key = "#subscriptionId")
+  public void forgetOwner(String subscriptionId) {
+    // Evicted by the cache interceptor
+  }
+}
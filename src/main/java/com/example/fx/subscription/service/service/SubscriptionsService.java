@@ -9,8 +9,12 @@ import com.example.fx.subscription.service.repository.FxUserRepository;
 import com.example.fx.subscription.service.repository.SubscriptionRepository;
 import io.micrometer.observation.annotation.Observed;
 import org.springframework.cache.annotation.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -28,21 +32,38 @@ public class SubscriptionsService {
   private final SubscriptionRepository subscriptionRepository;
   private final FxUserRepository fxUserRepository;
   private final EventsOutboxRepository eventsOutboxRepository;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final SubscriptionOwnershipIndex subscriptionOwnershipIndex;
+  private final SubscriptionNegativeCache subscriptionNegativeCache;
 
   public SubscriptionsService(SubscriptionRepository subscriptionRepository,
                               FxUserRepository fxUserRepository,
-                              EventsOutboxRepository eventsOutboxRepository) {
+                              EventsOutboxRepository eventsOutboxRepository,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              SubscriptionOwnershipIndex subscriptionOwnershipIndex,
+                              SubscriptionNegativeCache subscriptionNegativeCache) {
     this.subscriptionRepository = subscriptionRepository;
     this.fxUserRepository = fxUserRepository;
     this.eventsOutboxRepository = eventsOutboxRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.subscriptionOwnershipIndex = subscriptionOwnershipIndex;
+    this.subscriptionNegativeCache = subscriptionNegativeCache;
   }
 
   @Transactional(readOnly = true)
-  @Cacheable(key = "#id")
+  @Cacheable(key = "#id", sync = true)
   public SubscriptionResponse findSubscriptionById(String id) {
+    String missKey = SubscriptionNegativeCache.subscriptionKey(id);
+    if (subscriptionNegativeCache.isKnownMissing(missKey)) {
+      throw new SubscriptionNotFoundException(SUBSCRIPTION_NOT_FOUND.formatted(id), id);
+    }
+
     return subscriptionRepository.findById(UUID.fromString(id))
             .map(SubscriptionResponse::fromSubscription)
-            .orElseThrow(() -> new SubscriptionNotFoundException(SUBSCRIPTION_NOT_FOUND.formatted(id), id));
+            .orElseThrow(() -> {
+              subscriptionNegativeCache.recordMissing(missKey);
+              return new SubscriptionNotFoundException(SUBSCRIPTION_NOT_FOUND.formatted(id), id);
+            });
   }
 
   @Transactional(readOnly = true)
@@ -56,13 +77,19 @@ public class SubscriptionsService {
   }
 
   @Transactional(readOnly = true)
-  @Cacheable(cacheNames = "subscriptionsByUser", key = "#userId", unless = "#result.totalCount() == 0")
+  @Cacheable(cacheNames = "subscriptionsByUser", key = "#userId", sync = true)
   public SubscriptionListResponse findSubscriptionResponsesByUserId(String userId) {
+    String missKey = SubscriptionNegativeCache.userKey(userId);
+    if (subscriptionNegativeCache.isKnownMissing(missKey)) {
+      throw new SubscriptionNotFoundException(SUBSCRIPTION_NOT_FOUND.formatted(userId));
+    }
+
     List<SubscriptionResponse> subscriptions = subscriptionRepository.findSubscriptionsByUserId(UUID.fromString(userId))
             .stream()
             .map(SubscriptionResponse::fromSubscription)
             .toList();
     if (subscriptions.isEmpty()) {
+      subscriptionNegativeCache.recordMissing(missKey);
       throw new SubscriptionNotFoundException(SUBSCRIPTION_NOT_FOUND.formatted(userId));
     }
 
@@ -77,10 +104,10 @@ public class SubscriptionsService {
             .toList();
   }
 
-  @Transactional(readOnly = true)
+  // Answered by the ownership index, so a cached owner needs neither a query nor a transaction
+  @Transactional(propagation = Propagation.SUPPORTS)
   public boolean isSubscriptionOwner(String subscriptionId, UUID userId) {
-    return subscriptionRepository.existsByIdAndUserId(
-            UUID.fromString(subscriptionId), userId);
+    return userId.toString().equals(subscriptionOwnershipIndex.findOwnerId(subscriptionId));
   }
 
   @Caching(
@@ -97,7 +124,11 @@ public class SubscriptionsService {
 
     Subscription subscription = subscriptionRepository.saveAndFlush(
             mapSubscriptionCreateRequestToSubscription(createRequest, user));
-    eventsOutboxRepository.save(createSubscriptionsOutboxEvent(subscription, "SubscriptionCreated"));
+    saveOutboxEvent(subscription, "SubscriptionCreated", SubscriptionChangePayload.snapshot(subscription));
+    subscriptionOwnershipIndex.recordOwner(subscription.getId().toString(), userId.toString());
+    afterCommit(() -> List.of(SubscriptionNegativeCache.userKey(userId.toString()),
+                    SubscriptionNegativeCache.subscriptionKey(subscription.getId().toString()))
+            .forEach(subscriptionNegativeCache::forget));
 
     return SubscriptionResponse.fromSubscription(subscription);
   }
@@ -114,6 +145,7 @@ public class SubscriptionsService {
             .orElseThrow(() -> new SubscriptionNotFoundException(
                     SUBSCRIPTION_NOT_FOUND.formatted(id), id));
 
+    var before = SubscriptionChangePayload.snapshot(subscription);
     Optional.ofNullable(subscriptionUpdateRequest.currencyPair()).ifPresent(subscription::setCurrencyPair);
 
     Optional.ofNullable(subscriptionUpdateRequest.direction())
@@ -129,7 +161,7 @@ public class SubscriptionsService {
     subscription.setUpdatedAt(Instant.now());
 
     Subscription updatedSubscription = subscriptionRepository.saveAndFlush(subscription);
-    eventsOutboxRepository.save(createSubscriptionsOutboxEvent(updatedSubscription, "SubscriptionUpdated"));
+    saveOutboxEvent(updatedSubscription, "SubscriptionUpdated", SubscriptionChangePayload.delta(before, updatedSubscription));
 
     return SubscriptionResponse.fromSubscription(updatedSubscription);
   }
@@ -149,7 +181,8 @@ public class SubscriptionsService {
                     SUBSCRIPTION_NOT_FOUND.formatted(id), id));
 
     subscriptionRepository.deleteById(UUID.fromString(id));
-    eventsOutboxRepository.save(createSubscriptionsOutboxEvent(subscription, "SubscriptionDeleted"));
+    afterCommit(() -> subscriptionOwnershipIndex.forgetOwner(id));
+    saveOutboxEvent(subscription, "SubscriptionDeleted", SubscriptionChangePayload.deletion(subscription));
 
     return SubscriptionDeleteResponse.fromSubscriptionAndUserId(subscription.getUser().getId().toString(), id);
   }
@@ -169,12 +202,35 @@ public class SubscriptionsService {
     return subscription;
   }
 
-  private EventsOutbox createSubscriptionsOutboxEvent(Subscription subscription, String eventType) {
+  private void saveOutboxEvent(Subscription subscription, String eventType, SubscriptionChangePayload payload) {
+    EventsOutbox eventsOutbox = createSubscriptionsOutboxEvent(subscription, eventType, payload);
+    eventsOutboxRepository.save(eventsOutbox);
+    // Delivered after commit, so the dispatcher never sees a row that may still roll back
+    applicationEventPublisher.publishEvent(new EventsOutboxSaved(eventsOutbox.getId()));
+  }
+
+  // Evictions run after the commit, since a lookup between the eviction and the commit would cache the old state again
+  private void afterCommit(Runnable eviction) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eviction.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        eviction.run();
+      }
+    });
+  }
+
+  private EventsOutbox createSubscriptionsOutboxEvent(Subscription subscription, String eventType,
+                                                     SubscriptionChangePayload payload) {
     EventsOutbox eventsOutbox = new EventsOutbox();
     eventsOutbox.setAggregateType("Subscription");
     eventsOutbox.setAggregateId(subscription.getId());
     eventsOutbox.setEventType(eventType);
-    eventsOutbox.setPayload(SubscriptionResponse.fromSubscription(subscription));
+    eventsOutbox.setPayload(payload);
     eventsOutbox.setStatus("PENDING");
     eventsOutbox.setTimestamp(System.currentTimeMillis());
 
@@ -0,0 +1,103 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+  private static final String CHANNEL = "fx-cache-invalidations";
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private LocalCache localCache;
+
+  private SimpleMeterRegistry meterRegistry;
+  private CacheInvalidationBus sender;
+  private CacheInvalidationBus receiver;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    sender = new CacheInvalidationBus(stringRedisTemplate, CHANNEL, meterRegistry);
+    receiver = new CacheInvalidationBus(stringRedisTemplate, CHANNEL, meterRegistry);
+    lenient().when(localCache.getName()).thenReturn("subscription");
+    receiver.register(localCache);
+  }
+
+  @Test
+  void publishEvict_ShouldEvictKeyOnOtherInstances() {
+    // When
+    sender.publishEvict("subscription", "key-1");
+    receiver.onMessage(lastMessage(), null);
+
+    // Then
+    verify(localCache).evictLocal("key-1");
+    verify(localCache, never()).clearLocal();
+    assertEquals(1.0, meterRegistry.get("cache.near.invalidations")
+            .tag("cache", "subscription")
+            .tag("source", "pubsub")
+            .counter().count());
+  }
+
+  @Test
+  void publishClear_ShouldClearCacheOnOtherInstances() {
+    // When
+    sender.publishClear("subscription");
+    receiver.onMessage(lastMessage(), null);
+
+    // Then
+    verify(localCache).clearLocal();
+  }
+
+  @Test
+  void onMessage_FromSameInstance_ShouldBeIgnored() {
+    // When
+    receiver.publishEvict("subscription", "key-1");
+    receiver.onMessage(lastMessage(), null);
+
+    // Then
+    verify(localCache, never()).evictLocal(anyString());
+  }
+
+  @Test
+  void onMessage_ForUnknownCache_ShouldBeIgnored() {
+    // When
+    sender.publishEvict("subscriptionsByUser", "key-1");
+    receiver.onMessage(lastMessage(), null);
+
+    // Then
+    verify(localCache, never()).evictLocal(anyString());
+  }
+
+  @Test
+  void publish_WhenRedisIsDown_ShouldNotFailTheWrite() {
+    // Given
+    doThrow(new RuntimeException("Redis Down")).when(stringRedisTemplate).convertAndSend(anyString(), anyString());
+
+    // When & Then
+    sender.publishEvict("subscription", "key-1");
+  }
+
+  private DefaultMessage lastMessage() {
+    var captor = ArgumentCaptor.forClass(String.class);
+    verify(stringRedisTemplate, atLeastOnce()).convertAndSend(eq(CHANNEL), captor.capture());
+    return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+            captor.getValue().getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.fx.subscription.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EarlyRefreshTest {
+
+  private static final Duration TTL = Duration.ofSeconds(60);
+  private static final Duration MIN_LOAD_TIME = Duration.ofSeconds(1);
+
+  @Test
+  void wrap_ShouldRecordLoadTimeAndExpiry() {
+    // Given
+    var earlyRefresh = new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME);
+    long before = System.currentTimeMillis();
+
+    // When
+    var wrapped = assertInstanceOf(RefreshableValue.class, earlyRefresh.wrap("key", "value", 5_000_000L));
+
+    // Then
+    assertEquals("value", wrapped.value());
+    assertEquals(5, wrapped.loadMillis());
+    assertTrue(wrapped.expiresAtMillis() >= before + TTL.toMillis());
+  }
+
+  @Test
+  void wrap_WhenEntryNeverExpires_ShouldKeepPlainValue() {
+    var earlyRefresh = new EarlyRefresh((_, _) -> Duration.ZERO, 1.0, MIN_LOAD_TIME);
+
+    assertEquals("value", earlyRefresh.wrap("key", "value", 5_000_000L));
+  }
+
+  @Test
+  void shouldRefresh_WhenFarFromExpiry_ShouldNotRefresh() {
+    // Given
+    var earlyRefresh = new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME, () -> 0.99);
+    var refreshable = new RefreshableValue("value", 5, System.currentTimeMillis() + TTL.toMillis());
+
+    // When & Then
+    assertFalse(earlyRefresh.shouldRefresh(refreshable));
+  }
+
+  @Test
+  void shouldRefresh_WhenCloseToExpiry_ShouldDependOnTheDraw() {
+    // Given
+    var refreshable = new RefreshableValue("value", 5, System.currentTimeMillis() + 2_000);
+
+    // When & Then: -1s * ln(0.01) is about 4.6s early, -1s * ln(0.9) about 0.1s
+    assertTrue(new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME, () -> 0.99).shouldRefresh(refreshable));
+    assertFalse(new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME, () -> 0.1).shouldRefresh(refreshable));
+  }
+
+  @Test
+  void shouldRefresh_WhenExpired_ShouldAlwaysRefresh() {
+    var earlyRefresh = new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME, () -> 0.0);
+
+    assertTrue(earlyRefresh.shouldRefresh(new RefreshableValue("value", 5, System.currentTimeMillis() - 1)));
+  }
+
+  @Test
+  void shouldRefresh_WithSlowerLoads_ShouldRefreshEarlier() {
+    // Given
+    var earlyRefresh = new EarlyRefresh((_, _) -> TTL, 1.0, MIN_LOAD_TIME, () -> 0.5);
+    long expiresAt = System.currentTimeMillis() + 5_000;
+
+    // When & Then: -ln(0.5) is about 0.69, so a 10s load refreshes ~6.9s early and a 1s load ~0.69s early
+    assertTrue(earlyRefresh.shouldRefresh(new RefreshableValue("value", 10_000, expiresAt)));
+    assertFalse(earlyRefresh.shouldRefresh(new RefreshableValue("value", 5, expiresAt)));
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.fx.subscription.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitteredTtlFunctionTest {
+
+  private static final Duration TTL = Duration.ofSeconds(300);
+
+  @Test
+  void getTimeToLive_ShouldStayWithinJitterBelowTtl() {
+    // Given
+    var ttlFunction = new JitteredTtlFunction(TTL, 0.1);
+
+    // When & Then
+    for (int i = 0; i < 1_000; i++) {
+      Duration ttl = ttlFunction.getTimeToLive("key", "value");
+      assertTrue(ttl.compareTo(TTL) <= 0, "ttl " + ttl);
+      assertTrue(ttl.compareTo(Duration.ofSeconds(270)) >= 0, "ttl " + ttl);
+    }
+  }
+
+  @Test
+  void getTimeToLive_ShouldSpreadEntries() {
+    var ttlFunction = new JitteredTtlFunction(TTL, 0.1);
+
+    long distinct = IntStream.range(0, 100)
+            .mapToObj(_ -> ttlFunction.getTimeToLive("key", "value"))
+            .distinct()
+            .count();
+
+    assertTrue(distinct > 50, "distinct ttls " + distinct);
+  }
+
+  @Test
+  void getTimeToLive_WithoutJitter_ShouldReturnTtl() {
+    assertEquals(TTL, new JitteredTtlFunction(TTL, 0).getTimeToLive("key", "value"));
+  }
+
+  @Test
+  void getTimeToLive_ForRefreshableValue_ShouldKeepItsExpiry() {
+    // Given
+    var ttlFunction = new JitteredTtlFunction(TTL, 0.1);
+    var refreshable = new RefreshableValue("value", 5, System.currentTimeMillis() + 10_000);
+
+    // When
+    Duration ttl = ttlFunction.getTimeToLive("key", refreshable);
+
+    // Then
+    assertTrue(ttl.compareTo(Duration.ofSeconds(10)) <= 0);
+    assertTrue(ttl.compareTo(Duration.ofSeconds(9)) > 0);
+  }
+
+  @Test
+  void constructor_WithJitterOutOfRange_ShouldFail() {
+    assertThrows(IllegalArgumentException.class, () -> new JitteredTtlFunction(TTL, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> new JitteredTtlFunction(TTL, -0.1));
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.fx.subscription.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisLoadLockTest {
+
+  private static final Duration LEASE = Duration.ofSeconds(5);
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  private RedisLoadLock redisLoadLock;
+
+  @BeforeEach
+  void setUp() {
+    redisLoadLock = new RedisLoadLock(stringRedisTemplate, LEASE, Duration.ofSeconds(2), Duration.ofMillis(50));
+  }
+
+  @Test
+  void tryAcquire_WhenFree_ShouldReturnToken() {
+    // Given
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq("lock:subscription::key-1"), anyString(), eq(LEASE))).thenReturn(true);
+
+    // When
+    String token = redisLoadLock.tryAcquire("subscription", "key-1");
+
+    // Then
+    assertNotNull(token);
+    assertNotEquals(RedisLoadLock.NO_LEASE, token);
+  }
+
+  @Test
+  void tryAcquire_WhenHeldElsewhere_ShouldReturnNull() {
+    // Given
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+    // When & Then
+    assertNull(redisLoadLock.tryAcquire("subscription", "key-1"));
+  }
+
+  @Test
+  void tryAcquire_WhenRedisIsDown_ShouldLoadWithoutLease() {
+    // Given
+    when(stringRedisTemplate.opsForValue()).thenThrow(new RuntimeException("Redis Down"));
+
+    // When
+    String token = redisLoadLock.tryAcquire("subscription", "key-1");
+
+    // Then
+    assertEquals(RedisLoadLock.NO_LEASE, token);
+    redisLoadLock.release("subscription", "key-1", token);
+    verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+  }
+
+  @Test
+  void release_ShouldDeleteOnlyOwnLease() {
+    // When
+    redisLoadLock.release("subscription", "key-1", "token");
+
+    // Then
+    verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("lock:subscription::key-1")), eq("token"));
+  }
+
+  @Test
+  void constructor_WhenWaitIsNotShorterThanLease_ShouldFail() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new RedisLoadLock(stringRedisTemplate, LEASE, LEASE, Duration.ofMillis(50)));
+  }
+}
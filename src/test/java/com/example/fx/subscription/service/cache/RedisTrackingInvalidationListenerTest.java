@@ -0,0 +1,118 @@
+package com.example.fx.subscription.service.cache;
+
+import io.lettuce.core.api.push.PushMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisTrackingInvalidationListenerTest {
+
+  @Mock
+  private LettuceConnectionFactory lettuceConnectionFactory;
+
+  @Mock
+  private CacheManager cacheManager;
+
+  @Mock(extraInterfaces = LocalCache.class)
+  private org.springframework.cache.Cache subscriptionCache;
+
+  @Mock(extraInterfaces = LocalCache.class)
+  private org.springframework.cache.Cache subscriptionsByUserCache;
+
+  @Mock
+  private PushMessage pushMessage;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RedisTrackingInvalidationListener listener;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    when(cacheManager.getCacheNames()).thenReturn(List.of("subscription", "subscriptionsByUser"));
+    when(cacheManager.getCache("subscription")).thenReturn(subscriptionCache);
+    when(cacheManager.getCache("subscriptionsByUser")).thenReturn(subscriptionsByUserCache);
+    lenient().when(((LocalCache) subscriptionCache).getName()).thenReturn("subscription");
+    lenient().when(((LocalCache) subscriptionsByUserCache).getName()).thenReturn("subscriptionsByUser");
+
+    listener = new RedisTrackingInvalidationListener(lettuceConnectionFactory, cacheManager, Duration.ofMillis(100),
+            meterRegistry);
+    listener.registerLocalCaches();
+  }
+
+  @Test
+  void trackedPrefixes_ShouldCoverEveryLocalCache() {
+    var prefixes = listener.trackedPrefixes();
+
+    assertEquals(List.of("subscription::", "subscriptionsByUser::"), Arrays.stream(prefixes).sorted().toList());
+  }
+
+  @Test
+  void onPushMessage_ShouldEvictTheInvalidatedKeysOnly() {
+    // Given
+    when(pushMessage.getType()).thenReturn(RedisTrackingInvalidationListener.INVALIDATE);
+    when(pushMessage.getContent(any())).thenReturn(List.of(
+            RedisTrackingInvalidationListener.INVALIDATE,
+            List.of("subscription::sub-1", "subscriptionsByUser::user-1", "unrelated")));
+
+    // When
+    listener.onPushMessage(pushMessage);
+
+    // Then
+    verify((LocalCache) subscriptionCache).evictLocal("sub-1");
+    verify((LocalCache) subscriptionsByUserCache).evictLocal("user-1");
+    verify((LocalCache) subscriptionCache, never()).clearLocal();
+    assertEquals(1.0, meterRegistry.get("cache.near.invalidations")
+            .tag("cache", "subscription")
+            .tag("source", "tracking")
+            .counter().count());
+  }
+
+  @Test
+  void onPushMessage_WhenDatabaseIsFlushed_ShouldClearEveryLocalCache() {
+    // Given
+    when(pushMessage.getType()).thenReturn(RedisTrackingInvalidationListener.INVALIDATE);
+    when(pushMessage.getContent(any())).thenReturn(Arrays.asList(RedisTrackingInvalidationListener.INVALIDATE, null));
+
+    // When
+    listener.onPushMessage(pushMessage);
+
+    // Then
+    verify((LocalCache) subscriptionCache).clearLocal();
+    verify((LocalCache) subscriptionsByUserCache).clearLocal();
+  }
+
+  @Test
+  void onPushMessage_WhenNotAnInvalidation_ShouldBeIgnored() {
+    // Given
+    when(pushMessage.getType()).thenReturn("message");
+
+    // When
+    listener.onPushMessage(pushMessage);
+
+    // Then
+    verify((LocalCache) subscriptionCache, never()).evictLocal(anyString());
+    verify((LocalCache) subscriptionCache, never()).clearLocal();
+  }
+
+  @Test
+  void invalidate_WhenKeyContainsSeparator_ShouldKeepTheRestAsLocalKey() {
+    listener.invalidate("subscription::a::b");
+
+    verify((LocalCache) subscriptionCache).evictLocal("a::b");
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.fx.subscription.service.cache;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import com.example.fx.subscription.service.serialization.SubscriptionCacheSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshableValueSerializerTest {
+
+  private static final SubscriptionResponse SUBSCRIPTION = new SubscriptionResponse(
+          UUID.randomUUID().toString(),
+          new UserSummaryResponse(UUID.randomUUID().toString(), "trader@example.com", "+447700900123", true,
+                  Instant.parse("2025-01-15T10:15:30Z").toString(), null),
+          "GBP/USD",
+          new BigDecimal("1.2550"),
+          ThresholdDirection.ABOVE,
+          List.of("email"),
+          SubscriptionStatus.ACTIVE,
+          Instant.parse("2025-01-15T10:15:30Z").toString(),
+          null
+  );
+
+  @ParameterizedTest
+  @ValueSource(strings = {SubscriptionCacheSerializer.JSON, SubscriptionCacheSerializer.BINARY})
+  void serialize_ShouldRoundTripRefreshableValue(String format) {
+    // Given
+    var serializer = new RefreshableValueSerializer(SubscriptionCacheSerializer.forSubscription(format, 1024));
+    var refreshable = new RefreshableValue(SUBSCRIPTION, 12, 1_750_000_000_000L);
+
+    // When
+    byte[] data = serializer.serialize(refreshable);
+
+    // Then
+    assertEquals(RefreshableValueSerializer.MAGIC, data[0]);
+    assertEquals(refreshable, serializer.deserialize(data));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {SubscriptionCacheSerializer.JSON, SubscriptionCacheSerializer.BINARY})
+  void serialize_ShouldWritePlainValuesUnchanged(String format) {
+    // Given
+    var valueSerializer = SubscriptionCacheSerializer.forSubscription(format, 1024);
+    var serializer = new RefreshableValueSerializer(valueSerializer);
+
+    // When
+    byte[] data = serializer.serialize(SUBSCRIPTION);
+
+    // Then
+    assertArrayEquals(valueSerializer.serialize(SUBSCRIPTION), data);
+    assertEquals(SUBSCRIPTION, serializer.deserialize(data));
+  }
+
+  @Test
+  void deserialize_ByReaderWithoutHeaderSupport_ShouldBeMiss() {
+    // Given
+    var valueSerializer = SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.BINARY, 1024);
+    byte[] data = new RefreshableValueSerializer(valueSerializer)
+            .serialize(new RefreshableValue(SUBSCRIPTION, 12, 1_750_000_000_000L));
+
+    // When & Then
+    assertNull(valueSerializer.deserialize(data));
+  }
+
+  @Test
+  void deserialize_WithUnknownHeaderVersion_ShouldBeMiss() {
+    // Given
+    var serializer = new RefreshableValueSerializer(
+            SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.BINARY, 1024));
+    byte[] data = serializer.serialize(new RefreshableValue(SUBSCRIPTION, 12, 1_750_000_000_000L));
+    data[1] = 2;
+
+    // When & Then
+    assertNull(serializer.deserialize(data));
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+  private final ConcurrentMapCache delegate = new ConcurrentMapCache("subscription");
+
+  private SimpleMeterRegistry meterRegistry;
+  private SingleFlightCache cache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new SingleFlightCache(delegate, meterRegistry);
+  }
+
+  @Test
+  void get_WhenCached_ShouldNotLoad() {
+    // Given
+    delegate.put("key-1", "cached");
+
+    // When & Then
+    assertEquals("cached", cache.get("key-1", () -> fail("should not load")));
+  }
+
+  @Test
+  void get_WhenMissing_ShouldLoadAndStore() {
+    // When
+    String value = cache.get("key-1", () -> "loaded");
+
+    // Then
+    assertEquals("loaded", value);
+    assertEquals("loaded", delegate.get("key-1", String.class));
+  }
+
+  @Test
+  void get_WhenLoaderFails_ShouldWrapTheFailure() {
+    // Given
+    var failure = new Exception("DB Down");
+
+    // When
+    var ex = assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("key-1", () -> {
+      throw failure;
+    }));
+
+    // Then
+    assertSame(failure, ex.getCause());
+    assertNull(delegate.get("key-1"));
+  }
+
+  @Test
+  void get_WhenAnotherKeyIsLoading_ShouldNotWaitForIt() throws Exception {
+    // Given
+    CountDownLatch slowLoadStarted = new CountDownLatch(1);
+    CountDownLatch releaseSlowLoad = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      Future<String> slow = executor.submit(() -> cache.get("key-1", () -> {
+        slowLoadStarted.countDown();
+        releaseSlowLoad.await(5, TimeUnit.SECONDS);
+        return "slow";
+      }));
+      assertTrue(slowLoadStarted.await(5, TimeUnit.SECONDS));
+
+      // When
+      String other = cache.get("key-2", () -> "fast");
+
+      // Then
+      assertEquals("fast", other);
+      releaseSlowLoad.countDown();
+      assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void get_WhenSameKeyIsLoading_ShouldShareTheLoad() throws Exception {
+    // Given
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch releaseLoad = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<String> first = executor.submit(() -> cache.get("key-1", () -> {
+        loads.incrementAndGet();
+        loadStarted.countDown();
+        releaseLoad.await(5, TimeUnit.SECONDS);
+        return "loaded";
+      }));
+      assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+      // When
+      Future<String> second = executor.submit(() -> cache.get("key-1", () -> {
+        loads.incrementAndGet();
+        return "second";
+      }));
+      Thread.sleep(100);
+      releaseLoad.countDown();
+
+      // Then
+      assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+      assertEquals("loaded", second.get(5, TimeUnit.SECONDS));
+      assertEquals(1, loads.get());
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private SingleFlight singleFlight;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    singleFlight = new SingleFlight("subscription", meterRegistry);
+  }
+
+  @Test
+  void load_ShouldReturnLoadedValueAndForgetTheFlight() {
+    assertEquals("value", singleFlight.load("key-1", () -> "value"));
+    assertEquals(0, singleFlight.inFlight());
+  }
+
+  @Test
+  void load_WhenLoaderFails_ShouldRethrowAndForgetTheFlight() {
+    var failure = new IllegalStateException("DB Down");
+
+    var ex = assertThrows(IllegalStateException.class, () -> singleFlight.load("key-1", () -> {
+      throw failure;
+    }));
+
+    assertSame(failure, ex);
+    assertEquals(0, singleFlight.inFlight());
+  }
+
+  @Test
+  void load_WhenSequential_ShouldRunEveryLoader() {
+    // When
+    singleFlight.load("key-1", () -> "first");
+    Object second = singleFlight.load("key-1", () -> "second");
+
+    // Then
+    assertEquals("second", second);
+    assertEquals(0.0, meterRegistry.get("cache.coalesced").tag("scope", "local").counter().count());
+  }
+}
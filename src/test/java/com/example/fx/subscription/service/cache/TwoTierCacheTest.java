@@ -0,0 +1,437 @@
+package com.example.fx.subscription.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheTest {
+
+  private static final String CACHE_NAME = "subscription";
+  private static final String KEY = "key-1";
+
+  @Mock
+  private CacheInvalidationBus cacheInvalidationBus;
+
+  @Mock
+  private RedisLoadLock loadLock;
+
+  private SimpleMeterRegistry meterRegistry;
+  private Cache l2;
+  private com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+  private TwoTierCache twoTierCache;
+
+  @BeforeEach
+  void setUp() {
+    l2 = spy(new ConcurrentMapCache(CACHE_NAME, false));
+    l1 = Caffeine.newBuilder().maximumSize(100).expireAfterWrite(Duration.ofMinutes(1)).build();
+    meterRegistry = new SimpleMeterRegistry();
+    twoTierCache = new TwoTierCache(l2, l1, cacheInvalidationBus, null, null, meterRegistry);
+  }
+
+  @Test
+  void get_WhenOnlyInL2_ShouldFillL1AndServeNextReadLocally() {
+    // Given
+    l2.put(KEY, "value");
+    clearInvocations(l2);
+
+    // When
+    var first = twoTierCache.get(KEY);
+    var second = twoTierCache.get(KEY);
+
+    // Then
+    assertEquals("value", first.get());
+    assertEquals("value", second.get());
+    verify(l2, times(1)).get(KEY);
+    assertEquals("value", l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void get_WhenMissingInBothTiers_ShouldReturnNull() {
+    assertNull(twoTierCache.get(KEY));
+    assertNull(l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void getWithLoader_WhenMissing_ShouldLoadOnceAndFillBothTiers() {
+    // When
+    String value = twoTierCache.get(KEY, () -> "loaded");
+    String cached = twoTierCache.get(KEY, () -> fail("Loader must not run on a hit"));
+
+    // Then
+    assertEquals("loaded", value);
+    assertEquals("loaded", cached);
+    assertEquals("loaded", l2.get(KEY).get());
+    assertEquals("loaded", l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void getWithLoader_WhenLoaderFails_ShouldWrapException() {
+    var failure = new IllegalStateException("DB Down");
+
+    var ex = assertThrows(Cache.ValueRetrievalException.class, () -> twoTierCache.get(KEY, () -> {
+      throw failure;
+    }));
+    assertSame(failure, ex.getCause());
+  }
+
+  @Test
+  void put_ShouldWriteBothTiersAndBroadcastEviction() {
+    // When
+    twoTierCache.put(KEY, "value");
+
+    // Then
+    assertEquals("value", l2.get(KEY).get());
+    assertEquals("value", l1.getIfPresent(KEY));
+    verify(cacheInvalidationBus).publishEvict(CACHE_NAME, KEY);
+  }
+
+  @Test
+  void evict_ShouldRemoveFromBothTiersAndBroadcast() {
+    // Given
+    twoTierCache.put(KEY, "value");
+
+    // When
+    twoTierCache.evict(KEY);
+
+    // Then
+    assertNull(l2.get(KEY));
+    assertNull(l1.getIfPresent(KEY));
+    verify(cacheInvalidationBus, times(2)).publishEvict(CACHE_NAME, KEY);
+  }
+
+  @Test
+  void clear_ShouldEmptyBothTiersAndBroadcast() {
+    // Given
+    twoTierCache.put(KEY, "value");
+
+    // When
+    twoTierCache.clear();
+
+    // Then
+    assertNull(l2.get(KEY));
+    assertEquals(0, l1.estimatedSize());
+    verify(cacheInvalidationBus).publishClear(CACHE_NAME);
+  }
+
+  @Test
+  void evictLocal_ShouldOnlyDropL1Copy() {
+    // Given
+    twoTierCache.put(KEY, "value");
+
+    // When
+    twoTierCache.evictLocal(KEY);
+
+    // Then
+    assertNull(l1.getIfPresent(KEY));
+    assertEquals("value", l2.get(KEY).get());
+  }
+
+  @Test
+  void getWithType_WhenValueHasOtherType_ShouldFail() {
+    // Given
+    twoTierCache.put(KEY, "value");
+
+    // When & Then
+    assertThrows(IllegalStateException.class, () -> twoTierCache.get(KEY, Integer.class));
+  }
+
+  @Test
+  void get_WhenInvalidatedWhileReadingL2_ShouldNotKeepL1Copy() {
+    // Given
+    l2.put(KEY, "stale");
+    doAnswer(invocation -> {
+      twoTierCache.evictLocal(KEY);
+      return invocation.callRealMethod();
+    }).when(l2).get(KEY);
+
+    // When
+    var wrapper = twoTierCache.get(KEY);
+
+    // Then
+    assertEquals("stale", wrapper.get());
+    assertNull(l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void get_WhenOtherKeyInvalidatedWhileReadingL2_ShouldKeepL1Copy() {
+    // Given
+    l2.put(KEY, "value");
+    doAnswer(invocation -> {
+      twoTierCache.evictLocal("key-2");
+      return invocation.callRealMethod();
+    }).when(l2).get(KEY);
+
+    // When
+    twoTierCache.get(KEY);
+
+    // Then
+    assertEquals("value", l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void get_WhenClearedWhileReadingL2_ShouldNotKeepL1Copy() {
+    // Given
+    l2.put(KEY, "value");
+    doAnswer(invocation -> {
+      twoTierCache.clearLocal();
+      return invocation.callRealMethod();
+    }).when(l2).get(KEY);
+
+    // When
+    twoTierCache.get(KEY);
+
+    // Then
+    assertNull(l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void evictLocal_WithoutBus_ShouldSkipPushOfOwnWriteOnly() {
+    // Given
+    var trackedCache = new TwoTierCache(l2, l1, null, null, null, meterRegistry);
+    trackedCache.get(KEY, () -> "loaded");
+
+    // When & Then: Redis pushes this instance's own write back first
+    trackedCache.evictLocal(KEY);
+    assertEquals("loaded", l1.getIfPresent(KEY));
+
+    // When & Then: a later push is another instance's write
+    trackedCache.evictLocal(KEY);
+    assertNull(l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void evictLocal_WithBus_ShouldAlwaysDropL1Copy() {
+    // Given
+    twoTierCache.get(KEY, () -> "loaded");
+
+    // When
+    twoTierCache.evictLocal(KEY);
+
+    // Then
+    assertNull(l1.getIfPresent(KEY));
+  }
+
+  @Test
+  void put_WithoutBus_ShouldOnlyWriteTiers() {
+    // Given
+    var trackedCache = new TwoTierCache(l2, l1, null, null, null, meterRegistry);
+
+    // When
+    trackedCache.put(KEY, "value");
+    trackedCache.evict(KEY);
+    trackedCache.clear();
+
+    // Then
+    assertNull(l2.get(KEY));
+    verifyNoInteractions(cacheInvalidationBus);
+  }
+
+  @Test
+  void get_ShouldCountReadsByAnsweringTier() {
+    // Given
+    l2.put(KEY, "value");
+
+    // When
+    twoTierCache.get(KEY);
+    twoTierCache.get(KEY);
+    twoTierCache.get("missing");
+
+    // Then
+    assertEquals(1.0, gets("l1_hit"));
+    assertEquals(1.0, gets("l2_hit"));
+    assertEquals(1.0, gets("miss"));
+    assertEquals(1.0, meterRegistry.get("cache.near.size").tag("cache", CACHE_NAME).gauge().value());
+  }
+
+  @Test
+  void getWithLoader_WhenConcurrentMisses_ShouldRunLoaderOnce() throws Exception {
+    // Given
+    int callers = 8;
+    var release = new CountDownLatch(1);
+    var loads = new AtomicInteger();
+    List<Future<String>> results = new ArrayList<>();
+
+    // When
+    try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> twoTierCache.<String>get(KEY, () -> {
+          loads.incrementAndGet();
+          release.await();
+          return "loaded";
+        })));
+      }
+      Awaitility.await()
+              .atMost(Duration.ofSeconds(5))
+              .until(() -> coalesced("local") == callers - 1);
+      release.countDown();
+
+      // Then
+      for (Future<String> result : results) {
+        assertEquals("loaded", result.get());
+      }
+    }
+    assertEquals(1, loads.get());
+    assertEquals("loaded", l2.get(KEY).get());
+  }
+
+  @Test
+  void getWithLoader_WhenLoaderFails_ShouldFailWaitingCallersToo() throws Exception {
+    // Given
+    var release = new CountDownLatch(1);
+    var failure = new IllegalStateException("DB Down");
+
+    // When
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<String> leader = executor.submit(() -> twoTierCache.<String>get(KEY, () -> {
+        release.await();
+        throw failure;
+      }));
+      Future<String> follower = executor.submit(() -> twoTierCache.<String>get(KEY, () -> fail("Loader must not run twice")));
+      Awaitility.await()
+              .atMost(Duration.ofSeconds(5))
+              .until(() -> coalesced("local") == 1);
+      release.countDown();
+
+      // Then
+      for (Future<String> result : List.of(leader, follower)) {
+        var ex = assertThrows(ExecutionException.class, result::get);
+        assertSame(failure, ex.getCause().getCause());
+      }
+    }
+    assertNull(l2.get(KEY));
+  }
+
+  @Test
+  void getWithLoader_WhenAnotherInstanceHoldsLoadLock_ShouldUseItsValue() {
+    // Given
+    var lockedCache = new TwoTierCache(l2, l1, cacheInvalidationBus, loadLock, null, meterRegistry);
+    when(loadLock.tryAcquire(CACHE_NAME, KEY)).thenAnswer(_ -> {
+      l2.put(KEY, "loaded-elsewhere");
+      return null;
+    });
+    when(loadLock.getWait()).thenReturn(Duration.ofSeconds(1));
+    when(loadLock.getPollInterval()).thenReturn(Duration.ofMillis(10));
+
+    // When
+    String value = lockedCache.get(KEY, () -> fail("Loader must not run while another instance loads"));
+
+    // Then
+    assertEquals("loaded-elsewhere", value);
+    assertEquals("loaded-elsewhere", l1.getIfPresent(KEY));
+    assertEquals(1.0, coalesced("cluster"));
+    verify(loadLock).release(CACHE_NAME, KEY, null);
+  }
+
+  @Test
+  void getWithLoader_WhenAnotherInstanceDoesNotLoadInTime_ShouldLoadItself() {
+    // Given
+    var lockedCache = new TwoTierCache(l2, l1, cacheInvalidationBus, loadLock, null, meterRegistry);
+    when(loadLock.tryAcquire(CACHE_NAME, KEY)).thenReturn(null);
+    when(loadLock.getWait()).thenReturn(Duration.ofMillis(50));
+    when(loadLock.getPollInterval()).thenReturn(Duration.ofMillis(10));
+
+    // When
+    String value = lockedCache.get(KEY, () -> "loaded");
+
+    // Then
+    assertEquals("loaded", value);
+    assertEquals("loaded", l2.get(KEY).get());
+  }
+
+  @Test
+  void getWithLoader_WhenLoadLockAcquired_ShouldLoadAndRelease() {
+    // Given
+    var lockedCache = new TwoTierCache(l2, l1, cacheInvalidationBus, loadLock, null, meterRegistry);
+    when(loadLock.tryAcquire(CACHE_NAME, KEY)).thenReturn("token");
+
+    // When
+    String value = lockedCache.get(KEY, () -> "loaded");
+
+    // Then
+    assertEquals("loaded", value);
+    verify(loadLock).release(CACHE_NAME, KEY, "token");
+    verify(loadLock, never()).getWait();
+  }
+
+  @Test
+  void getWithLoader_WithEarlyRefresh_ShouldStoreExpiryAndReturnPlainValue() {
+    // Given
+    var earlyRefresh = new EarlyRefresh((_, _) -> Duration.ofMinutes(5), 1.0, Duration.ofSeconds(1), () -> 0.0);
+    var refreshingCache = new TwoTierCache(l2, l1, cacheInvalidationBus, null, earlyRefresh, meterRegistry);
+
+    // When
+    String value = refreshingCache.get(KEY, () -> "loaded");
+
+    // Then
+    assertEquals("loaded", value);
+    assertEquals("loaded", refreshingCache.get(KEY).get());
+    assertEquals("loaded", assertInstanceOf(RefreshableValue.class, l2.get(KEY).get()).value());
+    assertInstanceOf(RefreshableValue.class, l1.getIfPresent(KEY));
+    assertEquals(1, loads("miss"));
+  }
+
+  @Test
+  void getWithLoader_WhenEntryWinsEarlyRefresh_ShouldReturnCurrentValueAndReloadInBackground() {
+    // Given: -1s * ln(0.01) is about 4.6s, well beyond the remaining second
+    var earlyRefresh = new EarlyRefresh((_, _) -> Duration.ofSeconds(1), 1.0, Duration.ofSeconds(1), () -> 0.99);
+    var refreshingCache = new TwoTierCache(l2, l1, cacheInvalidationBus, null, earlyRefresh, meterRegistry);
+    refreshingCache.get(KEY, () -> "v1");
+
+    // When
+    String value = refreshingCache.get(KEY, () -> "v2");
+
+    // Then
+    assertEquals("v1", value);
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> loads("early_refresh") == 1);
+    assertEquals("v2", ((RefreshableValue) l2.get(KEY).get()).value());
+    assertEquals("v2", refreshingCache.get(KEY).get());
+  }
+
+  @Test
+  void getWithLoader_WhenEntryFarFromExpiry_ShouldNotRefresh() {
+    // Given
+    var earlyRefresh = new EarlyRefresh((_, _) -> Duration.ofMinutes(5), 1.0, Duration.ofSeconds(1), () -> 0.99);
+    var refreshingCache = new TwoTierCache(l2, l1, cacheInvalidationBus, null, earlyRefresh, meterRegistry);
+    refreshingCache.get(KEY, () -> "v1");
+
+    // When
+    String value = refreshingCache.get(KEY, () -> fail("Loader must not run far from expiry"));
+
+    // Then
+    assertEquals("v1", value);
+    assertEquals(0, loads("early_refresh"));
+  }
+
+  private double loads(String cause) {
+    return meterRegistry.get("cache.loads").tag("cache", CACHE_NAME).tag("cause", cause).counter().count();
+  }
+
+  private double coalesced(String scope) {
+    return meterRegistry.get("cache.coalesced").tag("cache", CACHE_NAME).tag("scope", scope).counter().count();
+  }
+
+  private double gets(String result) {
+    return meterRegistry.get("cache.near.gets").tag("cache", CACHE_NAME).tag("result", result).counter().count();
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.fx.subscription.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnreadableEntryCacheErrorHandlerTest {
+
+  private final ConcurrentMapCache cache = new ConcurrentMapCache("subscription");
+
+  private SimpleMeterRegistry meterRegistry;
+  private UnreadableEntryCacheErrorHandler errorHandler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    errorHandler = new UnreadableEntryCacheErrorHandler(meterRegistry);
+  }
+
+  @Test
+  void handleCacheGetError_WhenEntryCannotBeDecoded_ShouldReadAsMiss() {
+    // When & Then
+    assertDoesNotThrow(() -> errorHandler.handleCacheGetError(
+            new SerializationException("Unknown format"), cache, "key"));
+    assertEquals(1.0, meterRegistry.get("cache.unreadable").tag("cache", "subscription").counter().count());
+  }
+
+  @Test
+  void handleCacheGetError_WhenRedisFails_ShouldRethrow() {
+    // Given
+    var exception = new RedisConnectionFailureException("Redis down");
+
+    // When & Then
+    assertSame(exception, assertThrows(RedisConnectionFailureException.class,
+            () -> errorHandler.handleCacheGetError(exception, cache, "key")));
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.fx.subscription.service.config;
 
+import com.example.fx.subscription.service.cache.UnreadableEntryCacheErrorHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,7 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,7 +29,7 @@ class CacheConfigTest {
 
   @BeforeEach
   void setUp() {
-    cacheConfig = new CacheConfig(3);
+    cacheConfig = new CacheConfig(3, "binary", 1024, 0.1, 1, new SimpleMeterRegistry());
   }
 
   @Test
@@ -62,6 +65,33 @@ class CacheConfigTest {
             "Cache name should be either 'subscription' or 'subscriptionsByUser'");
   }
 
+  @Test
+  void redisCacheManagerBuilderCustomizer_ShouldConfigureOwnershipCache() {
+    // Given
+    RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory);
+
+    // When
+    cacheConfig.redisCacheManagerBuilderCustomizer().customize(builder);
+
+    // Then
+    assertTrue(builder.build().getCacheConfigurations().containsKey("subscriptionOwner"));
+  }
+
+  @Test
+  void redisCacheManagerBuilderCustomizer_ShouldConfigureNegativeCache() {
+    // Given
+    RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory);
+
+    // When
+    cacheConfig.redisCacheManagerBuilderCustomizer().customize(builder);
+
+    // Then
+    var configuration = builder.build().getCacheConfigurations().get("subscriptionMisses");
+    assertNotNull(configuration);
+    Duration ttl = configuration.getTtlFunction().getTimeToLive("key", true);
+    assertTrue(ttl.compareTo(Duration.ofSeconds(1)) <= 0, "ttl " + ttl);
+  }
+
   @Test
   void redisCacheManagerBuilderCustomizer_ShouldBeReusable() {
     // Given
@@ -104,4 +134,21 @@ class CacheConfigTest {
     // Each call should create a new instance
     assertNotSame(customizer1, customizer2);
   }
+
+  @Test
+  void errorHandler_ShouldReadUnreadableEntriesAsMisses() {
+    // When & Then
+    assertInstanceOf(UnreadableEntryCacheErrorHandler.class, cacheConfig.errorHandler());
+  }
+
+  @Test
+  void redisCacheManagerBuilderCustomizer_WithUnknownValueFormat_ShouldFail() {
+    // Given
+    RedisCacheManagerBuilderCustomizer customizer = new CacheConfig(3, "protobuf", 1024, 0.1, 1, new SimpleMeterRegistry())
+            .redisCacheManagerBuilderCustomizer();
+    RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory);
+
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> customizer.customize(builder));
+  }
 }
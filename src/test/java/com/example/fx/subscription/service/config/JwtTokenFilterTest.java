@@ -1,6 +1,8 @@
 package com.example.fx.subscription.service.config;
 
+import com.example.fx.subscription.service.service.FxPrincipalCache;
 import com.example.fx.subscription.service.service.FxUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -60,7 +62,7 @@ class JwtTokenFilterTest {
 
   @BeforeEach
   void setUp() {
-    jwtTokenProvider = new JwtTokenProvider(fxUserDetailsService, SECRET_KEY, VALIDITY_IN_MILLISECONDS);
+    jwtTokenProvider = new JwtTokenProvider(principalCache(), SECRET_KEY, VALIDITY_IN_MILLISECONDS);
     jwtTokenProvider.init();
 
     jwtTokenFilter = new JwtTokenFilter(jwtTokenProvider);
@@ -158,7 +160,7 @@ class JwtTokenFilterTest {
   void doFilterInternal_WithExpiredToken_ShouldReturnFalse()
           throws ServletException, IOException {
     // Given - Create a token with very short validity
-    JwtTokenProvider shortLivedProvider = new JwtTokenProvider(fxUserDetailsService, SECRET_KEY, 1L);
+    JwtTokenProvider shortLivedProvider = new JwtTokenProvider(principalCache(), SECRET_KEY, 1L);
     shortLivedProvider.init();
 
     Set<String> roles = Set.of(USER);
@@ -180,6 +182,28 @@ class JwtTokenFilterTest {
     verify(filterChain, times(1)).doFilter(request, response);
   }
 
+  @Test
+  void doFilterInternal_WithValidTokenOfDisabledUser_ShouldNotSetAuthentication() throws ServletException, IOException {
+    // Given
+    String validToken = jwtTokenProvider.createToken(TEST_USER, Set.of(USER));
+    UserDetails userDetails = User.builder()
+            .username(TEST_USER)
+            .password(PASSWORD)
+            .authorities(new SimpleGrantedAuthority(ROLE + USER))
+            .disabled(true)
+            .build();
+
+    when(request.getHeader(AUTHORIZATION)).thenReturn(BEARER + validToken);
+    when(fxUserDetailsService.loadUserByUsername(TEST_USER)).thenReturn(userDetails);
+
+    // When
+    jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // Then
+    verify(securityContext, never()).setAuthentication(any());
+    verify(filterChain).doFilter(request, response);
+  }
+
   @Test
   void doFilterInternal_WithValidTokenButUserNotFound_ShouldThrowRuntimeException()
           throws ServletException, IOException {
@@ -285,4 +309,8 @@ class JwtTokenFilterTest {
     verify(securityContext).setAuthentication(any(Authentication.class));
     verify(filterChain).doFilter(request, response);
   }
-} 
\ No newline at end of file
+
+  private FxPrincipalCache principalCache() {
+    return new FxPrincipalCache(fxUserDetailsService, 100, Duration.ofMinutes(1), null, new SimpleMeterRegistry());
+  }
+}
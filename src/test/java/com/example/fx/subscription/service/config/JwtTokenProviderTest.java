@@ -1,6 +1,8 @@
 package com.example.fx.subscription.service.config;
 
+import com.example.fx.subscription.service.service.FxPrincipalCache;
 import com.example.fx.subscription.service.service.FxUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.awaitility.Awaitility;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,7 +23,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtTokenProviderTest {
@@ -42,7 +45,7 @@ class JwtTokenProviderTest {
 
   @BeforeEach
   void setUp() {
-    jwtTokenProvider = new JwtTokenProvider(fxUserDetailsService, SECRET_KEY, VALIDITY_IN_MILLISECONDS);
+    jwtTokenProvider = new JwtTokenProvider(principalCache(), SECRET_KEY, VALIDITY_IN_MILLISECONDS);
     jwtTokenProvider.init();
   }
 
@@ -120,6 +123,42 @@ class JwtTokenProviderTest {
     assertTrue(authentication.isAuthenticated());
   }
 
+  @Test
+  void getAuthentication_ForSameSubject_ShouldLoadUserOnce() {
+    // Given
+    String token = jwtTokenProvider.createToken(TEST_USER, Set.of(USER));
+    UserDetails userDetails = User.builder()
+            .username(TEST_USER)
+            .password("password")
+            .authorities(new SimpleGrantedAuthority("ROLE_" + USER))
+            .build();
+    when(fxUserDetailsService.loadUserByUsername(TEST_USER)).thenReturn(userDetails);
+
+    // When
+    jwtTokenProvider.getAuthentication(token);
+    Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+    // Then
+    assertEquals(userDetails, authentication.getPrincipal());
+    verify(fxUserDetailsService, times(1)).loadUserByUsername(TEST_USER);
+  }
+
+  @Test
+  void getAuthentication_WhenUserIsDisabled_ShouldThrowDisabledException() {
+    // Given
+    String token = jwtTokenProvider.createToken(TEST_USER, Set.of(USER));
+    UserDetails userDetails = User.builder()
+            .username(TEST_USER)
+            .password("password")
+            .authorities(new SimpleGrantedAuthority("ROLE_" + USER))
+            .disabled(true)
+            .build();
+    when(fxUserDetailsService.loadUserByUsername(TEST_USER)).thenReturn(userDetails);
+
+    // When & Then
+    assertThrows(DisabledException.class, () -> jwtTokenProvider.getAuthentication(token));
+  }
+
   @Test
   void resolveToken_WithValidBearerToken_ShouldReturnToken() {
     // Given
@@ -195,7 +234,7 @@ class JwtTokenProviderTest {
   @Test
   void validateToken_WithExpiredToken_ShouldReturnFalse() {
     // Given - Create a token with very short validity
-    JwtTokenProvider shortLivedProvider = new JwtTokenProvider(fxUserDetailsService, SECRET_KEY, 1L);
+    JwtTokenProvider shortLivedProvider = new JwtTokenProvider(principalCache(), SECRET_KEY, 1L);
     shortLivedProvider.init();
 
     Set<String> roles = Set.of(USER);
@@ -268,4 +307,8 @@ class JwtTokenProviderTest {
     String tamperedToken = token1.substring(0, token1.length() - 10) + "tampered";
     assertFalse(jwtTokenProvider.validateToken(tamperedToken));
   }
-}
\ No newline at end of file
+
+  private FxPrincipalCache principalCache() {
+    return new FxPrincipalCache(fxUserDetailsService, 100, Duration.ofMinutes(1), null, new SimpleMeterRegistry());
+  }
+}
@@ -1,6 +1,7 @@
 package com.example.fx.subscription.service.config;
 
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.serialization.SubscriptionChangeEventBinarySerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,12 +23,13 @@ class KafkaProducerConfigTest {
 
   private static final String CONFIGS = "configs";
   private static final String BOOTSTRAP_ADDRESS = "localhost:9092";
+  private static final String TX_PREFIX = "fx-outbox-tx-";
 
   private KafkaProducerConfig kafkaProducerConfig;
 
   @BeforeEach
   void setUp() {
-    kafkaProducerConfig = new KafkaProducerConfig(BOOTSTRAP_ADDRESS);
+    kafkaProducerConfig = new KafkaProducerConfig(BOOTSTRAP_ADDRESS, "json", false, TX_PREFIX);
   }
 
   @Test
@@ -46,6 +48,7 @@ class KafkaProducerConfigTest {
     assertEquals(StringSerializer.class, configProps.get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
     assertEquals(JacksonJsonSerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
     assertEquals(false, configProps.get(JacksonJsonSerializer.ADD_TYPE_INFO_HEADERS));
+    assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
   }
 
   @Test
@@ -66,7 +69,7 @@ class KafkaProducerConfigTest {
   void producerFactory_WithDifferentBootstrapAddress_ShouldUseCorrectAddress() {
     // Given
     String customBootstrapAddress = "kafka-server:9093";
-    kafkaProducerConfig = new KafkaProducerConfig(customBootstrapAddress);
+    kafkaProducerConfig = new KafkaProducerConfig(customBootstrapAddress, "json", false, TX_PREFIX);
 
     // When
     ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.producerFactory();
@@ -99,4 +102,92 @@ class KafkaProducerConfigTest {
     assertNotNull(configProps);
     assertEquals(false, configProps.get(JacksonJsonSerializer.ADD_TYPE_INFO_HEADERS));
   }
-} 
\ No newline at end of file
+
+  @Test
+  void producerFactory_WithBinaryFormat_ShouldUseBinarySerializer() {
+    // Given
+    kafkaProducerConfig = new KafkaProducerConfig(BOOTSTRAP_ADDRESS, "binary", false, TX_PREFIX);
+
+    // When
+    ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.producerFactory();
+
+    // Then
+    Map<String, Object> configProps = (Map<String, Object>) ReflectionTestUtils.getField(producerFactory, CONFIGS);
+    assertNotNull(configProps);
+    assertEquals(SubscriptionChangeEventBinarySerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    assertFalse(configProps.containsKey(JacksonJsonSerializer.ADD_TYPE_INFO_HEADERS));
+  }
+
+  @Test
+  void constructor_WithUnknownFormat_ShouldFail() {
+    assertThrows(IllegalArgumentException.class, () -> new KafkaProducerConfig(BOOTSTRAP_ADDRESS, "avro", false, TX_PREFIX));
+  }
+
+  @Test
+  void producerFactory_WhenNotTransactional_ShouldNotBeTransactionCapable() {
+    // When
+    ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.producerFactory();
+
+    // Then
+    assertFalse(producerFactory.transactionCapable());
+    assertNull(producerFactory.getTransactionIdPrefix());
+  }
+
+  @Test
+  void producerFactory_WhenTransactional_ShouldUseTransactionIdPrefix() {
+    // Given
+    kafkaProducerConfig = new KafkaProducerConfig(BOOTSTRAP_ADDRESS, "json", true, TX_PREFIX);
+
+    // When
+    ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.producerFactory();
+    KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate = kafkaProducerConfig.kafkaTemplate();
+
+    // Then
+    assertTrue(producerFactory.transactionCapable());
+    assertEquals(TX_PREFIX, producerFactory.getTransactionIdPrefix());
+    assertTrue(kafkaTemplate.isTransactional());
+    assertTrue(kafkaTemplate.isAllowNonTransactional());
+  }
+
+  @Test
+  void producerFactory_ShouldUseLowLatencyProfile() {
+    // When
+    ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.producerFactory();
+
+    // Then
+    Map<String, Object> configProps = (Map<String, Object>) ReflectionTestUtils.getField(producerFactory, CONFIGS);
+    assertNotNull(configProps);
+    assertEquals(0, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+    assertEquals("none", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    assertEquals("all", configProps.get(ProducerConfig.ACKS_CONFIG));
+  }
+
+  @Test
+  void bulkProducerFactory_ShouldBatchAndCompressWithIdempotence() {
+    // When
+    ProducerFactory<String, SubscriptionChangeEvent> producerFactory = kafkaProducerConfig.bulkProducerFactory();
+
+    // Then
+    Map<String, Object> configProps = (Map<String, Object>) ReflectionTestUtils.getField(producerFactory, CONFIGS);
+    assertNotNull(configProps);
+    assertEquals(20, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+    assertEquals(262_144, configProps.get(ProducerConfig.BATCH_SIZE_CONFIG));
+    assertEquals("lz4", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+    assertEquals(JacksonJsonSerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+  }
+
+  @Test
+  void bulkKafkaTemplate_WhenTransactional_ShouldUseSeparateTransactionIdPrefix() {
+    // Given
+    kafkaProducerConfig = new KafkaProducerConfig(BOOTSTRAP_ADDRESS, "json", true, TX_PREFIX);
+
+    // When
+    KafkaTemplate<String, SubscriptionChangeEvent> bulkKafkaTemplate = kafkaProducerConfig.bulkKafkaTemplate();
+
+    // Then
+    assertTrue(bulkKafkaTemplate.isTransactional());
+    assertTrue(bulkKafkaTemplate.isAllowNonTransactional());
+    assertEquals(TX_PREFIX + "bulk-", bulkKafkaTemplate.getProducerFactory().getTransactionIdPrefix());
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.fx.subscription.service.controller;
+
+import com.example.fx.subscription.service.ai.tool.FxSubscriptionTool;
+import com.example.fx.subscription.service.dto.outbox.OutboxEventListResponse;
+import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.service.EventsOutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(OutboxController.class)
+class OutboxControllerTest {
+
+  @MockitoBean
+  private FxSubscriptionTool fxSubscriptionTool;
+
+  @MockitoBean
+  private EventsOutboxService eventsOutboxService;
+
+  private OutboxController outboxController;
+
+  @BeforeEach
+  void setUp() {
+    outboxController = new OutboxController(eventsOutboxService);
+  }
+
+  @Test
+  void getDeadLetters_ShouldReturnDeadOutboxEvents() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 20);
+    EventsOutbox dead = new EventsOutbox(UUID.randomUUID(), "DEAD");
+    dead.setAggregateType("Subscription");
+    dead.setAggregateId(UUID.randomUUID());
+    dead.setEventType("SubscriptionCreated");
+    dead.setAttempts(10);
+    Page<EventsOutbox> deadLettersPage = new PageImpl<>(List.of(dead), pageable, 1);
+
+    when(eventsOutboxService.findOutboxesByStatus("DEAD", pageable)).thenReturn(deadLettersPage);
+
+    // When
+    ResponseEntity<OutboxEventListResponse> response = outboxController.getDeadLetters(pageable);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals(1, response.getBody().totalElements());
+    assertEquals(dead.getId().toString(), response.getBody().events().getFirst().id());
+    assertEquals("DEAD", response.getBody().events().getFirst().status());
+    assertEquals(10, response.getBody().events().getFirst().attempts());
+  }
+
+  @Test
+  void getDeadLetters_WhenNoneExist_ShouldReturnEmptyPage() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 20);
+    when(eventsOutboxService.findOutboxesByStatus("DEAD", pageable)).thenReturn(Page.empty(pageable));
+
+    // When
+    ResponseEntity<OutboxEventListResponse> response = outboxController.getDeadLetters(pageable);
+
+    // Then
+    assertNotNull(response.getBody());
+    assertTrue(response.getBody().events().isEmpty());
+    assertEquals(0, response.getBody().totalElements());
+  }
+}
@@ -14,6 +14,8 @@ public class PostgresTestContainerConfig {
   @Bean
   @ServiceConnection
   PostgreSQLContainer postgresContainer() {
-    return new PostgreSQLContainer(DockerImageName.parse("postgres:18.3"));
+    // Logical WAL lets the CDC outbox relay stream inserts from a replication slot
+    return new PostgreSQLContainer(DockerImageName.parse("postgres:18.3"))
+            .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=logical");
   }
 }
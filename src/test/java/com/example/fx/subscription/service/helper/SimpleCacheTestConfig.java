@@ -3,11 +3,14 @@ package com.example.fx.subscription.service.helper;
 import com.example.fx.subscription.service.repository.EventsOutboxRepository;
 import com.example.fx.subscription.service.repository.FxUserRepository;
 import com.example.fx.subscription.service.repository.SubscriptionRepository;
+import com.example.fx.subscription.service.service.SubscriptionNegativeCache;
+import com.example.fx.subscription.service.service.SubscriptionOwnershipIndex;
 import com.example.fx.subscription.service.service.SubscriptionsService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 
 @TestConfiguration
@@ -16,15 +19,31 @@ public class SimpleCacheTestConfig {
 
   @Bean
   CacheManager cacheManager() {
-    return new ConcurrentMapCacheManager("subscription", "subscriptionsByUser");
+    return new ConcurrentMapCacheManager("subscription", "subscriptionsByUser", "subscriptionOwner",
+            "subscriptionMisses");
+  }
+
+  @Bean
+  SubscriptionOwnershipIndex subscriptionOwnershipIndex(SubscriptionRepository subscriptionRepository,
+                                                        SubscriptionNegativeCache subscriptionNegativeCache) {
+    return new SubscriptionOwnershipIndex(subscriptionRepository, subscriptionNegativeCache);
+  }
+
+  @Bean
+  SubscriptionNegativeCache subscriptionNegativeCache() {
+    return new SubscriptionNegativeCache();
   }
 
   @Bean
   SubscriptionsService subscriptionService(
           SubscriptionRepository subscriptionRepository,
           FxUserRepository fxUserRepository,
-          EventsOutboxRepository eventsOutboxRepository) {
-    return new SubscriptionsService(subscriptionRepository, fxUserRepository, eventsOutboxRepository);
+          EventsOutboxRepository eventsOutboxRepository,
+          ApplicationEventPublisher applicationEventPublisher,
+          SubscriptionOwnershipIndex subscriptionOwnershipIndex,
+          SubscriptionNegativeCache subscriptionNegativeCache) {
+    return new SubscriptionsService(subscriptionRepository, fxUserRepository, eventsOutboxRepository,
+            applicationEventPublisher, subscriptionOwnershipIndex, subscriptionNegativeCache);
   }
 
 }
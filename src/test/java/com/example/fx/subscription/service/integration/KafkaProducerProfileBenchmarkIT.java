@@ -0,0 +1,114 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.config.KafkaProducerConfig;
+import com.example.fx.subscription.service.config.KafkaProducerProfile;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes the same outbox-sized backlog with each producer profile against a real broker and logs records/sec and
+ * bytes/sec (bytes as sent on the wire, after compression). Numbers depend on the machine, only delivery is asserted.
+ */
+@Testcontainers
+class KafkaProducerProfileBenchmarkIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProducerProfileBenchmarkIT.class);
+
+  private static final String TOPIC = "subscription-change-events-benchmark";
+  private static final int WARMUP_RECORDS = 1_000;
+  private static final int RECORDS = 20_000;
+
+  @Container
+  static final KafkaContainer kafka = new KafkaContainer("apache/kafka:4.2.0");
+
+  @Test
+  void profiles_ShouldPublishBacklogAndReportThroughput() {
+    var config = new KafkaProducerConfig(kafka.getBootstrapServers(), "json", false, "fx-outbox-benchmark-tx-");
+    var events = IntStream.range(0, RECORDS).mapToObj(_ -> createEvent()).toList();
+
+    var lowLatency = run(KafkaProducerProfile.LOW_LATENCY, config.producerFactory(), events);
+    var bulk = run(KafkaProducerProfile.BULK, config.bulkProducerFactory(), events);
+
+    assertThat(lowLatency).isPositive();
+    assertThat(bulk).isPositive();
+  }
+
+  private double run(KafkaProducerProfile profile,
+                     ProducerFactory<String, SubscriptionChangeEvent> producerFactory,
+                     List<SubscriptionChangeEvent> events) {
+    var kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    try {
+      sendAll(kafkaTemplate, events.subList(0, WARMUP_RECORDS));
+      double bytesBefore = outgoingBytes(kafkaTemplate.metrics());
+
+      long start = System.nanoTime();
+      sendAll(kafkaTemplate, events);
+      double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+      double bytes = outgoingBytes(kafkaTemplate.metrics()) - bytesBefore;
+      double recordsPerSecond = events.size() / seconds;
+      LOGGER.info("Producer profile [{}]: [{}] records in [{}] ms, [{}] records/sec, [{}] bytes/sec",
+              profile.profileName(), events.size(), Math.round(seconds * 1_000), Math.round(recordsPerSecond),
+              Math.round(bytes / seconds));
+      return recordsPerSecond;
+    } finally {
+      producerFactory.reset();
+    }
+  }
+
+  private static void sendAll(KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate,
+                              List<SubscriptionChangeEvent> events) {
+    var acks = events.stream()
+            .map(event -> kafkaTemplate.send(TOPIC, event.payload().id(), event))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(acks).join();
+  }
+
+  private static double outgoingBytes(Map<MetricName, ? extends Metric> metrics) {
+    return metrics.entrySet().stream()
+            .filter(entry -> entry.getKey().group().equals("producer-metrics")
+                    && entry.getKey().name().equals("outgoing-byte-total"))
+            .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+            .sum();
+  }
+
+  private static SubscriptionChangeEvent createEvent() {
+    var now = Instant.now();
+    var payload = new SubscriptionChangePayload(
+            UUID.randomUUID().toString(),
+            0,
+            UUID.randomUUID().toString(),
+            null,
+            "GBP/USD",
+            BigDecimal.valueOf(1.25),
+            ThresholdDirection.ABOVE,
+            List.of("EMAIL", "SMS"),
+            SubscriptionStatus.ACTIVE,
+            now.toString(),
+            now.toString()
+    );
+    return new SubscriptionChangeEvent(UUID.randomUUID().toString(), now.toEpochMilli(), "SubscriptionCreated", payload);
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.cache.TwoTierCacheManager;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.helper.RedisIntegrationTestBase;
+import com.example.fx.subscription.service.service.SubscriptionsService;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheIT extends RedisIntegrationTestBase {
+
+  @Autowired
+  private SubscriptionsService subscriptionsService;
+
+  @Autowired
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Value("${cache.near.invalidation-channel}")
+  private String invalidationChannel;
+
+  @Test
+  void cacheManager_ShouldBeTwoTier() {
+    assertInstanceOf(TwoTierCacheManager.class, cacheManager);
+  }
+
+  @Test
+  void hotKey_ShouldBeServedFromL1WhileRedisEntryIsGone() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+
+    // When
+    stringRedisTemplate.delete("subscription::" + subscriptionId);
+
+    // Then
+    var cached = Objects.requireNonNull(cacheManager.getCache("subscription")).get(subscriptionId, SubscriptionResponse.class);
+    assertNotNull(cached);
+    assertEquals(subscriptionId, cached.id());
+  }
+
+  @Test
+  void evictionFromAnotherInstance_ShouldDropL1Copy() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+    stringRedisTemplate.delete("subscription::" + subscriptionId);
+
+    // When
+    stringRedisTemplate.convertAndSend(invalidationChannel, "other-instance\nE\nsubscription\n" + subscriptionId);
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(2))
+            .until(() -> Objects.requireNonNull(cacheManager.getCache("subscription")).get(subscriptionId) == null);
+  }
+
+  @Test
+  void l1Copy_ShouldExpireAfterLocalTtl() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+    stringRedisTemplate.delete("subscription::" + subscriptionId);
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(3))
+            .until(() -> Objects.requireNonNull(cacheManager.getCache("subscription")).get(subscriptionId) == null);
+  }
+}
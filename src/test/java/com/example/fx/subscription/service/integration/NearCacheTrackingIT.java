@@ -0,0 +1,113 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.cache.RedisTrackingInvalidationListener;
+import com.example.fx.subscription.service.helper.RedisIntegrationTestBase;
+import com.example.fx.subscription.service.service.SubscriptionsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "cache.near.invalidation=tracking")
+class NearCacheTrackingIT extends RedisIntegrationTestBase {
+
+  @Autowired
+  private SubscriptionsService subscriptionsService;
+
+  @Autowired
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Autowired
+  private RedisTrackingInvalidationListener redisTrackingInvalidationListener;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void awaitTracking() {
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(5))
+            .until(() -> Objects.requireNonNull(stringRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.serverCommands().getClientList().stream()
+                            .anyMatch(client -> "fx-cache-tracking".equals(client.getName())
+                                    && client.getFlags().contains("t")))));
+  }
+
+  @Test
+  void listener_ShouldBeRunning() {
+    assertTrue(redisTrackingInvalidationListener.isRunning());
+  }
+
+  @Test
+  void writeByAnyRedisClient_ShouldDropL1Copy() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+    var cache = Objects.requireNonNull(cacheManager.getCache("subscription"));
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(2))
+            .until(() -> cache.get(subscriptionId) != null);
+
+    // When
+    stringRedisTemplate.delete("subscription::" + subscriptionId);
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofMillis(500))
+            .until(() -> cache.get(subscriptionId) == null);
+    assertTrue(meterRegistry.get("cache.near.invalidations")
+            .tag("cache", "subscription")
+            .tag("source", "tracking")
+            .counter().count() > 0);
+  }
+
+  @Test
+  void ownWrite_ShouldKeepL1Copy() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+    var cache = Objects.requireNonNull(cacheManager.getCache("subscription"));
+    var l1Hits = meterRegistry.get("cache.near.gets")
+            .tag("cache", "subscription")
+            .tag("result", "l1_hit")
+            .counter();
+
+    // When & Then: the push Redis sends back for this instance's own write does not drop the copy it just stored
+    Awaitility.await()
+            .during(Duration.ofMillis(300))
+            .atMost(Duration.ofSeconds(1))
+            .until(() -> {
+              double before = l1Hits.count();
+              cache.get(subscriptionId);
+              return l1Hits.count() > before;
+            });
+  }
+
+  @Test
+  void flushDb_ShouldClearL1Copies() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    subscriptionsService.findSubscriptionById(subscriptionId);
+    var cache = Objects.requireNonNull(cacheManager.getCache("subscription"));
+
+    // When
+    stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+      connection.serverCommands().flushDb();
+      return null;
+    });
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofMillis(500))
+            .until(() -> cache.get(subscriptionId) == null);
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
+import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import com.example.fx.subscription.service.service.OutboxCdcRelay;
+import com.example.fx.subscription.service.service.SubscriptionChangeScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "outbox.subscriptions.relay.mode=cdc")
+@Import(PostgresTestContainerConfig.class)
+class OutboxCdcRelayIT {
+
+  @MockitoBean
+  KafkaAdmin kafkaAdmin;
+
+  @MockitoBean
+  KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
+
+  @Autowired
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  @Autowired
+  private OutboxCdcRelay outboxCdcRelay;
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @BeforeEach
+  void setUp() {
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+  }
+
+  @Test
+  void cdcMode_ShouldReplaceTheOutboxPollingScheduler() {
+    assertEquals(0, applicationContext.getBeanNamesForType(SubscriptionChangeScheduler.class).length);
+  }
+
+  @Test
+  void insertIntoOutbox_ShouldBePublishedFromTheWalWithoutStatusUpdate() {
+    // When
+    EventsOutbox saved = eventsOutboxRepository.saveAndFlush(createOutboxRecord());
+
+    // Then
+    verify(kafkaTemplate, timeout(5000)).send(anyString(), eq(saved.getAggregateId().toString()),
+            argThat(event -> event.eventId().equals(saved.getId().toString())));
+    assertEquals("PENDING", eventsOutboxRepository.findById(saved.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  void insertWhileRelayStopped_ShouldBePublishedAfterRestartFromTheSlot() {
+    // Given
+    outboxCdcRelay.stop();
+    EventsOutbox saved = eventsOutboxRepository.saveAndFlush(createOutboxRecord());
+
+    // When
+    outboxCdcRelay.start();
+
+    // Then
+    verify(kafkaTemplate, timeout(5000)).send(anyString(), eq(saved.getAggregateId().toString()),
+            argThat(event -> event.eventId().equals(saved.getId().toString())));
+  }
+
+  private EventsOutbox createOutboxRecord() {
+    EventsOutbox outbox = new EventsOutbox();
+    outbox.setAggregateType("Subscription");
+    outbox.setAggregateId(UUID.randomUUID());
+    outbox.setEventType("SubscriptionCreated");
+    outbox.setStatus("PENDING");
+    outbox.setTimestamp(System.currentTimeMillis());
+    outbox.setPayload(new SubscriptionChangePayload(
+            outbox.getAggregateId().toString(),
+            0,
+            null,
+            null,
+            "GBP/USD",
+            BigDecimal.valueOf(1.10),
+            ThresholdDirection.BELOW,
+            List.of("SMS"),
+            SubscriptionStatus.ACTIVE,
+            Instant.now().toString(),
+            Instant.now().toString()
+    ));
+    return outbox;
+  }
+}
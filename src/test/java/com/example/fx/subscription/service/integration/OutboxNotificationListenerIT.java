@@ -0,0 +1,92 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
+import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import com.example.fx.subscription.service.service.SubscriptionChangeScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "outbox.subscriptions.notify.enabled=true",
+        "outbox.subscriptions.check.initial-delay=300s"
+})
+@Import(PostgresTestContainerConfig.class)
+class OutboxNotificationListenerIT {
+
+  @MockitoBean
+  KafkaAdmin kafkaAdmin;
+
+  @MockitoBean
+  KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
+
+  @MockitoBean
+  SubscriptionChangeScheduler subscriptionChangeScheduler;
+
+  @Autowired
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  @BeforeEach
+  void waitForListener() {
+    // The listener drains once as soon as it is connected, wait for that before counting wake-ups
+    verify(subscriptionChangeScheduler, timeout(5000).atLeastOnce()).checkForOutboxSubscriptions();
+    clearInvocations(subscriptionChangeScheduler);
+  }
+
+  @Test
+  void insertIntoOutbox_ShouldWakeUpDrainWithoutWaitingForScheduler() {
+    // When
+    eventsOutboxRepository.saveAndFlush(createOutboxRecord());
+
+    // Then
+    verify(subscriptionChangeScheduler, timeout(2000).atLeastOnce()).checkForOutboxSubscriptions();
+  }
+
+  @Test
+  void insertBurstInOneTransaction_ShouldBeCoalescedIntoOneWakeUp() {
+    // When
+    eventsOutboxRepository.saveAllAndFlush(List.of(createOutboxRecord(), createOutboxRecord(), createOutboxRecord()));
+
+    // Then
+    verify(subscriptionChangeScheduler, timeout(2000).times(1)).checkForOutboxSubscriptions();
+  }
+
+  private EventsOutbox createOutboxRecord() {
+    EventsOutbox outbox = new EventsOutbox();
+    outbox.setAggregateId(UUID.randomUUID());
+    outbox.setEventType("SubscriptionCreated");
+    outbox.setStatus("PENDING");
+    outbox.setTimestamp(System.currentTimeMillis());
+    outbox.setPayload(new SubscriptionChangePayload(
+            outbox.getAggregateId().toString(),
+            0,
+            null,
+            null,
+            "GBP/USD",
+            BigDecimal.valueOf(1.10),
+            ThresholdDirection.BELOW,
+            List.of("SMS"),
+            SubscriptionStatus.ACTIVE,
+            Instant.now().toString(),
+            Instant.now().toString()
+    ));
+    return outbox;
+  }
+}
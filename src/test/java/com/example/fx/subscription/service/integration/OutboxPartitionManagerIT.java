@@ -0,0 +1,203 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
+import com.example.fx.subscription.service.model.EventsOutbox;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import com.example.fx.subscription.service.service.OutboxPartitionManager;
+import com.example.fx.subscription.service.service.SubscriptionChangeScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "outbox.subscriptions.partitioning.enabled=true",
+        "outbox.subscriptions.partitioning.premake-days=2",
+        "outbox.subscriptions.partitioning.retention=1d"
+})
+@Import(PostgresTestContainerConfig.class)
+class OutboxPartitionManagerIT {
+
+  @MockitoBean
+  KafkaAdmin kafkaAdmin;
+
+  @MockitoBean
+  KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
+
+  @MockitoBean
+  SubscriptionChangeScheduler subscriptionChangeScheduler;
+
+  @Autowired
+  private OutboxPartitionManager outboxPartitionManager;
+
+  @Autowired
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void startup_ShouldPartitionOutboxAndPremakeUpcomingDays() {
+    // Then
+    assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = 'events_outbox'::regclass", Integer.class));
+
+    List<String> partitions = partitions();
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    assertTrue(partitions.contains("events_outbox_default"));
+    for (int day = 0; day <= 2; day++) {
+      assertTrue(partitions.contains(partitionName(today.plusDays(day))));
+    }
+  }
+
+  @Test
+  void saveAndClaim_ShouldWorkAgainstPartitionedTable() {
+    // When
+    EventsOutbox saved = eventsOutboxRepository.saveAndFlush(createOutboxRecord(System.currentTimeMillis(), "PENDING"));
+
+    // Then
+    assertTrue(eventsOutboxRepository.findById(saved.getId()).isPresent());
+    assertEquals(partitionName(LocalDate.now(ZoneOffset.UTC)), jdbcTemplate.queryForObject(
+            "SELECT tableoid::regclass::text FROM events_outbox WHERE id = ?", String.class, saved.getId()));
+  }
+
+  @Test
+  void maintain_ShouldDropExpiredFullySentPartitionsAndKeepUndelivered() {
+    // Given
+    LocalDate sentDay = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+    LocalDate pendingDay = LocalDate.now(ZoneOffset.UTC).minusDays(9);
+    createPartition(sentDay);
+    createPartition(pendingDay);
+    eventsOutboxRepository.saveAllAndFlush(List.of(
+            createOutboxRecord(startOfDay(sentDay) + 1, "SENT"),
+            createOutboxRecord(startOfDay(sentDay) + 2, "SENT"),
+            createOutboxRecord(startOfDay(pendingDay) + 1, "PENDING")
+    ));
+
+    // When
+    outboxPartitionManager.maintain();
+
+    // Then
+    List<String> partitions = partitions();
+    assertFalse(partitions.contains(partitionName(sentDay)));
+    assertTrue(partitions.contains(partitionName(pendingDay)));
+    assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_class WHERE relname = ?", Integer.class, partitionName(sentDay)));
+  }
+
+  @Test
+  void maintain_ShouldMoveRowsCaughtByDefaultPartitionIntoTheirNewPartition() {
+    // Given
+    LocalDate day = LocalDate.now(ZoneOffset.UTC).plusDays(2);
+    jdbcTemplate.execute("DROP TABLE " + partitionName(day));
+    EventsOutbox caught = eventsOutboxRepository.saveAndFlush(createOutboxRecord(startOfDay(day) + 1, "PENDING"));
+    assertEquals("events_outbox_default", partitionOf(caught));
+
+    // When
+    outboxPartitionManager.maintain();
+
+    // Then
+    assertTrue(partitions().contains(partitionName(day)));
+    assertEquals(partitionName(day), partitionOf(caught));
+    assertEquals(0.0, meterRegistry.get("outbox.partition.create.failures").counter().count());
+  }
+
+  @Test
+  void maintain_ShouldDeleteExpiredSentRowsFromDefaultPartition() {
+    // Given
+    long expired = startOfDay(LocalDate.now(ZoneOffset.UTC).minusDays(30));
+    EventsOutbox sent = eventsOutboxRepository.saveAndFlush(createOutboxRecord(expired, "SENT"));
+    EventsOutbox pending = eventsOutboxRepository.saveAndFlush(createOutboxRecord(expired + 1, "PENDING"));
+    assertEquals("events_outbox_default", partitionOf(sent));
+
+    // When
+    outboxPartitionManager.maintain();
+
+    // Then
+    assertTrue(eventsOutboxRepository.findById(sent.getId()).isEmpty());
+    assertTrue(eventsOutboxRepository.findById(pending.getId()).isPresent());
+  }
+
+  @Test
+  void maintain_ShouldPublishOutboxGauges() {
+    // Given
+    eventsOutboxRepository.saveAndFlush(createOutboxRecord(System.currentTimeMillis() - 60_000, "PENDING"));
+
+    // When
+    outboxPartitionManager.maintain();
+
+    // Then
+    assertEquals(partitions().size(), meterRegistry.get("outbox.partitions").gauge().value());
+    assertTrue(meterRegistry.get("outbox.table.size").gauge().value() > 0);
+  }
+
+  private String partitionOf(EventsOutbox outbox) {
+    return jdbcTemplate.queryForObject(
+            "SELECT tableoid::regclass::text FROM events_outbox WHERE id = ?", String.class, outbox.getId());
+  }
+
+  private List<String> partitions() {
+    return jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'events_outbox'::regclass
+            """, String.class);
+  }
+
+  private void createPartition(LocalDate date) {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF events_outbox FOR VALUES FROM (%d) TO (%d)"
+            .formatted(partitionName(date), startOfDay(date), startOfDay(date.plusDays(1))));
+  }
+
+  private static String partitionName(LocalDate date) {
+    return "events_outbox_p" + date.format(DateTimeFormatter.BASIC_ISO_DATE);
+  }
+
+  private static long startOfDay(LocalDate date) {
+    return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private EventsOutbox createOutboxRecord(long timestamp, String status) {
+    EventsOutbox outbox = new EventsOutbox();
+    outbox.setAggregateType("Subscription");
+    outbox.setAggregateId(UUID.randomUUID());
+    outbox.setEventType("SubscriptionCreated");
+    outbox.setStatus(status);
+    outbox.setTimestamp(timestamp);
+    outbox.setPayload(new SubscriptionChangePayload(
+            outbox.getAggregateId().toString(),
+            0,
+            null,
+            null,
+            "GBP/USD",
+            BigDecimal.valueOf(1.10),
+            ThresholdDirection.BELOW,
+            List.of("SMS"),
+            SubscriptionStatus.ACTIVE,
+            Instant.now().toString(),
+            Instant.now().toString()
+    ));
+    return outbox;
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.fx.subscription.service.integration;
+
+import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.service.SchedulerLeadership;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(PostgresTestContainerConfig.class)
+class SchedulerLeadershipIT {
+
+  private static final Duration LEASE = Duration.ofSeconds(2);
+  private static final Duration RENEW_INTERVAL = Duration.ofMillis(200);
+  private static final List<String> JOBS = List.of(
+          SchedulerLeadership.OUTBOX_DRAIN, SchedulerLeadership.OUTBOX_RETRY, SchedulerLeadership.OUTBOX_PARTITIONS,
+          SchedulerLeadership.OUTBOX_CDC);
+
+  @MockitoBean
+  KafkaAdmin kafkaAdmin;
+
+  @MockitoBean
+  KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
+
+  @Autowired
+  private JdbcConnectionDetails jdbcConnectionDetails;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private SchedulerLeadership nodeA;
+  private SchedulerLeadership nodeB;
+
+  @BeforeEach
+  void startNodes() {
+    nodeA = createNode("node-a");
+    nodeB = createNode("node-b");
+    nodeA.start();
+    nodeB.start();
+  }
+
+  @AfterEach
+  void stopNodes() {
+    nodeA.stop();
+    nodeB.stop();
+  }
+
+  @Test
+  void everyJob_ShouldHaveExactlyOneLeader() {
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(5))
+            .untilAsserted(() -> JOBS.forEach(job -> assertTrue(nodeA.isLeader(job) ^ nodeB.isLeader(job), job)));
+  }
+
+  @Test
+  void stoppingLeader_ShouldFailOverToOtherNode() {
+    // Given
+    var leader = awaitLeaderOf(SchedulerLeadership.OUTBOX_DRAIN);
+    var follower = leader == nodeA ? nodeB : nodeA;
+
+    // When
+    leader.stop();
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(2))
+            .until(() -> follower.isLeader(SchedulerLeadership.OUTBOX_DRAIN));
+    assertFalse(leader.isLeader(SchedulerLeadership.OUTBOX_DRAIN));
+  }
+
+  @Test
+  void terminatedLeaderSession_ShouldReleaseLocksForReelection() {
+    // Given
+    var leader = awaitLeaderOf(SchedulerLeadership.OUTBOX_DRAIN);
+    Integer leaderPid = jdbcTemplate.queryForObject(
+            "SELECT pid FROM pg_stat_activity WHERE application_name = ?", Integer.class,
+            "fx-scheduler-" + (leader == nodeA ? "node-a" : "node-b"));
+
+    // When
+    jdbcTemplate.queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, leaderPid);
+
+    // Then
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(5))
+            .untilAsserted(() -> {
+              assertTrue(nodeA.isLeader(SchedulerLeadership.OUTBOX_DRAIN) ^ nodeB.isLeader(SchedulerLeadership.OUTBOX_DRAIN));
+              assertEquals(0, jdbcTemplate.queryForObject(
+                      "SELECT count(*) FROM pg_stat_activity WHERE pid = ?", Integer.class, leaderPid));
+            });
+  }
+
+  private SchedulerLeadership awaitLeaderOf(String job) {
+    Awaitility.await()
+            .atMost(Duration.ofSeconds(5))
+            .until(() -> nodeA.isLeader(job) || nodeB.isLeader(job));
+    return nodeA.isLeader(job) ? nodeA : nodeB;
+  }
+
+  private SchedulerLeadership createNode(String nodeId) {
+    return new SchedulerLeadership(jdbcConnectionDetails, true, LEASE, RENEW_INTERVAL, nodeId, new SimpleMeterRegistry());
+  }
+}
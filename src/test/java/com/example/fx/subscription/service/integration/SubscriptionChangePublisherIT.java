@@ -1,6 +1,6 @@
 package com.example.fx.subscription.service.integration;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
 import com.example.fx.subscription.service.model.EventsOutbox;
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
@@ -91,12 +91,12 @@ class SubscriptionChangePublisherIT {
   }
 
   @Test
-  void sendMessage_publishesToKafka_andMarksOutboxSent() {
+  void sendMessages_publishesToKafka_andMarksOutboxSent() {
     // given
     EventsOutbox outbox = createAndSaveOutbox();
 
     // when
-    subscriptionChangePublisher.sendMessage(toEvent(outbox));
+    subscriptionChangePublisher.sendMessages(List.of(toEvent(outbox)));
 
     // then
     ConsumerRecords<String, SubscriptionChangeEvent> records =
@@ -119,13 +119,15 @@ class SubscriptionChangePublisherIT {
   }
 
   @Test
-  void sendMessage_failsWhenPayloadTooLarge_andMarksOutboxFailed() {
+  void sendMessages_failsWhenPayloadTooLarge_andMarksOutboxFailed() {
     // given: A payload much larger than the default 1MB limit
     String bloatedString = "A".repeat(2 * 1024 * 1024);
 
     EventsOutbox outbox = createAndSaveOutbox();
-    outbox.setPayload(new SubscriptionResponse(
+    outbox.setPayload(new SubscriptionChangePayload(
             outbox.getAggregateId().toString(),
+            0,
+            null,
             null,
             bloatedString,
             BigDecimal.valueOf(1.25),
@@ -140,7 +142,7 @@ class SubscriptionChangePublisherIT {
     SubscriptionChangeEvent event = toEvent(outbox);
 
     // when
-    subscriptionChangePublisher.sendMessage(event);
+    subscriptionChangePublisher.sendMessages(List.of(event));
 
     // then
     String status = eventsOutboxService.findOutboxById(outbox.getId().toString()).getStatus();
@@ -155,8 +157,10 @@ class SubscriptionChangePublisherIT {
     outbox.setAggregateId(UUID.randomUUID());
     outbox.setEventType("SubscriptionCreated");
     outbox.setStatus("PENDING");
-    outbox.setPayload(new SubscriptionResponse(
+    outbox.setPayload(new SubscriptionChangePayload(
             outbox.getAggregateId().toString(),
+            0,
+            null,
             null,
             "GBP/USD",
             BigDecimal.valueOf(1.25),
@@ -1,6 +1,6 @@
 package com.example.fx.subscription.service.integration;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
 import com.example.fx.subscription.service.model.EventsOutbox;
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
@@ -21,6 +21,7 @@ import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.kafka.KafkaContainer;
@@ -28,14 +29,20 @@ import org.testcontainers.kafka.KafkaContainer;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = "outbox.subscriptions.compaction.enabled=true")
 @ActiveProfiles("kafka-test")
 @Testcontainers
 @Import(PostgresTestContainerConfig.class)
@@ -58,6 +65,9 @@ class SubscriptionChangeSchedulerIT {
   @Autowired
   private SubscriptionChangeScheduler subscriptionChangeScheduler;
 
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
   private static KafkaConsumer<String, SubscriptionChangeEvent> consumer;
 
   @BeforeAll
@@ -118,6 +128,78 @@ class SubscriptionChangeSchedulerIT {
     assertThat(updated.getStatus()).isEqualTo("FAILED");
   }
 
+  @Test
+  void scheduler_whenCompactedSurvivorFailsToPublish_shouldKeepMergedEventForRetry() {
+    // 1. GIVEN: A create and a too large update of the same subscription in one chunk
+    EventsOutbox created = createOutboxRecord("PENDING", "GBP/USD");
+    created.setTimestamp(1_000L);
+    eventsOutboxRepository.saveAndFlush(created);
+    String hugeData = "X".repeat(2 * 1024 * 1024);
+    EventsOutbox updated = createOutboxRecord("PENDING", hugeData);
+    updated.setAggregateId(created.getAggregateId());
+    updated.setEventType("SubscriptionUpdated");
+    updated.setTimestamp(2_000L);
+    updated.setPayload(new SubscriptionChangePayload(created.getAggregateId().toString(), 1, null, null, hugeData,
+            null, null, null, null, null, Instant.now().toString()));
+    eventsOutboxRepository.saveAndFlush(updated);
+
+    // 2. WHEN: Trigger scheduler, the merged survivor fails to publish
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // 3. THEN: The create is compacted and the failed survivor is retried as the create of the latest state
+    assertThat(eventsOutboxRepository.findById(created.getId()).orElseThrow().getStatus()).isEqualTo("COMPACTED");
+    EventsOutbox survivor = eventsOutboxRepository.findById(updated.getId()).orElseThrow();
+    assertThat(survivor.getStatus()).isEqualTo("FAILED");
+    assertThat(survivor.getEventType()).isEqualTo("SubscriptionCreated");
+    assertThat(survivor.getPayload().currencyPair()).isEqualTo(hugeData);
+    assertThat(survivor.getPayload().threshold()).isEqualByComparingTo(created.getPayload().threshold());
+  }
+
+  @Test
+  void scheduler_whenOlderUpdateIsClaimedByTheDispatcher_shouldNotPublishTheNewerOneFirst() throws Exception {
+    // 1. GIVEN: Two back-to-back updates of one subscription, the older one claimed by an after-commit dispatch
+    EventsOutbox firstUpdate = createOutboxRecord("PENDING", "GBP/USD");
+    firstUpdate.setTimestamp(1_000L);
+    eventsOutboxRepository.saveAndFlush(firstUpdate);
+    EventsOutbox secondUpdate = createOutboxRecord("PENDING", "EUR/USD");
+    secondUpdate.setAggregateId(firstUpdate.getAggregateId());
+    secondUpdate.setTimestamp(2_000L);
+    eventsOutboxRepository.saveAndFlush(secondUpdate);
+
+    CountDownLatch claimed = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (ExecutorService dispatcher = Executors.newSingleThreadExecutor()) {
+      Future<?> dispatch = dispatcher.submit(() -> transactionTemplate.executeWithoutResult(_ -> {
+        eventsOutboxRepository.claimByIdInAndStatus(List.of(firstUpdate.getId()), "PENDING");
+        eventsOutboxRepository.updateStatusByIdIn(List.of(firstUpdate.getId()), "SENT");
+        claimed.countDown();
+        awaitQuietly(release);
+      }));
+      assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // 2. WHEN: The scheduler sweeps while the older update is still locked
+      subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+      // 3. THEN: The newer update waits for the older one
+      assertThat(eventsOutboxRepository.findById(secondUpdate.getId()).orElseThrow().getStatus()).isEqualTo("PENDING");
+
+      release.countDown();
+      dispatch.get(5, TimeUnit.SECONDS);
+    }
+
+    // 4. THEN: Once the older update is sent the newer one goes out
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+    assertThat(eventsOutboxRepository.findById(secondUpdate.getId()).orElseThrow().getStatus()).isEqualTo("SENT");
+    List<String> updateIds = List.of(firstUpdate.getId().toString(), secondUpdate.getId().toString());
+    List<String> published = new ArrayList<>();
+    consumer.poll(Duration.ofSeconds(5)).forEach(record -> {
+      if (updateIds.contains(record.value().eventId())) {
+        published.add(record.value().eventId());
+      }
+    });
+    assertThat(published).containsExactly(secondUpdate.getId().toString());
+  }
+
   @Test
   void scheduler_shouldIgnoreAlreadySentRecords() {
     // 1. GIVEN: A record already marked as SENT
@@ -132,14 +214,24 @@ class SubscriptionChangeSchedulerIT {
     assertThat(records.isEmpty()).isTrue();
   }
 
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   private EventsOutbox createOutboxRecord(String status, String currencyPair) {
     EventsOutbox outbox = new EventsOutbox();
     outbox.setAggregateId(UUID.randomUUID());
     outbox.setEventType("SubscriptionCreated");
     outbox.setStatus(status);
     outbox.setTimestamp(System.currentTimeMillis());
-    outbox.setPayload(new SubscriptionResponse(
+    outbox.setPayload(new SubscriptionChangePayload(
             outbox.getAggregateId().toString(),
+            0,
+            null,
             null,
             currencyPair,
             BigDecimal.valueOf(1.10),
@@ -1,6 +1,6 @@
 package com.example.fx.subscription.service.model;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +19,7 @@ class EventsOutboxTest {
   private String testStatus;
 
   @Mock
-  private SubscriptionResponse mockPayload;
+  private SubscriptionChangePayload mockPayload;
 
   @BeforeEach
   void setUp() {
@@ -1,6 +1,6 @@
 package com.example.fx.subscription.service.model;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -58,7 +58,7 @@ class SubscriptionChangeEventTest {
     String eventId = "test-event-123";
     long timestamp = 1234567890L;
     String eventType = "SUBSCRIPTION_UPDATED";
-    SubscriptionResponse payload = createTestEvent(null, eventType).payload();
+    SubscriptionChangePayload payload = createTestEvent(null, eventType).payload();
 
     // When
     SubscriptionChangeEvent event = new SubscriptionChangeEvent(eventId, timestamp, eventType, payload);
@@ -102,8 +102,10 @@ class SubscriptionChangeEventTest {
             "test-event-id",
             System.currentTimeMillis(),
             eventType,
-            new SubscriptionResponse(
+            new SubscriptionChangePayload(
                     subscriptionId == null ? UUID.randomUUID().toString() : subscriptionId.toString(),
+                    0,
+                    null,
                     null,
                     "GBP/USD",
                     BigDecimal.valueOf(1.25),
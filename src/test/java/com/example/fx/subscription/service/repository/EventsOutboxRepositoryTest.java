@@ -1,7 +1,7 @@
 package com.example.fx.subscription.service.repository;
 
 import com.example.fx.subscription.service.ai.tool.FxSubscriptionTool;
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.helper.PostgresTestContainerConfig;
 import com.example.fx.subscription.service.model.EventsOutbox;
 import com.example.fx.subscription.service.model.Subscription;
@@ -52,7 +52,7 @@ class EventsOutboxRepositoryTest {
     testEventsOutbox.setAggregateType("Subscription");
     testEventsOutbox.setAggregateId(UUID.randomUUID());
     testEventsOutbox.setEventType("SubscriptionCreated");
-    testEventsOutbox.setPayload(SubscriptionResponse.fromSubscription(testSubscription));
+    testEventsOutbox.setPayload(SubscriptionChangePayload.snapshot(testSubscription));
     testEventsOutbox.setStatus("PENDING");
     testEventsOutbox.setTimestamp(System.currentTimeMillis());
   }
@@ -186,12 +186,166 @@ class EventsOutboxRepositoryTest {
     assertTrue(failedEvents.isEmpty());
   }
 
+  @Test
+  void claimByStatus_ShouldReturnOldestMatchingEventsUpToLimit() {
+    // Given
+    EventsOutbox oldest = createTestOutbox("PENDING", 1_000L);
+    EventsOutbox middle = createTestOutbox("PENDING", 2_000L);
+    createTestOutbox("PENDING", 3_000L);
+    createTestOutbox("SENT", 500L);
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimByStatus("PENDING", 2);
+
+    // Then
+    assertEquals(2, claimed.size());
+    assertEquals(oldest.getId(), claimed.get(0).getId());
+    assertEquals(middle.getId(), claimed.get(1).getId());
+  }
+
+  @Test
+  void claimByStatus_ShouldSkipAggregatesWithAnOlderFailedEvent() {
+    // Given
+    EventsOutbox failed = createTestOutbox("FAILED", 1_000L);
+    EventsOutbox blocked = createTestOutbox("PENDING", 2_000L);
+    blocked.setAggregateId(failed.getAggregateId());
+    eventsOutboxRepository.saveAndFlush(blocked);
+    EventsOutbox otherAggregate = createTestOutbox("PENDING", 3_000L);
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimByStatus("PENDING", 10);
+
+    // Then
+    assertEquals(1, claimed.size());
+    assertEquals(otherAggregate.getId(), claimed.getFirst().getId());
+  }
+
+  @Test
+  void claimByStatus_ShouldClaimBackToBackUpdatesOfAnAggregateInWriteOrder() {
+    // Given
+    EventsOutbox firstUpdate = createTestOutbox("PENDING", 1_000L);
+    EventsOutbox secondUpdate = createTestOutbox("PENDING", 2_000L);
+    secondUpdate.setAggregateId(firstUpdate.getAggregateId());
+    eventsOutboxRepository.saveAndFlush(secondUpdate);
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimByStatus("PENDING", 10);
+
+    // Then
+    assertEquals(List.of(firstUpdate.getId(), secondUpdate.getId()), claimed.stream().map(EventsOutbox::getId).toList());
+  }
+
+  @Test
+  void claimByIdInAndStatus_ShouldSkipAnUpdateBehindAnOlderPendingUpdateOfTheAggregate() {
+    // Given
+    EventsOutbox firstUpdate = createTestOutbox("PENDING", 1_000L);
+    EventsOutbox secondUpdate = createTestOutbox("PENDING", 2_000L);
+    secondUpdate.setAggregateId(firstUpdate.getAggregateId());
+    eventsOutboxRepository.saveAndFlush(secondUpdate);
+
+    // When
+    List<EventsOutbox> claimedSecond = eventsOutboxRepository.claimByIdInAndStatus(List.of(secondUpdate.getId()), "PENDING");
+    List<EventsOutbox> claimedFirst = eventsOutboxRepository.claimByIdInAndStatus(List.of(firstUpdate.getId()), "PENDING");
+
+    // Then
+    assertTrue(claimedSecond.isEmpty());
+    assertEquals(firstUpdate.getId(), claimedFirst.getFirst().getId());
+  }
+
+  @Test
+  void updateStatusByIdIn_ShouldOnlyUpdateGivenEvents() {
+    // Given
+    EventsOutbox first = createTestOutbox("PENDING");
+    EventsOutbox second = createTestOutbox("PENDING");
+    EventsOutbox untouched = createTestOutbox("PENDING");
+
+    // When
+    int updated = eventsOutboxRepository.updateStatusByIdIn(List.of(first.getId(), second.getId()), "SENT");
+
+    // Then
+    assertEquals(2, updated);
+    assertEquals("SENT", eventsOutboxRepository.findById(first.getId()).orElseThrow().getStatus());
+    assertEquals("SENT", eventsOutboxRepository.findById(second.getId()).orElseThrow().getStatus());
+    assertEquals("PENDING", eventsOutboxRepository.findById(untouched.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  void claimDueByStatus_ShouldReturnOnlyEventsWhoseNextAttemptHasPassed() {
+    // Given
+    EventsOutbox due = createTestOutbox("FAILED");
+    due.setNextAttemptAt(1_000L);
+    EventsOutbox notYetDue = createTestOutbox("FAILED");
+    notYetDue.setNextAttemptAt(5_000L);
+    EventsOutbox dead = createTestOutbox("DEAD");
+    dead.setNextAttemptAt(500L);
+    eventsOutboxRepository.saveAllAndFlush(List.of(due, notYetDue, dead));
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimDueByStatus("FAILED", 2_000L, 10);
+
+    // Then
+    assertEquals(1, claimed.size());
+    assertEquals(due.getId(), claimed.getFirst().getId());
+    assertEquals(2L, eventsOutboxRepository.countByStatus("FAILED"));
+  }
+
+  @Test
+  void claimDueByStatus_ShouldReturnDueEventsInWriteOrder() {
+    // Given
+    EventsOutbox older = createTestOutbox("FAILED", 1_000L);
+    older.setNextAttemptAt(1_500L);
+    EventsOutbox newer = createTestOutbox("FAILED", 2_000L);
+    newer.setNextAttemptAt(500L);
+    eventsOutboxRepository.saveAllAndFlush(List.of(older, newer));
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimDueByStatus("FAILED", 2_000L, 10);
+
+    // Then
+    assertEquals(List.of(older.getId(), newer.getId()), claimed.stream().map(EventsOutbox::getId).toList());
+  }
+
+  @Test
+  void claimDueByStatus_ShouldNotOvertakeAnOlderEventOfTheAggregateStillBackingOff() {
+    // Given
+    EventsOutbox backingOff = createTestOutbox("FAILED", 1_000L);
+    backingOff.setNextAttemptAt(5_000L);
+    EventsOutbox due = createTestOutbox("FAILED", 2_000L);
+    due.setAggregateId(backingOff.getAggregateId());
+    due.setNextAttemptAt(1_000L);
+    eventsOutboxRepository.saveAllAndFlush(List.of(backingOff, due));
+
+    // When
+    List<EventsOutbox> claimed = eventsOutboxRepository.claimDueByStatus("FAILED", 2_000L, 10);
+
+    // Then
+    assertTrue(claimed.isEmpty());
+  }
+
+  @Test
+  void findOldestTimestampByStatus_ShouldReturnEarliestTimestampOfStatusOnly() {
+    // Given
+    createTestOutbox("SENT", 1_000L);
+    createTestOutbox("PENDING", 3_000L);
+    createTestOutbox("PENDING", 2_000L);
+
+    // When & Then
+    assertEquals(2_000L, eventsOutboxRepository.findOldestTimestampByStatus("PENDING"));
+    assertNull(eventsOutboxRepository.findOldestTimestampByStatus("FAILED"));
+  }
+
+  private EventsOutbox createTestOutbox(String status, long timestamp) {
+    EventsOutbox outbox = createTestOutbox(status);
+    outbox.setTimestamp(timestamp);
+    return eventsOutboxRepository.saveAndFlush(outbox);
+  }
+
   private EventsOutbox createTestOutbox(String status) {
     EventsOutbox outbox = new EventsOutbox();
     outbox.setAggregateType("Subscription");
     outbox.setAggregateId(UUID.randomUUID());
     outbox.setEventType("SubscriptionCreated");
-    outbox.setPayload(SubscriptionResponse.fromSubscription(testSubscription));
+    outbox.setPayload(SubscriptionChangePayload.snapshot(testSubscription));
     outbox.setStatus(status);
     outbox.setTimestamp(System.currentTimeMillis());
     return eventsOutboxRepository.save(outbox);
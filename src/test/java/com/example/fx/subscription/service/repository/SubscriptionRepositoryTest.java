@@ -237,6 +237,23 @@ class SubscriptionRepositoryTest {
     assertFalse(exists);
   }
 
+  @Test
+  void findUserIdById_WhenSubscriptionExists_ShouldReturnOwnerId() {
+    // Given
+    Subscription savedSubscription = subscriptionRepository.save(testSubscription1);
+
+    // When
+    Optional<UUID> ownerId = subscriptionRepository.findUserIdById(savedSubscription.getId());
+
+    // Then
+    assertEquals(Optional.of(testUser1.getId()), ownerId);
+  }
+
+  @Test
+  void findUserIdById_WhenSubscriptionDoesNotExist_ShouldReturnEmpty() {
+    assertTrue(subscriptionRepository.findUserIdById(UUID.randomUUID()).isEmpty());
+  }
+
   @Test
   void deleteById_ShouldRemoveSubscription() {
     // Given
@@ -0,0 +1,199 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionListResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionCacheBinaryCodecTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionCacheBinaryCodecTest.class);
+
+  private static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+  @Test
+  void encodeDecode_ShouldRoundTripSubscription() {
+    // Given
+    SubscriptionResponse subscription = createSubscription(createUser(), 0);
+
+    // When
+    SubscriptionResponse decoded = SubscriptionCacheBinaryCodec.decodeSubscription(
+            SubscriptionCacheBinaryCodec.encodeSubscription(subscription, NO_COMPRESSION));
+
+    // Then
+    assertEquals(subscription, decoded);
+  }
+
+  @Test
+  void encodeDecode_ShouldRoundTripNullableFields() {
+    // Given
+    SubscriptionResponse subscription = new SubscriptionResponse(UUID.randomUUID().toString(), null, null, null, null,
+            null, null, null, null);
+
+    // When
+    SubscriptionResponse decoded = SubscriptionCacheBinaryCodec.decodeSubscription(
+            SubscriptionCacheBinaryCodec.encodeSubscription(subscription, NO_COMPRESSION));
+
+    // Then
+    assertEquals(subscription, decoded);
+  }
+
+  @Test
+  void encodeDecode_ShouldRoundTripListWithSharedAndMissingUsers() {
+    // Given
+    UserSummaryResponse user = createUser();
+    SubscriptionListResponse list = new SubscriptionListResponse(List.of(
+            createSubscription(user, 0),
+            createSubscription(null, 1),
+            createSubscription(user, 2)), 3);
+
+    // When
+    SubscriptionListResponse decoded = SubscriptionCacheBinaryCodec.decodeSubscriptionList(
+            SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, NO_COMPRESSION));
+
+    // Then
+    assertEquals(list, decoded);
+  }
+
+  @Test
+  void encodeList_ShouldWriteSharedUserOnce() {
+    // Given
+    SubscriptionListResponse shared = createList(createUser(), 10);
+    List<SubscriptionResponse> ownUsers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ownUsers.add(createSubscription(createUser(), i));
+    }
+
+    // When
+    int sharedSize = SubscriptionCacheBinaryCodec.encodeSubscriptionList(shared, NO_COMPRESSION).length;
+    int ownUsersSize = SubscriptionCacheBinaryCodec.encodeSubscriptionList(
+            new SubscriptionListResponse(ownUsers, 10), NO_COMPRESSION).length;
+
+    // Then
+    assertTrue(sharedSize + 9 * 50 < ownUsersSize, "shared " + sharedSize + " bytes vs " + ownUsersSize + " bytes");
+  }
+
+  @Test
+  void encode_AboveThreshold_ShouldCompressAndRoundTrip() {
+    // Given
+    SubscriptionListResponse list = createList(createUser(), 300);
+
+    // When
+    byte[] plain = SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, NO_COMPRESSION);
+    byte[] compressed = SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, 1024);
+
+    // Then
+    assertEquals(0, plain[1] & SubscriptionCacheBinaryCodec.COMPRESSED);
+    assertEquals(SubscriptionCacheBinaryCodec.COMPRESSED, compressed[1] & SubscriptionCacheBinaryCodec.COMPRESSED);
+    assertTrue(compressed.length < plain.length);
+    assertEquals(list, SubscriptionCacheBinaryCodec.decodeSubscriptionList(compressed));
+  }
+
+  @Test
+  void encode_BelowThreshold_ShouldNotCompress() {
+    // When
+    byte[] data = SubscriptionCacheBinaryCodec.encodeSubscription(createSubscription(createUser(), 0), 1024);
+
+    // Then
+    assertEquals(SubscriptionCacheBinaryCodec.VERSION, data[0]);
+    assertEquals(0, data[1] & SubscriptionCacheBinaryCodec.COMPRESSED);
+  }
+
+  @Test
+  void decode_WithUnknownVersion_ShouldReturnNull() {
+    // Given
+    byte[] data = SubscriptionCacheBinaryCodec.encodeSubscription(createSubscription(createUser(), 0), NO_COMPRESSION);
+    data[0] = 2;
+
+    // When & Then
+    assertNull(SubscriptionCacheBinaryCodec.decodeSubscription(data));
+  }
+
+  @Test
+  void encode_PowerUserList_ShouldBeSmallerThanJson() {
+    // Given
+    SubscriptionListResponse list = createList(createUser(), 300);
+    var jsonSerializer = new JacksonJsonRedisSerializer<>(SubscriptionListResponse.class);
+    int iterations = 2_000;
+
+    // When
+    int jsonSize = jsonSerializer.serialize(list).length;
+    int binarySize = SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, NO_COMPRESSION).length;
+    byte[] compressed = SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, 1024);
+    byte[] json = jsonSerializer.serialize(list);
+
+    long jsonEncodeNanos = time(iterations, () -> jsonSerializer.serialize(list));
+    long binaryEncodeNanos = time(iterations, () -> SubscriptionCacheBinaryCodec.encodeSubscriptionList(list, 1024));
+    long jsonDecodeNanos = time(iterations, () -> jsonSerializer.deserialize(json));
+    long binaryDecodeNanos = time(iterations, () -> SubscriptionCacheBinaryCodec.decodeSubscriptionList(compressed));
+
+    LOGGER.info("SubscriptionListResponse of {} entries: json [{}] bytes, binary [{}] bytes, binary+lz4 [{}] bytes; "
+                    + "encode: json [{}] ns/op, binary+lz4 [{}] ns/op; decode: json [{}] ns/op, binary+lz4 [{}] ns/op",
+            list.totalCount(), jsonSize, binarySize, compressed.length,
+            jsonEncodeNanos / iterations, binaryEncodeNanos / iterations,
+            jsonDecodeNanos / iterations, binaryDecodeNanos / iterations);
+
+    // Then
+    assertTrue(binarySize * 3 < jsonSize, "binary " + binarySize + " bytes vs json " + jsonSize + " bytes");
+    assertTrue(compressed.length <= binarySize);
+  }
+
+  private static long time(int iterations, Supplier<?> codec) {
+    // Warm up before measuring so both codecs run compiled code
+    for (int i = 0; i < iterations; i++) {
+      codec.get();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      codec.get();
+    }
+    return System.nanoTime() - start;
+  }
+
+  static SubscriptionListResponse createList(UserSummaryResponse user, int size) {
+    List<SubscriptionResponse> subscriptions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      subscriptions.add(createSubscription(user, i));
+    }
+    return new SubscriptionListResponse(subscriptions, size);
+  }
+
+  static UserSummaryResponse createUser() {
+    return new UserSummaryResponse(
+            UUID.randomUUID().toString(),
+            "trader@example.com",
+            "+447700900123",
+            true,
+            Instant.parse("2025-01-15T10:15:30.123456Z").toString(),
+            null
+    );
+  }
+
+  static SubscriptionResponse createSubscription(UserSummaryResponse user, int index) {
+    return new SubscriptionResponse(
+            UUID.randomUUID().toString(),
+            user,
+            index % 2 == 0 ? "GBP/USD" : "EUR/JPY",
+            new BigDecimal("1.2550").add(BigDecimal.valueOf(index, 4)),
+            index % 2 == 0 ? ThresholdDirection.ABOVE : ThresholdDirection.BELOW,
+            List.of("email", "sms"),
+            SubscriptionStatus.ACTIVE,
+            Instant.parse("2025-01-15T10:15:30.123456Z").plusSeconds(index).toString(),
+            index % 3 == 0 ? null : Instant.parse("2025-02-01T08:00:00Z").plusSeconds(index).toString()
+    );
+  }
+}
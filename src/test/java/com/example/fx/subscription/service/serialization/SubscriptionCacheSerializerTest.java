@@ -0,0 +1,94 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionListResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionCacheSerializerTest {
+
+  @Test
+  void binaryFormat_ShouldWriteVersionedBinary() {
+    // Given
+    var serializer = SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.BINARY, 1024);
+    SubscriptionResponse subscription = SubscriptionCacheBinaryCodecTest.createSubscription(
+            SubscriptionCacheBinaryCodecTest.createUser(), 0);
+
+    // When
+    byte[] data = serializer.serialize(subscription);
+
+    // Then
+    assertEquals(SubscriptionCacheBinaryCodec.VERSION, data[0]);
+    assertEquals(subscription, serializer.deserialize(data));
+  }
+
+  @Test
+  void jsonFormat_ShouldWriteJson() {
+    // Given
+    var serializer = SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.JSON, 1024);
+    SubscriptionResponse subscription = SubscriptionCacheBinaryCodecTest.createSubscription(
+            SubscriptionCacheBinaryCodecTest.createUser(), 0);
+
+    // When
+    byte[] data = serializer.serialize(subscription);
+
+    // Then
+    assertEquals('{', data[0]);
+    assertEquals(subscription, serializer.deserialize(data));
+  }
+
+  @Test
+  void deserialize_ShouldReadValuesWrittenInTheOtherFormat() {
+    // Given
+    var jsonSerializer = SubscriptionCacheSerializer.forSubscriptionList(SubscriptionCacheSerializer.JSON, 1024);
+    var binarySerializer = SubscriptionCacheSerializer.forSubscriptionList(SubscriptionCacheSerializer.BINARY, 1024);
+    SubscriptionListResponse list = SubscriptionCacheBinaryCodecTest.createList(
+            SubscriptionCacheBinaryCodecTest.createUser(), 50);
+
+    // When & Then
+    assertEquals(list, binarySerializer.deserialize(jsonSerializer.serialize(list)));
+    assertEquals(list, jsonSerializer.deserialize(binarySerializer.serialize(list)));
+  }
+
+  @Test
+  void deserialize_WithEmptyValue_ShouldReturnNull() {
+    var serializer = SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.BINARY, 1024);
+
+    assertNull(serializer.deserialize(null));
+    assertNull(serializer.deserialize(new byte[0]));
+  }
+
+  @Test
+  void deserialize_WithTruncatedBinaryValue_ShouldFailWithSerializationException() {
+    // Given
+    var serializer = SubscriptionCacheSerializer.forSubscription(SubscriptionCacheSerializer.BINARY, 1024);
+    byte[] data = serializer.serialize(SubscriptionCacheBinaryCodecTest.createSubscription(
+            SubscriptionCacheBinaryCodecTest.createUser(), 0));
+
+    // When & Then
+    assertThrows(SerializationException.class, () -> serializer.deserialize(Arrays.copyOf(data, data.length / 2)));
+  }
+
+  @Test
+  void deserialize_WithCorruptCompressedLength_ShouldFailWithSerializationException() {
+    // Given
+    var serializer = SubscriptionCacheSerializer.forSubscriptionList(SubscriptionCacheSerializer.BINARY, 0);
+    byte[] data = serializer.serialize(SubscriptionCacheBinaryCodecTest.createList(
+            SubscriptionCacheBinaryCodecTest.createUser(), 300));
+    ByteBuffer.wrap(data).putInt(2, Integer.MAX_VALUE);
+
+    // When & Then
+    assertThrows(SerializationException.class, () -> serializer.deserialize(data));
+  }
+
+  @Test
+  void unknownFormat_ShouldFail() {
+    assertThrows(IllegalArgumentException.class,
+            () -> SubscriptionCacheSerializer.forSubscription("protobuf", 1024));
+  }
+}
@@ -0,0 +1,170 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.dto.user.UserSummaryResponse;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionChangeEventBinaryCodecTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionChangeEventBinaryCodecTest.class);
+
+  @Test
+  void encodeDecode_ShouldRoundTripFullEvent() {
+    // Given
+    SubscriptionChangeEvent event = createTestEvent("SubscriptionUpdated");
+
+    // When
+    SubscriptionChangeEvent decoded = SubscriptionChangeEventBinaryCodec.decode(SubscriptionChangeEventBinaryCodec.encode(event));
+
+    // Then
+    assertEquals(event, decoded);
+  }
+
+  @Test
+  void encodeDecode_ShouldRoundTripNullableFieldsAndUnknownEventType() {
+    // Given
+    SubscriptionChangeEvent event = new SubscriptionChangeEvent(
+            UUID.randomUUID().toString(),
+            System.currentTimeMillis(),
+            "SubscriptionArchived",
+            new SubscriptionChangePayload(UUID.randomUUID().toString(), 3, null, null, null, null, null, null, null, null, null)
+    );
+
+    // When
+    SubscriptionChangeEvent decoded = SubscriptionChangeEventBinaryCodec.decode(SubscriptionChangeEventBinaryCodec.encode(event));
+
+    // Then
+    assertEquals(event, decoded);
+  }
+
+  @Test
+  void decode_WithVersion1Record_ShouldReadSnapshotWithVersionZero() throws IOException {
+    // Given
+    String eventId = UUID.randomUUID().toString();
+    String subscriptionId = UUID.randomUUID().toString();
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeByte(1);
+      writeUuid(out, eventId);
+      out.writeLong(1_000L);
+      out.writeByte(0);
+      writeUuid(out, subscriptionId);
+      out.writeBoolean(false);
+      out.writeBoolean(true);
+      out.writeUTF("GBP/USD");
+      out.writeBoolean(false);
+      out.writeBoolean(false);
+      out.writeShort(1);
+      out.writeUTF("EMAIL");
+      out.writeBoolean(false);
+      out.writeBoolean(false);
+      out.writeBoolean(false);
+    }
+
+    // When
+    SubscriptionChangeEvent decoded = SubscriptionChangeEventBinaryCodec.decode(bytes.toByteArray());
+
+    // Then
+    assertEquals(new SubscriptionChangeEvent(eventId, 1_000L, "SubscriptionCreated",
+            new SubscriptionChangePayload(subscriptionId, 0, null, null, "GBP/USD", null, null, List.of("EMAIL"), null,
+                    null, null)), decoded);
+  }
+
+  @Test
+  void decode_WithUnsupportedVersion_ShouldFail() {
+    // Given
+    byte[] data = SubscriptionChangeEventBinaryCodec.encode(createTestEvent("SubscriptionCreated"));
+    data[0] = 99;
+
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> SubscriptionChangeEventBinaryCodec.decode(data));
+  }
+
+  @Test
+  void encode_ShouldBeSmallerAndFasterThanJson() {
+    // Given
+    SubscriptionChangeEvent event = createTestEvent("SubscriptionUpdated");
+    int iterations = 20_000;
+
+    try (var jsonSerializer = new JacksonJsonSerializer<SubscriptionChangeEvent>()) {
+      jsonSerializer.setAddTypeInfo(false);
+
+      // When
+      int binarySize = SubscriptionChangeEventBinaryCodec.encode(event).length;
+      int jsonSize = jsonSerializer.serialize("topic", event).length;
+
+      long binaryNanos = time(iterations, () -> SubscriptionChangeEventBinaryCodec.encode(event));
+      long jsonNanos = time(iterations, () -> jsonSerializer.serialize("topic", event));
+
+      LOGGER.info("SubscriptionChangeEvent size: binary [{}] bytes, json [{}] bytes; encode: binary [{}] ns/op, json [{}] ns/op",
+              binarySize, jsonSize, binaryNanos / iterations, jsonNanos / iterations);
+
+      // Then
+      assertTrue(binarySize * 2 < jsonSize, "binary " + binarySize + " bytes vs json " + jsonSize + " bytes");
+    }
+  }
+
+  private static void writeUuid(DataOutputStream out, String value) throws IOException {
+    UUID uuid = UUID.fromString(value);
+    out.writeLong(uuid.getMostSignificantBits());
+    out.writeLong(uuid.getLeastSignificantBits());
+  }
+
+  private static long time(int iterations, Runnable encode) {
+    // Warm up before measuring so both encoders run compiled code
+    for (int i = 0; i < iterations; i++) {
+      encode.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      encode.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+  static SubscriptionChangeEvent createTestEvent(String eventType) {
+    UserSummaryResponse user = new UserSummaryResponse(
+            UUID.randomUUID().toString(),
+            "trader@example.com",
+            "+447700900123",
+            true,
+            Instant.parse("2025-01-15T10:15:30.123456Z").toString(),
+            null
+    );
+
+    return new SubscriptionChangeEvent(
+            UUID.randomUUID().toString(),
+            System.currentTimeMillis(),
+            eventType,
+            new SubscriptionChangePayload(
+                    UUID.randomUUID().toString(),
+                    0,
+                    user.id(),
+                    user,
+                    "GBP/USD",
+                    new BigDecimal("1.2750"),
+                    ThresholdDirection.ABOVE,
+                    List.of("EMAIL", "SMS"),
+                    SubscriptionStatus.ACTIVE,
+                    Instant.now().toString(),
+                    Instant.now().toString()
+            )
+    );
+  }
+}
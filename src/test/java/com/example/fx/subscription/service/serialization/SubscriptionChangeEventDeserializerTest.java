@@ -0,0 +1,68 @@
+package com.example.fx.subscription.service.serialization;
+
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionChangeEventDeserializerTest {
+
+  private static final String TOPIC = "subscription-change-events";
+
+  private final SubscriptionChangeEventBinarySerializer binarySerializer = new SubscriptionChangeEventBinarySerializer();
+  private final SubscriptionChangeEventDeserializer deserializer = new SubscriptionChangeEventDeserializer();
+
+  @AfterEach
+  void tearDown() {
+    deserializer.close();
+  }
+
+  @Test
+  void deserialize_WithBinaryFormatHeader_ShouldDecodeBinary() {
+    // Given
+    SubscriptionChangeEvent event = SubscriptionChangeEventBinaryCodecTest.createTestEvent("SubscriptionCreated");
+    var headers = new RecordHeaders();
+    byte[] data = binarySerializer.serialize(TOPIC, headers, event);
+
+    // When
+    SubscriptionChangeEvent decoded = deserializer.deserialize(TOPIC, headers, data);
+
+    // Then
+    assertEquals("binary/v2", new String(headers.lastHeader("fx-event-format").value(), StandardCharsets.UTF_8));
+    assertEquals(event, decoded);
+  }
+
+  @Test
+  void deserialize_WithoutFormatHeader_ShouldReadJson() {
+    // Given
+    SubscriptionChangeEvent event = SubscriptionChangeEventBinaryCodecTest.createTestEvent("SubscriptionUpdated");
+    byte[] data;
+    try (var jsonSerializer = new JacksonJsonSerializer<SubscriptionChangeEvent>()) {
+      jsonSerializer.setAddTypeInfo(false);
+      data = jsonSerializer.serialize(TOPIC, event);
+    }
+
+    // When
+    SubscriptionChangeEvent decoded = deserializer.deserialize(TOPIC, new RecordHeaders(), data);
+
+    // Then
+    assertEquals(event, decoded);
+  }
+
+  @Test
+  void deserialize_WithUnknownFormatHeader_ShouldFail() {
+    // Given
+    var headers = new RecordHeaders();
+    headers.add("fx-event-format", "avro".getBytes(StandardCharsets.UTF_8));
+    byte[] data = new byte[]{1};
+
+    // When & Then
+    assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, headers, data));
+  }
+}
@@ -1,22 +1,26 @@
 package com.example.fx.subscription.service.service;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.model.EventsOutbox;
 import com.example.fx.subscription.service.model.Subscription;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
 import com.example.fx.subscription.service.model.SubscriptionStatus;
 import com.example.fx.subscription.service.model.ThresholdDirection;
 import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +33,7 @@ class EventsOutboxServiceTest {
   @Mock
   private EventsOutboxRepository eventsOutboxRepository;
 
-  @InjectMocks
+  private SimpleMeterRegistry meterRegistry;
   private EventsOutboxService eventsOutboxService;
 
   private EventsOutbox testOutbox;
@@ -38,6 +42,10 @@ class EventsOutboxServiceTest {
 
   @BeforeEach
   void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    var outboxRetryPolicy = new OutboxRetryPolicy(Duration.ofSeconds(1), Duration.ofMinutes(1), 3);
+    eventsOutboxService = new EventsOutboxService(eventsOutboxRepository, outboxRetryPolicy, meterRegistry);
+
     testId = UUID.randomUUID();
     testIdString = testId.toString();
 
@@ -46,219 +54,208 @@ class EventsOutboxServiceTest {
     testOutbox.setAggregateType("Subscription");
     testOutbox.setAggregateId(UUID.randomUUID());
     testOutbox.setEventType("SubscriptionCreated");
-    testOutbox.setPayload(createTestSubscriptionResponse());
+    testOutbox.setPayload(createTestSubscriptionChangePayload());
     testOutbox.setStatus("PENDING");
     testOutbox.setTimestamp(System.currentTimeMillis());
   }
 
   @Test
-  void updateOutboxStatus_WhenOutboxExists_ShouldUpdateStatusSuccessfully() {
+  void findOutboxById_WhenOutboxExists_ShouldReturnOutbox() {
     // Given
-    String newStatus = "SENT";
     when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-    when(eventsOutboxRepository.save(any(EventsOutbox.class))).thenReturn(testOutbox);
 
     // When
-    eventsOutboxService.updateOutboxStatus(testIdString, newStatus);
+    EventsOutbox result = eventsOutboxService.findOutboxById(testIdString);
 
     // Then
+    assertNotNull(result);
+    assertEquals(testOutbox, result);
     verify(eventsOutboxRepository).findById(testId);
-    verify(eventsOutboxRepository).save(argThat(outbox ->
-            outbox.getId().equals(testId) &&
-                    newStatus.equals(outbox.getStatus())
-    ));
   }
 
   @Test
-  void updateOutboxStatus_WhenOutboxDoesNotExist_ShouldThrowRuntimeException() {
+  void findOutboxById_WhenOutboxDoesNotExist_ShouldThrowRuntimeException() {
     // Given
-    String newStatus = "SENT";
     when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.empty());
 
     // When & Then
     RuntimeException exception = assertThrows(RuntimeException.class, () ->
-            eventsOutboxService.updateOutboxStatus(testIdString, newStatus)
+            eventsOutboxService.findOutboxById(testIdString)
     );
 
     assertEquals("Outbox event not found with id: " + testIdString, exception.getMessage());
     verify(eventsOutboxRepository).findById(testId);
-    verify(eventsOutboxRepository, never()).save(any(EventsOutbox.class));
   }
 
   @Test
-  void updateOutboxStatus_WhenInvalidUUID_ShouldThrowIllegalArgumentException() {
+  void findOutboxById_WhenInvalidUUID_ShouldThrowIllegalArgumentException() {
     // Given
     String invalidId = "invalid-uuid";
-    String newStatus = "SENT";
 
     // When & Then
     assertThrows(IllegalArgumentException.class, () ->
-            eventsOutboxService.updateOutboxStatus(invalidId, newStatus)
+            eventsOutboxService.findOutboxById(invalidId)
     );
 
     verify(eventsOutboxRepository, never()).findById(any());
-    verify(eventsOutboxRepository, never()).save(any(EventsOutbox.class));
   }
 
   @Test
-  void updateOutboxStatus_WhenNullId_ShouldThrowNullPointerException() {
-    // Given
-    String newStatus = "SENT";
-
+  void findOutboxById_WhenNullId_ShouldThrowNullPointerException() {
     // When & Then
     assertThrows(NullPointerException.class, () ->
-            eventsOutboxService.updateOutboxStatus(null, newStatus)
+            eventsOutboxService.findOutboxById(null)
     );
 
     verify(eventsOutboxRepository, never()).findById(any());
-    verify(eventsOutboxRepository, never()).save(any(EventsOutbox.class));
   }
 
   @Test
-  void updateOutboxStatus_WhenNullStatus_ShouldUpdateWithNullStatus() {
-    // Given
+  void findOutboxById_ShouldReturnCorrectOutbox() {
+    // When
     when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-    when(eventsOutboxRepository.save(any(EventsOutbox.class))).thenReturn(testOutbox);
 
-    // When
-    eventsOutboxService.updateOutboxStatus(testIdString, null);
+    EventsOutbox result = eventsOutboxService.findOutboxById(testIdString);
 
     // Then
-    verify(eventsOutboxRepository).findById(testId);
-    verify(eventsOutboxRepository).save(argThat(outbox ->
-            outbox.getId().equals(testId) &&
-                    outbox.getStatus() == null
-    ));
+    assertNotNull(result);
+    assertEquals(testOutbox.getId(), result.getId());
+    assertEquals(testOutbox.getStatus(), result.getStatus());
+    assertEquals(testOutbox.getAggregateType(), result.getAggregateType());
+    assertEquals(testOutbox.getEventType(), result.getEventType());
+    assertEquals(testOutbox.getPayload(), result.getPayload());
+    assertEquals(testOutbox.getTimestamp(), result.getTimestamp());
   }
 
   @Test
-  void updateOutboxStatus_WhenEmptyStatus_ShouldUpdateWithEmptyStatus() {
+  void updateOutboxStatuses_ShouldIssueOneStatementPerStatus() {
     // Given
-    String emptyStatus = "";
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-    when(eventsOutboxRepository.save(any(EventsOutbox.class))).thenReturn(testOutbox);
+    UUID sentId = UUID.randomUUID();
+    UUID failedId = UUID.randomUUID();
 
     // When
-    eventsOutboxService.updateOutboxStatus(testIdString, emptyStatus);
+    eventsOutboxService.updateOutboxStatuses(Map.of(
+            "SENT", List.of(testIdString, sentId.toString()),
+            "FAILED", List.of(failedId.toString())));
 
     // Then
-    verify(eventsOutboxRepository).findById(testId);
-    verify(eventsOutboxRepository).save(argThat(outbox ->
-            outbox.getId().equals(testId) &&
-                    emptyStatus.equals(outbox.getStatus())
-    ));
+    verify(eventsOutboxRepository).updateStatusByIdIn(List.of(testId, sentId), "SENT");
+    verify(eventsOutboxRepository).updateStatusByIdIn(List.of(failedId), "FAILED");
+    verify(eventsOutboxRepository, never()).findById(any());
+    verify(eventsOutboxRepository, never()).save(any(EventsOutbox.class));
   }
 
   @Test
-  void findOutboxById_WhenOutboxExists_ShouldReturnOutbox() {
-    // Given
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-
+  void updateOutboxStatuses_ShouldRecordBatchSizeAndStatementTime() {
     // When
-    EventsOutbox result = eventsOutboxService.findOutboxById(testIdString);
+    eventsOutboxService.updateOutboxStatuses(Map.of("SENT", List.of(testIdString, UUID.randomUUID().toString())));
 
     // Then
-    assertNotNull(result);
-    assertEquals(testOutbox, result);
-    verify(eventsOutboxRepository).findById(testId);
+    assertEquals(2.0, meterRegistry.get("outbox.status.update.batch.size").tag("status", "SENT")
+            .summary().totalAmount());
+    assertEquals(1L, meterRegistry.get("outbox.status.update").tag("status", "SENT")
+            .timer().count());
   }
 
   @Test
-  void findOutboxById_WhenOutboxDoesNotExist_ShouldThrowRuntimeException() {
-    // Given
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.empty());
-
-    // When & Then
-    RuntimeException exception = assertThrows(RuntimeException.class, () ->
-            eventsOutboxService.findOutboxById(testIdString)
-    );
+  void updateOutboxStatuses_WhenStatusHasNoIds_ShouldSkipStatement() {
+    // When
+    eventsOutboxService.updateOutboxStatuses(Map.of("SENT", List.of(), "FAILED", List.of()));
 
-    assertEquals("Outbox event not found with id: " + testIdString, exception.getMessage());
-    verify(eventsOutboxRepository).findById(testId);
+    // Then
+    verifyNoInteractions(eventsOutboxRepository);
   }
 
   @Test
-  void findOutboxById_WhenInvalidUUID_ShouldThrowIllegalArgumentException() {
+  void updateOutboxEvents_ShouldStoreEventTypeAndPayloadOnTheRow() {
     // Given
-    String invalidId = "invalid-uuid";
+    testOutbox.setEventType("SubscriptionUpdated");
+    var merged = new SubscriptionChangeEvent(testIdString, testOutbox.getTimestamp(), "SubscriptionCreated",
+            createTestSubscriptionChangePayload());
+    when(eventsOutboxRepository.findAllById(Set.of(testId))).thenReturn(List.of(testOutbox));
 
-    // When & Then
-    assertThrows(IllegalArgumentException.class, () ->
-            eventsOutboxService.findOutboxById(invalidId)
-    );
+    // When
+    eventsOutboxService.updateOutboxEvents(List.of(merged));
 
-    verify(eventsOutboxRepository, never()).findById(any());
+    // Then
+    assertEquals("SubscriptionCreated", testOutbox.getEventType());
+    assertEquals(merged.payload(), testOutbox.getPayload());
+    verify(eventsOutboxRepository).saveAll(List.of(testOutbox));
   }
 
   @Test
-  void findOutboxById_WhenNullId_ShouldThrowNullPointerException() {
-    // When & Then
-    assertThrows(NullPointerException.class, () ->
-            eventsOutboxService.findOutboxById(null)
-    );
+  void updateOutboxEvents_WhenEmpty_ShouldNotTouchRepository() {
+    // When
+    eventsOutboxService.updateOutboxEvents(List.of());
 
-    verify(eventsOutboxRepository, never()).findById(any());
+    // Then
+    verifyNoInteractions(eventsOutboxRepository);
   }
 
   @Test
-  void updateOutboxStatus_ShouldPreserveOtherFields() {
+  void recordFailedAttempts_BelowMaxAttempts_ShouldScheduleRetryWithBackoff() {
     // Given
-    String newStatus = "FAILED";
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-    when(eventsOutboxRepository.save(any(EventsOutbox.class))).thenReturn(testOutbox);
+    long before = System.currentTimeMillis();
+    when(eventsOutboxRepository.findAllById(List.of(testId))).thenReturn(List.of(testOutbox));
 
     // When
-    eventsOutboxService.updateOutboxStatus(testIdString, newStatus);
+    eventsOutboxService.recordFailedAttempts(List.of(testIdString));
 
     // Then
-    verify(eventsOutboxRepository).save(argThat(outbox ->
-            outbox.getId().equals(testId) &&
-                    outbox.getAggregateType().equals(testOutbox.getAggregateType()) &&
-                    outbox.getAggregateId().equals(testOutbox.getAggregateId()) &&
-                    outbox.getEventType().equals(testOutbox.getEventType()) &&
-                    outbox.getPayload().equals(testOutbox.getPayload()) &&
-                    outbox.getTimestamp() == testOutbox.getTimestamp() &&
-                    newStatus.equals(outbox.getStatus())
-    ));
+    assertEquals("FAILED", testOutbox.getStatus());
+    assertEquals(1, testOutbox.getAttempts());
+    assertTrue(testOutbox.getNextAttemptAt() >= before);
+    assertTrue(testOutbox.getNextAttemptAt() <= System.currentTimeMillis() + 1000);
+    verify(eventsOutboxRepository).saveAll(List.of(testOutbox));
+    assertEquals(1.0, meterRegistry.get("outbox.retry.scheduled").counter().count());
   }
 
   @Test
-  void updateOutboxStatus_WhenRepositorySaveFails_ShouldPropagateException() {
+  void recordFailedAttempts_ShouldBackOffEveryEventOfAnAggregateTogether() {
     // Given
-    String newStatus = "SENT";
-    RuntimeException saveException = new RuntimeException("Database connection failed");
-
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
-    when(eventsOutboxRepository.save(any(EventsOutbox.class))).thenThrow(saveException);
+    testOutbox.setAttempts(1);
+    var follower = new EventsOutbox();
+    follower.setId(UUID.randomUUID());
+    follower.setAggregateId(testOutbox.getAggregateId());
+    follower.setStatus("PENDING");
+    when(eventsOutboxRepository.findAllById(List.of(testId, follower.getId())))
+            .thenReturn(List.of(testOutbox, follower));
 
-    // When & Then
-    RuntimeException exception = assertThrows(RuntimeException.class, () ->
-            eventsOutboxService.updateOutboxStatus(testIdString, newStatus)
-    );
+    // When
+    eventsOutboxService.recordFailedAttempts(List.of(testIdString, follower.getId().toString()));
 
-    assertEquals("Database connection failed", exception.getMessage());
-    verify(eventsOutboxRepository).findById(testId);
-    verify(eventsOutboxRepository).save(any(EventsOutbox.class));
+    // Then
+    assertEquals(2, testOutbox.getAttempts());
+    assertEquals(1, follower.getAttempts());
+    assertEquals(testOutbox.getNextAttemptAt(), follower.getNextAttemptAt());
   }
 
   @Test
-  void findOutboxById_ShouldReturnCorrectOutbox() {
+  void recordFailedAttempts_AtMaxAttempts_ShouldMoveToDead() {
+    // Given
+    testOutbox.setAttempts(2);
+    when(eventsOutboxRepository.findAllById(List.of(testId))).thenReturn(List.of(testOutbox));
+
     // When
-    when(eventsOutboxRepository.findById(testId)).thenReturn(Optional.of(testOutbox));
+    eventsOutboxService.recordFailedAttempts(List.of(testIdString));
 
-    EventsOutbox result = eventsOutboxService.findOutboxById(testIdString);
+    // Then
+    assertEquals("DEAD", testOutbox.getStatus());
+    assertEquals(3, testOutbox.getAttempts());
+    assertEquals(1.0, meterRegistry.get("outbox.dead.lettered").counter().count());
+    assertEquals(0.0, meterRegistry.get("outbox.retry.scheduled").counter().count());
+  }
+
+  @Test
+  void recordFailedAttempts_WhenEmpty_ShouldNotTouchRepository() {
+    // When
+    eventsOutboxService.recordFailedAttempts(List.of());
 
     // Then
-    assertNotNull(result);
-    assertEquals(testOutbox.getId(), result.getId());
-    assertEquals(testOutbox.getStatus(), result.getStatus());
-    assertEquals(testOutbox.getAggregateType(), result.getAggregateType());
-    assertEquals(testOutbox.getEventType(), result.getEventType());
-    assertEquals(testOutbox.getPayload(), result.getPayload());
-    assertEquals(testOutbox.getTimestamp(), result.getTimestamp());
+    verifyNoInteractions(eventsOutboxRepository);
   }
 
-  private SubscriptionResponse createTestSubscriptionResponse() {
+  private SubscriptionChangePayload createTestSubscriptionChangePayload() {
     Subscription subscription = new Subscription();
     subscription.setId(UUID.randomUUID());
     subscription.setCurrencyPair("GBP/USD");
@@ -268,6 +265,6 @@ class EventsOutboxServiceTest {
     subscription.setStatus(SubscriptionStatus.ACTIVE);
     subscription.setCreatedAt(Instant.now());
 
-    return SubscriptionResponse.fromSubscription(subscription);
+    return SubscriptionChangePayload.snapshot(subscription);
   }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.cache.CacheInvalidationBus;
+import com.example.fx.subscription.service.model.FxUser;
+import com.example.fx.subscription.service.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FxPrincipalCacheTest {
+
+  private static final String EMAIL = "test@example.com";
+
+  @Mock
+  private FxUserDetailsService fxUserDetailsService;
+
+  @Mock
+  private CacheInvalidationBus cacheInvalidationBus;
+
+  private SimpleMeterRegistry meterRegistry;
+  private FxPrincipalCache fxPrincipalCache;
+  private FxUser testUser;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    fxPrincipalCache = new FxPrincipalCache(fxUserDetailsService, 100, Duration.ofMinutes(1), cacheInvalidationBus,
+            meterRegistry);
+
+    testUser = new FxUser(UUID.randomUUID(), EMAIL, "encodedPassword", UserRole.USER);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void constructor_ShouldRegisterWithInvalidationBus() {
+    verify(cacheInvalidationBus).register(fxPrincipalCache);
+  }
+
+  @Test
+  void loadUserByUsername_ShouldLoadOncePerSubject() {
+    // Given
+    when(fxUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(testUser);
+
+    // When
+    var first = fxPrincipalCache.loadUserByUsername(EMAIL);
+    var second = fxPrincipalCache.loadUserByUsername(EMAIL);
+
+    // Then
+    assertSame(testUser, first);
+    assertSame(testUser, second);
+    verify(fxUserDetailsService, times(1)).loadUserByUsername(EMAIL);
+    assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+            .functionCounter().count());
+  }
+
+  @Test
+  void loadUserByUsername_WhenUserNotFound_ShouldNotCacheFailure() {
+    // Given
+    when(fxUserDetailsService.loadUserByUsername(EMAIL))
+            .thenThrow(new UsernameNotFoundException("User not found"))
+            .thenReturn(testUser);
+
+    // When & Then
+    assertThrows(UsernameNotFoundException.class, () -> fxPrincipalCache.loadUserByUsername(EMAIL));
+    assertSame(testUser, fxPrincipalCache.loadUserByUsername(EMAIL));
+  }
+
+  @Test
+  void evict_WithoutTransaction_ShouldEvictAndBroadcast() {
+    // Given
+    when(fxUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(testUser);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+
+    // When
+    fxPrincipalCache.evict(EMAIL);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+
+    // Then
+    verify(cacheInvalidationBus).publishEvict("principals", EMAIL);
+    verify(fxUserDetailsService, times(2)).loadUserByUsername(EMAIL);
+  }
+
+  @Test
+  void evict_InTransaction_ShouldWaitForCommit() {
+    // Given
+    when(fxUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(testUser);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+    TransactionSynchronizationManager.initSynchronization();
+
+    // When
+    fxPrincipalCache.evict(EMAIL);
+
+    // Then
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+    verify(fxUserDetailsService, times(1)).loadUserByUsername(EMAIL);
+    verify(cacheInvalidationBus, never()).publishEvict(any(), any());
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+    verify(fxUserDetailsService, times(2)).loadUserByUsername(EMAIL);
+    verify(cacheInvalidationBus).publishEvict("principals", EMAIL);
+  }
+
+  @Test
+  void evictLocal_ShouldEvictWithoutBroadcast() {
+    // Given
+    when(fxUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(testUser);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+
+    // When
+    fxPrincipalCache.evictLocal(EMAIL);
+    fxPrincipalCache.loadUserByUsername(EMAIL);
+
+    // Then
+    verify(fxUserDetailsService, times(2)).loadUserByUsername(EMAIL);
+    verify(cacheInvalidationBus, never()).publishEvict(any(), any());
+  }
+}
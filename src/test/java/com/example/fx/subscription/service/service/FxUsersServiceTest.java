@@ -28,6 +28,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +43,9 @@ class FxUsersServiceTest {
   @Mock
   private SubscriptionRepository subscriptionRepository;
 
+  @Mock
+  private FxPrincipalCache fxPrincipalCache;
+
   @InjectMocks
   private FxUsersService fxUsersService;
 
@@ -149,6 +153,8 @@ class FxUsersServiceTest {
     // Then
     assertNotNull(result);
     verify(fxUserRepository).save(testUser);
+    verify(fxPrincipalCache).evict("test@example.com");
+    verify(fxPrincipalCache).evict("updated@example.com");
   }
 
   @Test
@@ -187,6 +193,7 @@ class FxUsersServiceTest {
     // Then
     assertNotNull(result);
     verify(fxUserRepository).save(testUser);
+    verify(fxPrincipalCache, times(1)).evict("test@example.com");
   }
 
   @Test
@@ -202,6 +209,7 @@ class FxUsersServiceTest {
     assertNotNull(result);
     assertFalse(testUser.isEnabled());
     verify(fxUserRepository).save(testUser);
+    verify(fxPrincipalCache).evict("test@example.com");
   }
 
   @Test
@@ -227,6 +235,7 @@ class FxUsersServiceTest {
 
     // Then
     verify(fxUserRepository).delete(testUser);
+    verify(fxPrincipalCache).evict("test@example.com");
   }
 
   @Test
@@ -0,0 +1,205 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
+import com.example.fx.subscription.service.model.SubscriptionStatus;
+import com.example.fx.subscription.service.model.ThresholdDirection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxCompactorTest {
+
+  @Mock
+  private EventsOutboxService eventsOutboxService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxCompactor outboxCompactor;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    outboxCompactor = new OutboxCompactor(eventsOutboxService, true, meterRegistry);
+  }
+
+  @Test
+  void compact_ShouldKeepOnlyLatestUpdatePerSubscription() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var first = createEvent(subscriptionId, "SubscriptionUpdated", 1L, "1.10");
+    var second = createEvent(subscriptionId, "SubscriptionUpdated", 2L, "1.20");
+    var latest = createEvent(subscriptionId, "SubscriptionUpdated", 3L, "1.30");
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(first, second, latest));
+
+    // Then
+    assertEquals(List.of(latest), compacted);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("COMPACTED", List.of(first.eventId(), second.eventId())));
+    assertEquals(2.0, meterRegistry.get("outbox.compaction.superseded").counter().count());
+  }
+
+  @Test
+  void compact_CreateFollowedByUpdates_ShouldPublishLatestStateAsCreate() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var created = createEvent(subscriptionId, "SubscriptionCreated", 1L, "1.10");
+    var updated = createEvent(subscriptionId, "SubscriptionUpdated", 2L, "1.20");
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(created, updated));
+
+    // Then
+    assertEquals(1, compacted.size());
+    assertEquals(updated.eventId(), compacted.getFirst().eventId());
+    assertEquals("SubscriptionCreated", compacted.getFirst().eventType());
+    assertEquals(updated.payload(), compacted.getFirst().payload());
+  }
+
+  @Test
+  void compact_WhenSurvivorIsMerged_ShouldWriteItBackBeforeCompactingTheOthers() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var created = createEvent(subscriptionId, "SubscriptionCreated", 1L, "1.10");
+    var updated = createEvent(subscriptionId, "SubscriptionUpdated", 2L, "1.20");
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(created, updated));
+
+    // Then
+    var inOrder = inOrder(eventsOutboxService);
+    inOrder.verify(eventsOutboxService).updateOutboxEvents(compacted);
+    inOrder.verify(eventsOutboxService).updateOutboxStatuses(Map.of("COMPACTED", List.of(created.eventId())));
+  }
+
+  @Test
+  void compact_WhenDeleteSurvives_ShouldNotRewriteIt() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var updated = createEvent(subscriptionId, "SubscriptionUpdated", 1L, "1.10");
+    var deleted = createEvent(subscriptionId, "SubscriptionDeleted", 2L, "1.10");
+
+    // When
+    outboxCompactor.compact(List.of(updated, deleted));
+
+    // Then
+    verify(eventsOutboxService).updateOutboxEvents(List.of());
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("COMPACTED", List.of(updated.eventId())));
+  }
+
+  @Test
+  void compact_ShouldMergeUpdateDeltasIntoOneDelta() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var thresholdChange = new SubscriptionChangeEvent(UUID.randomUUID().toString(), 1L, "SubscriptionUpdated",
+            new SubscriptionChangePayload(subscriptionId, 1, null, null, null, new BigDecimal("1.20"), null, null, null,
+                    null, "2026-01-01T00:00:01Z"));
+    var statusChange = new SubscriptionChangeEvent(UUID.randomUUID().toString(), 2L, "SubscriptionUpdated",
+            new SubscriptionChangePayload(subscriptionId, 2, null, null, null, null, null, null, SubscriptionStatus.INACTIVE,
+                    null, "2026-01-01T00:00:02Z"));
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(thresholdChange, statusChange));
+
+    // Then
+    assertEquals(List.of(new SubscriptionChangeEvent(statusChange.eventId(), 2L, "SubscriptionUpdated",
+            new SubscriptionChangePayload(subscriptionId, 2, null, null, null, new BigDecimal("1.20"), null, null,
+                    SubscriptionStatus.INACTIVE, null, "2026-01-01T00:00:02Z"))), compacted);
+  }
+
+  @Test
+  void compact_ShouldKeepDeleteTerminal() {
+    // Given
+    String subscriptionId = UUID.randomUUID().toString();
+    var created = createEvent(subscriptionId, "SubscriptionCreated", 1L, "1.10");
+    var updated = createEvent(subscriptionId, "SubscriptionUpdated", 2L, "1.20");
+    var deleted = createEvent(subscriptionId, "SubscriptionDeleted", 3L, "1.20");
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(created, updated, deleted));
+
+    // Then
+    assertEquals(List.of(deleted), compacted);
+  }
+
+  @Test
+  void compact_ShouldLeaveOtherSubscriptionsAndOrderAlone() {
+    // Given
+    String chattyId = UUID.randomUUID().toString();
+    var chattyFirst = createEvent(chattyId, "SubscriptionUpdated", 1L, "1.10");
+    var other = createEvent(UUID.randomUUID().toString(), "SubscriptionUpdated", 2L, "1.50");
+    var chattyLatest = createEvent(chattyId, "SubscriptionUpdated", 3L, "1.30");
+
+    // When
+    var compacted = outboxCompactor.compact(List.of(chattyFirst, other, chattyLatest));
+
+    // Then
+    assertEquals(List.of(other, chattyLatest), compacted);
+  }
+
+  @Test
+  void compact_WhenNothingToCollapse_ShouldNotUpdateStatuses() {
+    // Given
+    var events = List.of(
+            createEvent(UUID.randomUUID().toString(), "SubscriptionUpdated", 1L, "1.10"),
+            createEvent(UUID.randomUUID().toString(), "SubscriptionUpdated", 2L, "1.20"));
+
+    // When
+    var compacted = outboxCompactor.compact(events);
+
+    // Then
+    assertSame(events, compacted);
+    verifyNoInteractions(eventsOutboxService);
+  }
+
+  @Test
+  void compact_WhenDisabled_ShouldReturnEventsUnchanged() {
+    // Given
+    outboxCompactor = new OutboxCompactor(eventsOutboxService, false, meterRegistry);
+    String subscriptionId = UUID.randomUUID().toString();
+    var events = List.of(
+            createEvent(subscriptionId, "SubscriptionUpdated", 1L, "1.10"),
+            createEvent(subscriptionId, "SubscriptionUpdated", 2L, "1.20"));
+
+    // When
+    var compacted = outboxCompactor.compact(events);
+
+    // Then
+    assertSame(events, compacted);
+    verifyNoInteractions(eventsOutboxService);
+  }
+
+  private SubscriptionChangeEvent createEvent(String subscriptionId, String eventType, long timestamp, String threshold) {
+    return new SubscriptionChangeEvent(
+            UUID.randomUUID().toString(),
+            timestamp,
+            eventType,
+            new SubscriptionChangePayload(
+                    subscriptionId,
+                    timestamp,
+                    null,
+                    null,
+                    "GBP/USD",
+                    new BigDecimal(threshold),
+                    ThresholdDirection.ABOVE,
+                    List.of("EMAIL"),
+                    SubscriptionStatus.ACTIVE,
+                    Instant.now().toString(),
+                    Instant.now().toString()
+            )
+    );
+  }
+}
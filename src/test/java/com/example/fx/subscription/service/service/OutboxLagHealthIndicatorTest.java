@@ -0,0 +1,108 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Status;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxLagHealthIndicatorTest {
+
+  private static final Duration LAG_THRESHOLD = Duration.ofMinutes(1);
+
+  @Mock
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxLagHealthIndicator outboxLagHealthIndicator;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    outboxLagHealthIndicator = new OutboxLagHealthIndicator(eventsOutboxRepository, LAG_THRESHOLD, "polling", meterRegistry);
+  }
+
+  @Test
+  void health_WhenOutboxIsEmpty_ShouldBeUp() {
+    // Given
+    when(eventsOutboxRepository.countByStatus("PENDING")).thenReturn(0L);
+    when(eventsOutboxRepository.findOldestTimestampByStatus("PENDING")).thenReturn(null);
+
+    // When
+    outboxLagHealthIndicator.refresh();
+
+    // Then
+    assertEquals(Status.UP, outboxLagHealthIndicator.health().getStatus());
+    assertEquals(0, meterRegistry.get("outbox.pending").gauge().value());
+    assertEquals(0, meterRegistry.get("outbox.pending.oldest.age").timeGauge().value());
+  }
+
+  @Test
+  void health_WhenOldestPendingIsWithinThreshold_ShouldBeUp() {
+    // Given
+    when(eventsOutboxRepository.countByStatus("PENDING")).thenReturn(3L);
+    when(eventsOutboxRepository.findOldestTimestampByStatus("PENDING")).thenReturn(System.currentTimeMillis() - 5_000);
+
+    // When
+    outboxLagHealthIndicator.refresh();
+
+    // Then
+    var health = outboxLagHealthIndicator.health();
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(3L, health.getDetails().get("pending"));
+    assertEquals(3, meterRegistry.get("outbox.pending").gauge().value());
+    assertTrue(meterRegistry.get("outbox.pending.oldest.age").timeGauge().value(TimeUnit.SECONDS) >= 5);
+  }
+
+  @Test
+  void health_WhenOldestPendingExceedsThreshold_ShouldBeDegraded() {
+    // Given
+    when(eventsOutboxRepository.countByStatus("PENDING")).thenReturn(1L);
+    when(eventsOutboxRepository.findOldestTimestampByStatus("PENDING"))
+            .thenReturn(System.currentTimeMillis() - LAG_THRESHOLD.toMillis() - 1_000);
+
+    // When
+    outboxLagHealthIndicator.refresh();
+
+    // Then
+    assertEquals(OutboxLagHealthIndicator.DEGRADED, outboxLagHealthIndicator.health().getStatus());
+  }
+
+  @Test
+  void refresh_WhenRepositoryFails_ShouldKeepLastValues() {
+    // Given
+    when(eventsOutboxRepository.countByStatus("PENDING")).thenReturn(2L).thenThrow(new RuntimeException("DB Down"));
+    when(eventsOutboxRepository.findOldestTimestampByStatus("PENDING")).thenReturn(System.currentTimeMillis());
+    outboxLagHealthIndicator.refresh();
+
+    // When
+    outboxLagHealthIndicator.refresh();
+
+    // Then
+    assertEquals(2, meterRegistry.get("outbox.pending").gauge().value());
+  }
+
+  @Test
+  void health_WhenRelayIsCdc_ShouldNotQueryOutbox() {
+    // Given
+    outboxLagHealthIndicator = new OutboxLagHealthIndicator(eventsOutboxRepository, LAG_THRESHOLD, "cdc",
+            new SimpleMeterRegistry());
+
+    // When
+    outboxLagHealthIndicator.refresh();
+
+    // Then
+    assertEquals(Status.UP, outboxLagHealthIndicator.health().getStatus());
+    verifyNoInteractions(eventsOutboxRepository);
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxPollTriggerTest {
+
+  private static final Duration RATE = Duration.ofSeconds(8);
+  private static final Duration INITIAL_DELAY = Duration.ofSeconds(30);
+  private static final Duration MIN_RATE = Duration.ofSeconds(1);
+  private static final Duration MAX_RATE = Duration.ofSeconds(20);
+  private static final Duration LAG_TARGET = Duration.ofSeconds(5);
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxPollTrigger outboxPollTrigger;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    outboxPollTrigger = new OutboxPollTrigger(RATE, INITIAL_DELAY, MIN_RATE, MAX_RATE, LAG_TARGET, meterRegistry);
+  }
+
+  @Test
+  void nextExecution_BeforeFirstRun_ShouldWaitInitialDelay() {
+    // Given
+    var now = Instant.parse("2026-01-01T00:00:00Z");
+    var triggerContext = new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC));
+
+    // When & Then
+    assertEquals(now.plus(INITIAL_DELAY), outboxPollTrigger.nextExecution(triggerContext));
+  }
+
+  @Test
+  void nextExecution_AfterRun_ShouldWaitCurrentIntervalFromCompletion() {
+    // Given
+    var completion = Instant.parse("2026-01-01T00:00:00Z");
+    var triggerContext = new SimpleTriggerContext(completion.minusSeconds(1), completion.minusSeconds(1), completion);
+
+    // When & Then
+    assertEquals(completion.plus(RATE), outboxPollTrigger.nextExecution(triggerContext));
+  }
+
+  @Test
+  void onDrain_WhenEmptyRunsRepeat_ShouldBackOffExponentiallyUpToMaxRate() {
+    // When
+    outboxPollTrigger.onDrain(0, false, 0);
+    var afterOne = outboxPollTrigger.currentInterval();
+    outboxPollTrigger.onDrain(0, false, 0);
+    outboxPollTrigger.onDrain(0, false, 0);
+
+    // Then
+    assertEquals(Duration.ofSeconds(16), afterOne);
+    assertEquals(MAX_RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void onDrain_WhenBacklogRemains_ShouldPollAtMinRate() {
+    // When
+    outboxPollTrigger.onDrain(100, true, System.currentTimeMillis());
+
+    // Then
+    assertEquals(MIN_RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void onDrain_WhenOldestEventExceedsLagTarget_ShouldPollAtMinRate() {
+    // When
+    outboxPollTrigger.onDrain(1, false, System.currentTimeMillis() - LAG_TARGET.toMillis() - 1_000);
+
+    // Then
+    assertEquals(MIN_RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void onDrain_WhenFreshEventsFound_ShouldHalveIntervalDownToMinRate() {
+    // When
+    outboxPollTrigger.onDrain(1, false, System.currentTimeMillis());
+    var afterOne = outboxPollTrigger.currentInterval();
+    for (int i = 0; i < 5; i++) {
+      outboxPollTrigger.onDrain(1, false, System.currentTimeMillis());
+    }
+
+    // Then
+    assertEquals(Duration.ofSeconds(4), afterOne);
+    assertEquals(MIN_RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void onDrain_ShouldExposeCurrentIntervalAsGauge() {
+    // When
+    outboxPollTrigger.onDrain(0, false, 0);
+
+    // Then
+    assertEquals(16, meterRegistry.get("outbox.poll.interval").timeGauge().value(TimeUnit.SECONDS));
+  }
+
+  @Test
+  void constructor_WhenMinRateExceedsMaxRate_ShouldFail() {
+    assertThrows(IllegalArgumentException.class, () -> new OutboxPollTrigger(RATE, INITIAL_DELAY, MAX_RATE, MIN_RATE,
+            LAG_TARGET, new SimpleMeterRegistry()));
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.fx.subscription.service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRetryPolicyTest {
+
+  private final OutboxRetryPolicy outboxRetryPolicy =
+          new OutboxRetryPolicy(Duration.ofMillis(100), Duration.ofSeconds(1), 5);
+
+  @Test
+  void backoff_ShouldStayWithinExponentialCeiling() {
+    for (int i = 0; i < 100; i++) {
+      assertTrue(outboxRetryPolicy.backoff(1).toMillis() <= 100);
+      assertTrue(outboxRetryPolicy.backoff(3).toMillis() <= 400);
+    }
+  }
+
+  @Test
+  void backoff_ShouldBeCappedAtMaxBackoff() {
+    for (int i = 0; i < 100; i++) {
+      long backoff = outboxRetryPolicy.backoff(50).toMillis();
+      assertTrue(backoff >= 0 && backoff <= 1000);
+    }
+  }
+
+  @Test
+  void isExhausted_ShouldTripAtMaxAttempts() {
+    assertFalse(outboxRetryPolicy.isExhausted(4));
+    assertTrue(outboxRetryPolicy.isExhausted(5));
+  }
+}
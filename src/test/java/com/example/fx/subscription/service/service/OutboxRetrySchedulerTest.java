@@ -0,0 +1,119 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.model.*;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRetrySchedulerTest {
+
+  private static final int BATCH_SIZE = 5;
+
+  @Mock
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  @Mock
+  private SubscriptionChangePublisher subscriptionChangePublisher;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private SchedulerLeadership schedulerLeadership;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxRetryScheduler outboxRetryScheduler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    outboxRetryScheduler = new OutboxRetryScheduler(
+            eventsOutboxRepository, subscriptionChangePublisher, transactionTemplate, schedulerLeadership, BATCH_SIZE,
+            meterRegistry);
+    lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    lenient().when(schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_RETRY)).thenReturn(true);
+  }
+
+  @Test
+  void retryFailedEvents_ShouldRepublishDueEventsAndRefreshGauges() {
+    // Given
+    EventsOutbox failed = createFailedOutbox();
+    when(eventsOutboxRepository.claimDueByStatus(eq("FAILED"), anyLong(), eq(BATCH_SIZE))).thenReturn(List.of(failed));
+    when(eventsOutboxRepository.countByStatus("FAILED")).thenReturn(4L);
+    when(eventsOutboxRepository.countByStatus("DEAD")).thenReturn(2L);
+
+    // When
+    outboxRetryScheduler.retryFailedEvents();
+
+    // Then
+    verify(subscriptionChangePublisher).sendMessages(List.of(SubscriptionChangeEvent.fromEventsOutbox(failed)));
+    assertEquals(1.0, meterRegistry.get("outbox.retry.attempts").counter().count());
+    assertEquals(4.0, meterRegistry.get("outbox.retry.backlog").gauge().value());
+    assertEquals(2.0, meterRegistry.get("outbox.dead.letters").gauge().value());
+  }
+
+  @Test
+  void retryFailedEvents_WhenNothingIsDue_ShouldPublishNothing() {
+    // Given
+    when(eventsOutboxRepository.claimDueByStatus(eq("FAILED"), anyLong(), eq(BATCH_SIZE))).thenReturn(List.of());
+
+    // When
+    outboxRetryScheduler.retryFailedEvents();
+
+    // Then
+    verify(subscriptionChangePublisher).sendMessages(List.of());
+    assertEquals(0.0, meterRegistry.get("outbox.retry.attempts").counter().count());
+  }
+
+  @Test
+  void retryFailedEvents_WhenNotLeader_ShouldStayIdle() {
+    // Given
+    when(schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_RETRY)).thenReturn(false);
+
+    // When
+    outboxRetryScheduler.retryFailedEvents();
+
+    // Then
+    verifyNoInteractions(eventsOutboxRepository, subscriptionChangePublisher, transactionTemplate);
+  }
+
+  private EventsOutbox createFailedOutbox() {
+    Subscription subscription = new Subscription();
+    subscription.setId(UUID.randomUUID());
+    subscription.setCurrencyPair("GBP/USD");
+    subscription.setThreshold(BigDecimal.valueOf(1.25));
+    subscription.setDirection(ThresholdDirection.ABOVE);
+    subscription.setNotificationsChannels(List.of("email"));
+    subscription.setStatus(SubscriptionStatus.ACTIVE);
+    subscription.setCreatedAt(Instant.now());
+
+    EventsOutbox outbox = new EventsOutbox();
+    outbox.setId(UUID.randomUUID());
+    outbox.setAggregateType("Subscription");
+    outbox.setAggregateId(subscription.getId());
+    outbox.setEventType("SubscriptionCreated");
+    outbox.setPayload(SubscriptionChangePayload.snapshot(subscription));
+    outbox.setStatus("FAILED");
+    outbox.setAttempts(1);
+    outbox.setTimestamp(System.currentTimeMillis());
+    return outbox;
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.fx.subscription.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgOutputDecoderTest {
+
+  private static final int OUTBOX_RELATION_ID = 16384;
+  private static final int OTHER_RELATION_ID = 16400;
+
+  private PgOutputDecoder decoder;
+
+  @BeforeEach
+  void setUp() {
+    decoder = new PgOutputDecoder("events_outbox");
+  }
+
+  @Test
+  void decode_InsertAfterRelation_ShouldReturnRowByColumnName() throws IOException {
+    // Given
+    decoder.decode(relation(OUTBOX_RELATION_ID, "events_outbox", "id", "event_type", "payload"));
+
+    // When
+    PgOutputDecoder.Message message = decoder.decode(insert(OUTBOX_RELATION_ID, "42", "SubscriptionCreated", null));
+
+    // Then
+    assertEquals(PgOutputDecoder.INSERT, message.type());
+    Map<String, String> row = message.row();
+    assertEquals("42", row.get("id"));
+    assertEquals("SubscriptionCreated", row.get("event_type"));
+    assertTrue(row.containsKey("payload"));
+    assertNull(row.get("payload"));
+  }
+
+  @Test
+  void decode_InsertIntoOtherTable_ShouldReturnNoRow() throws IOException {
+    // Given
+    decoder.decode(relation(OTHER_RELATION_ID, "subscriptions", "id"));
+
+    // When
+    PgOutputDecoder.Message message = decoder.decode(insert(OTHER_RELATION_ID, "42"));
+
+    // Then
+    assertEquals(PgOutputDecoder.INSERT, message.type());
+    assertNull(message.row());
+  }
+
+  @Test
+  void decode_BeginAndCommit_ShouldReturnTypeOnly() {
+    // When
+    PgOutputDecoder.Message begin = decoder.decode(ByteBuffer.wrap(new byte[]{'B', 0, 0, 0, 0}));
+    PgOutputDecoder.Message commit = decoder.decode(ByteBuffer.wrap(new byte[]{'C', 0, 0, 0, 0}));
+
+    // Then
+    assertEquals(PgOutputDecoder.BEGIN, begin.type());
+    assertNull(begin.row());
+    assertEquals(PgOutputDecoder.COMMIT, commit.type());
+    assertNull(commit.row());
+  }
+
+  private static ByteBuffer relation(int relationId, String table, String... columns) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    out.writeByte('R');
+    out.writeInt(relationId);
+    writeString(out, "public");
+    writeString(out, table);
+    out.writeByte('d');
+    out.writeShort(columns.length);
+    for (String column : columns) {
+      out.writeByte(0);
+      writeString(out, column);
+      out.writeInt(25); // text
+      out.writeInt(-1);
+    }
+    return ByteBuffer.wrap(bytes.toByteArray());
+  }
+
+  private static ByteBuffer insert(int relationId, String... values) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    out.writeByte('I');
+    out.writeInt(relationId);
+    out.writeByte('N');
+    out.writeShort(values.length);
+    for (String value : values) {
+      if (value == null) {
+        out.writeByte('n');
+        continue;
+      }
+      byte[] text = value.getBytes(StandardCharsets.UTF_8);
+      out.writeByte('t');
+      out.writeInt(text.length);
+      out.write(text);
+    }
+    return ByteBuffer.wrap(bytes.toByteArray());
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.write(value.getBytes(StandardCharsets.UTF_8));
+    out.writeByte(0);
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.fx.subscription.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLeadershipTest {
+
+  private static final Duration LEASE = Duration.ofSeconds(15);
+  private static final Duration RENEW_INTERVAL = Duration.ofSeconds(5);
+  private static final String NODE_ID = "node-a";
+
+  @Mock
+  private JdbcConnectionDetails jdbcConnectionDetails;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void isLeader_WhenDisabled_ShouldRunEveryJobWithoutConnecting() {
+    // Given
+    var schedulerLeadership = new SchedulerLeadership(jdbcConnectionDetails, false, LEASE, RENEW_INTERVAL, NODE_ID,
+            meterRegistry);
+
+    // When
+    schedulerLeadership.start();
+
+    // Then
+    assertFalse(schedulerLeadership.isRunning());
+    SchedulerLeadership.JOBS.forEach(job -> assertTrue(schedulerLeadership.isLeader(job)));
+    verifyNoInteractions(jdbcConnectionDetails);
+  }
+
+  @Test
+  void isLeader_WhenEnabledAndNoLockHeld_ShouldBeFalse() {
+    // Given
+    var schedulerLeadership = new SchedulerLeadership(jdbcConnectionDetails, true, LEASE, RENEW_INTERVAL, NODE_ID,
+            meterRegistry);
+
+    // When & Then
+    SchedulerLeadership.JOBS.forEach(job -> assertFalse(schedulerLeadership.isLeader(job)));
+  }
+
+  @Test
+  void constructor_ShouldRegisterLeaderGaugePerJobAndNode() {
+    // When
+    new SchedulerLeadership(jdbcConnectionDetails, true, LEASE, RENEW_INTERVAL, NODE_ID, meterRegistry);
+
+    // Then
+    SchedulerLeadership.JOBS.forEach(job -> assertEquals(0, meterRegistry.get("scheduler.leader")
+            .tag("job", job)
+            .tag("node", NODE_ID)
+            .gauge().value()));
+  }
+
+  @Test
+  void constructor_WhenRenewIntervalIsNotShorterThanLease_ShouldFail() {
+    assertThrows(IllegalArgumentException.class, () -> new SchedulerLeadership(jdbcConnectionDetails, true, LEASE,
+            LEASE, NODE_ID, new SimpleMeterRegistry()));
+  }
+}
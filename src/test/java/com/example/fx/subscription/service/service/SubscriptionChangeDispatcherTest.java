@@ -0,0 +1,128 @@
+package com.example.fx.subscription.service.service;
+
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
+import com.example.fx.subscription.service.model.*;
+import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionChangeDispatcherTest {
+
+  private static final String PENDING = "PENDING";
+  private static final String COMMIT_TO_ACK = "outbox.dispatch.commit.to.ack";
+
+  @Mock
+  private EventsOutboxRepository eventsOutboxRepository;
+
+  @Mock
+  private SubscriptionChangePublisher subscriptionChangePublisher;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SubscriptionChangeDispatcher subscriptionChangeDispatcher;
+  private EventsOutbox testEventsOutbox;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    subscriptionChangeDispatcher = new SubscriptionChangeDispatcher(
+            eventsOutboxRepository, subscriptionChangePublisher, transactionTemplate, new SyncTaskExecutor(), meterRegistry);
+    lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+    Subscription testSubscription = new Subscription();
+    testSubscription.setId(UUID.randomUUID());
+    testSubscription.setCurrencyPair("GBP/USD");
+    testSubscription.setThreshold(BigDecimal.valueOf(1.25));
+    testSubscription.setDirection(ThresholdDirection.ABOVE);
+    testSubscription.setStatus(SubscriptionStatus.ACTIVE);
+    testSubscription.setCreatedAt(Instant.now());
+
+    testEventsOutbox = new EventsOutbox();
+    testEventsOutbox.setId(UUID.randomUUID());
+    testEventsOutbox.setAggregateType("Subscription");
+    testEventsOutbox.setAggregateId(testSubscription.getId());
+    testEventsOutbox.setEventType("SubscriptionCreated");
+    testEventsOutbox.setPayload(SubscriptionChangePayload.snapshot(testSubscription));
+    testEventsOutbox.setStatus(PENDING);
+    testEventsOutbox.setTimestamp(System.currentTimeMillis());
+  }
+
+  @Test
+  void onEventsOutboxSaved_WhenRowIsStillPending_ShouldPublishItAndRecordLatency() {
+    // Given
+    when(eventsOutboxRepository.claimByIdInAndStatus(List.of(testEventsOutbox.getId()), PENDING))
+            .thenReturn(List.of(testEventsOutbox));
+    var events = List.of(SubscriptionChangeEvent.fromEventsOutbox(testEventsOutbox));
+    when(subscriptionChangePublisher.sendMessages(events)).thenReturn(List.of(testEventsOutbox.getId().toString()));
+
+    // When
+    subscriptionChangeDispatcher.onEventsOutboxSaved(new EventsOutboxSaved(testEventsOutbox.getId()));
+
+    // Then
+    verify(subscriptionChangePublisher).sendMessages(events);
+    assertEquals(1L, meterRegistry.get(COMMIT_TO_ACK).timer().count());
+  }
+
+  @Test
+  void onEventsOutboxSaved_WhenPublishFails_ShouldNotRecordLatency() {
+    // Given
+    when(eventsOutboxRepository.claimByIdInAndStatus(List.of(testEventsOutbox.getId()), PENDING))
+            .thenReturn(List.of(testEventsOutbox));
+    var events = List.of(SubscriptionChangeEvent.fromEventsOutbox(testEventsOutbox));
+    when(subscriptionChangePublisher.sendMessages(events)).thenReturn(List.of());
+
+    // When
+    subscriptionChangeDispatcher.onEventsOutboxSaved(new EventsOutboxSaved(testEventsOutbox.getId()));
+
+    // Then
+    verify(subscriptionChangePublisher).sendMessages(events);
+    assertEquals(0L, meterRegistry.get(COMMIT_TO_ACK).timer().count());
+  }
+
+  @Test
+  void onEventsOutboxSaved_WhenRowAlreadyClaimed_ShouldNotRecordLatency() {
+    // Given
+    when(eventsOutboxRepository.claimByIdInAndStatus(List.of(testEventsOutbox.getId()), PENDING))
+            .thenReturn(List.of());
+
+    // When
+    subscriptionChangeDispatcher.onEventsOutboxSaved(new EventsOutboxSaved(testEventsOutbox.getId()));
+
+    // Then
+    verify(subscriptionChangePublisher).sendMessages(List.of());
+    assertEquals(0L, meterRegistry.get(COMMIT_TO_ACK).timer().count());
+  }
+
+  @Test
+  void onEventsOutboxSaved_WhenDispatchFails_ShouldLeaveEventToScheduler() {
+    // Given
+    when(eventsOutboxRepository.claimByIdInAndStatus(any(), any()))
+            .thenThrow(new RuntimeException("Database unavailable"));
+    EventsOutboxSaved saved = new EventsOutboxSaved(testEventsOutbox.getId());
+
+    // When & Then
+    assertDoesNotThrow(() -> subscriptionChangeDispatcher.onEventsOutboxSaved(saved));
+    verifyNoInteractions(subscriptionChangePublisher);
+  }
+}
@@ -1,26 +1,34 @@
 package com.example.fx.subscription.service.service;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.model.Subscription;
 import com.example.fx.subscription.service.model.SubscriptionChangeEvent;
 import com.example.fx.subscription.service.model.SubscriptionStatus;
 import com.example.fx.subscription.service.model.ThresholdDirection;
-import org.apache.kafka.clients.producer.RecordMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -30,81 +38,368 @@ class SubscriptionChangePublisherTest {
   @Mock
   private KafkaTemplate<String, SubscriptionChangeEvent> kafkaTemplate;
 
+  @Mock
+  private KafkaTemplate<String, SubscriptionChangeEvent> bulkKafkaTemplate;
+
   @Mock
   private EventsOutboxService eventsOutboxService;
 
   private SubscriptionChangePublisher subscriptionChangePublisher;
   private final String topic = "test-topic";
+  private static final int LANES = 4;
+  private static final int BULK_THRESHOLD = 1_000;
+
+  private SimpleMeterRegistry meterRegistry;
 
   @BeforeEach
   void setUp() {
-    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, eventsOutboxService, topic);
+    meterRegistry = new SimpleMeterRegistry();
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, true, LANES, false,
+            BULK_THRESHOLD, meterRegistry);
+  }
+
+  @Test
+  void sendMessages_WhenPipelined_ShouldSendWholeWindowAndMarkAllSent() {
+    // Given
+    var first = createTestEvent();
+    var second = createTestEvent();
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(first, second));
+
+    // Then
+    verify(kafkaTemplate).send(topic, first.payload().id(), first);
+    verify(kafkaTemplate).send(topic, second.payload().id(), second);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of(first.eventId(), second.eventId())));
+    verify(eventsOutboxService).recordFailedAttempts(List.of());
+  }
+
+  @Test
+  void sendMessages_WhenPipelinedAndOneKeyFails_ShouldFailLaterEventsOfSameKeyOnly() {
+    // Given
+    var subscription = createTestSubscription();
+    var failed = createTestEvent(subscription);
+    var sameKeyAfterFailure = createTestEvent(subscription);
+    var otherKey = createTestEvent();
+    var failedFuture = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
+    failedFuture.completeExceptionally(new RuntimeException("Kafka Down"));
+
+    when(kafkaTemplate.send(topic, failed.payload().id(), failed)).thenReturn(failedFuture);
+    when(kafkaTemplate.send(topic, sameKeyAfterFailure.payload().id(), sameKeyAfterFailure))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    when(kafkaTemplate.send(topic, otherKey.payload().id(), otherKey))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    var sentIds = subscriptionChangePublisher.sendMessages(List.of(failed, sameKeyAfterFailure, otherKey));
+
+    // Then
+    assertEquals(List.of(otherKey.eventId()), sentIds);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of(otherKey.eventId())));
+    verify(eventsOutboxService).recordFailedAttempts(List.of(failed.eventId(), sameKeyAfterFailure.eventId()));
   }
 
   @Test
-  void sendMessage_Success_ShouldUpdateStatusToSent() {
+  void sendMessages_WhenSendThrows_ShouldMarkEventFailed() {
     // Given
     var event = createTestEvent();
-    var metadata = new RecordMetadata(new org.apache.kafka.common.TopicPartition(topic, 0), 0L, 0, 0L, 0, 0);
-    var sendResult = mock(SendResult.class);
+    when(kafkaTemplate.send(anyString(), anyString(), any())).thenThrow(new RuntimeException("Serialization failed"));
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(event));
+
+    // Then
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of()));
+    verify(eventsOutboxService).recordFailedAttempts(List.of(event.eventId()));
+  }
+
+  @Test
+  void sendMessages_WhenNotPipelined_ShouldAwaitEachAckAndSkipLaterEventsOfFailedKey() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, false, LANES, false,
+            BULK_THRESHOLD, meterRegistry);
+    var subscription = createTestSubscription();
+    var failed = createTestEvent(subscription);
+    var sameKeyAfterFailure = createTestEvent(subscription);
+    var failedFuture = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
+    failedFuture.completeExceptionally(new RuntimeException("Kafka Down"));
+
+    when(kafkaTemplate.send(topic, failed.payload().id(), failed)).thenReturn(failedFuture);
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(failed, sameKeyAfterFailure));
 
-    when(sendResult.getRecordMetadata()).thenReturn(metadata);
+    // Then
+    verify(kafkaTemplate, never()).send(topic, sameKeyAfterFailure.payload().id(), sameKeyAfterFailure);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of()));
+    verify(eventsOutboxService).recordFailedAttempts(List.of(failed.eventId(), sameKeyAfterFailure.eventId()));
+  }
+
+  @Test
+  void sendMessages_WithSeveralLanes_ShouldNotMakeOneKeyWaitBehindAnother() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, false, LANES, false,
+            BULK_THRESHOLD, meterRegistry);
+    var slow = createTestEvent();
+    var fast = createTestEventInOtherLane(slow);
+    // The slow event is only acked once the fast one was sent, which deadlocks if both share one thread
+    var slowAck = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
+
+    when(kafkaTemplate.send(topic, slow.payload().id(), slow)).thenReturn(slowAck);
+    when(kafkaTemplate.send(topic, fast.payload().id(), fast)).thenAnswer(_ -> {
+      slowAck.complete(mock(SendResult.class));
+      return CompletableFuture.completedFuture(mock(SendResult.class));
+    });
+
+    // When
+    assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> subscriptionChangePublisher.sendMessages(List.of(slow, fast)));
+
+    // Then
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of(slow.eventId(), fast.eventId())));
+  }
+
+  @Test
+  void sendMessages_WhenEmpty_ShouldNotSendAnything() {
+    // When
+    subscriptionChangePublisher.sendMessages(List.of());
+
+    // Then
+    verifyNoInteractions(kafkaTemplate, eventsOutboxService);
+  }
+
+  @Test
+  void sendAll_ShouldPublishEveryEventWithoutTouchingOutboxStatus() {
+    // Given
+    var first = createTestEvent();
+    var second = createTestEvent();
     when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(sendResult));
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
 
     // When
-    subscriptionChangePublisher.sendMessage(event);
+    subscriptionChangePublisher.sendAll(List.of(first, second));
 
     // Then
-    verify(eventsOutboxService).updateOutboxStatus(event.eventId(), "SENT");
-    verify(kafkaTemplate).send(topic, event.payload().id(), event);
+    verify(kafkaTemplate).send(topic, first.payload().id(), first);
+    verify(kafkaTemplate).send(topic, second.payload().id(), second);
+    verifyNoInteractions(eventsOutboxService);
   }
 
   @Test
-  void sendMessage_KafkaFailure_ShouldUpdateStatusToFailed() {
+  void sendAll_WhenEmpty_ShouldNotCountAChunk() {
+    // When
+    subscriptionChangePublisher.sendAll(List.of());
+
+    // Then
+    verifyNoInteractions(kafkaTemplate);
+    assertEquals(0.0, meterRegistry.get("outbox.publish.chunks").tag("profile", "low-latency").counter().count());
+  }
+
+  @Test
+  void sendAll_WhenOneSendFails_ShouldThrow() {
     // Given
-    var event = createTestEvent();
     var future = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
     future.completeExceptionally(new RuntimeException("Kafka Down"));
-
     when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(future);
+    var events = List.of(createTestEvent());
+
+    // When & Then
+    assertThrows(CompletionException.class, () -> subscriptionChangePublisher.sendAll(events));
+    verifyNoInteractions(eventsOutboxService);
+  }
+
+  @Test
+  void sendMessages_WhenTransactional_ShouldPublishChunkAndMarkSentInsideKafkaTransaction() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, true, LANES, true,
+            BULK_THRESHOLD, meterRegistry);
+    var first = createTestEvent();
+    var second = createTestEvent();
+    runTransactionsInline();
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(first, second));
+
+    // Then
+    verify(kafkaTemplate).executeInTransaction(any());
+    verify(kafkaTemplate).send(topic, first.payload().id(), first);
+    verify(kafkaTemplate).send(topic, second.payload().id(), second);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of(first.eventId(), second.eventId())));
+    verify(eventsOutboxService, never()).recordFailedAttempts(any());
+  }
+
+  @Test
+  void sendMessages_WhenTransactionalAndOneSendFails_ShouldFailWholeChunk() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, true, LANES, true,
+            BULK_THRESHOLD, meterRegistry);
+    var first = createTestEvent();
+    var second = createTestEvent();
+    var failed = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
+    failed.completeExceptionally(new RuntimeException("Kafka Down"));
+    runTransactionsInline();
+    when(kafkaTemplate.send(topic, first.payload().id(), first))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    when(kafkaTemplate.send(topic, second.payload().id(), second)).thenReturn(failed);
 
     // When
-    subscriptionChangePublisher.sendMessage(event);
+    var sentIds = subscriptionChangePublisher.sendMessages(List.of(first, second));
 
     // Then
-    verify(eventsOutboxService).updateOutboxStatus(event.eventId(), "FAILED");
+    assertTrue(sentIds.isEmpty());
+    verify(eventsOutboxService, never()).updateOutboxStatuses(any());
+    verify(eventsOutboxService).recordFailedAttempts(List.of(first.eventId(), second.eventId()));
+  }
+
+  @Test
+  void sendMessages_WhenTransactionalAndStatusUpdateFails_ShouldRethrowWithoutRecordingAttempts() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, true, LANES, true,
+            BULK_THRESHOLD, meterRegistry);
+    var events = List.of(createTestEvent());
+    runTransactionsInline();
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    doThrow(new DataAccessResourceFailureException("DB Down")).when(eventsOutboxService).updateOutboxStatuses(any());
+
+    // When & Then
+    assertThrows(DataAccessResourceFailureException.class, () -> subscriptionChangePublisher.sendMessages(events));
+    verify(eventsOutboxService, never()).recordFailedAttempts(any());
   }
 
   @Test
-  void sendMessage_WhenInterrupted_ShouldRestoreStatusAndFail() {
+  void sendAll_WhenTransactional_ShouldPublishInsideKafkaTransaction() {
     // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, kafkaTemplate, eventsOutboxService, topic, true, LANES, true,
+            BULK_THRESHOLD, meterRegistry);
     var event = createTestEvent();
-    var future = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
-    // .join() wraps checked exceptions in CompletionException
-    future.completeExceptionally(new CompletionException(new InterruptedException("Interrupted!")));
+    runTransactionsInline();
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
 
-    when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(future);
+    // When
+    subscriptionChangePublisher.sendAll(List.of(event));
+
+    // Then
+    verify(kafkaTemplate).executeInTransaction(any());
+    verify(kafkaTemplate).send(topic, event.payload().id(), event);
+    verifyNoInteractions(eventsOutboxService);
+  }
+
+  @Test
+  void sendMessages_ShouldRecordPublishLatencyAndFailuresByExceptionType() {
+    // Given
+    var sent = createTestEvent();
+    var failed = createTestEvent();
+    var failure = new CompletableFuture<SendResult<String, SubscriptionChangeEvent>>();
+    failure.completeExceptionally(new IllegalStateException("Kafka Down"));
+    when(kafkaTemplate.send(topic, sent.payload().id(), sent))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    when(kafkaTemplate.send(topic, failed.payload().id(), failed)).thenReturn(failure);
 
     // When
-    subscriptionChangePublisher.sendMessage(event);
+    subscriptionChangePublisher.sendMessages(List.of(sent, failed));
 
     // Then
-    verify(eventsOutboxService).updateOutboxStatus(event.eventId(), "FAILED");
-    // Verify thread interrupt flag was restored
-    assert Thread.interrupted();
+    assertEquals(1, meterRegistry.get("outbox.publish.latency").timer().count());
+    assertEquals(1, meterRegistry.get("outbox.publish.failures").tag("exception", "IllegalStateException")
+            .counter().count());
+  }
+
+  @Test
+  void sendMessages_WhenChunkReachesBulkThreshold_ShouldPublishWithBulkProfile() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, bulkKafkaTemplate, eventsOutboxService, topic, true, LANES, false,
+            2, meterRegistry);
+    var first = createTestEvent();
+    var second = createTestEvent();
+    when(bulkKafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(first, second));
+
+    // Then
+    verify(bulkKafkaTemplate).send(topic, first.payload().id(), first);
+    verify(bulkKafkaTemplate).send(topic, second.payload().id(), second);
+    verifyNoInteractions(kafkaTemplate);
+    verify(eventsOutboxService).updateOutboxStatuses(Map.of("SENT", List.of(first.eventId(), second.eventId())));
+    assertEquals(1, meterRegistry.get("outbox.publish.chunks").tag("profile", "bulk").counter().count());
+  }
+
+  @Test
+  void sendMessages_WhenChunkIsBelowBulkThreshold_ShouldPublishWithLowLatencyProfile() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, bulkKafkaTemplate, eventsOutboxService, topic, true, LANES, false,
+            2, meterRegistry);
+    var event = createTestEvent();
+    when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    subscriptionChangePublisher.sendMessages(List.of(event));
+
+    // Then
+    verify(kafkaTemplate).send(topic, event.payload().id(), event);
+    verifyNoInteractions(bulkKafkaTemplate);
+    assertEquals(1, meterRegistry.get("outbox.publish.chunks").tag("profile", "low-latency").counter().count());
+    assertEquals(0, meterRegistry.get("outbox.publish.chunks").tag("profile", "bulk").counter().count());
+  }
+
+  @Test
+  void sendAll_WhenTransactionalAndBatchReachesBulkThreshold_ShouldUseBulkTransaction() {
+    // Given
+    subscriptionChangePublisher = new SubscriptionChangePublisher(kafkaTemplate, bulkKafkaTemplate, eventsOutboxService, topic, true, LANES, true,
+            1, meterRegistry);
+    var event = createTestEvent();
+    when(bulkKafkaTemplate.executeInTransaction(any())).thenAnswer(invocation -> invocation
+            .<KafkaOperations.OperationsCallback<String, SubscriptionChangeEvent, ?>>getArgument(0)
+            .doInOperations(bulkKafkaTemplate));
+    when(bulkKafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // When
+    subscriptionChangePublisher.sendAll(List.of(event));
+
+    // Then
+    verify(bulkKafkaTemplate).executeInTransaction(any());
+    verify(bulkKafkaTemplate).send(topic, event.payload().id(), event);
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  private void runTransactionsInline() {
+    when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation -> invocation
+            .<KafkaOperations.OperationsCallback<String, SubscriptionChangeEvent, ?>>getArgument(0)
+            .doInOperations(kafkaTemplate));
   }
 
   private SubscriptionChangeEvent createTestEvent() {
+    return createTestEvent(createTestSubscription());
+  }
+
+  private SubscriptionChangeEvent createTestEvent(Subscription subscription) {
     UUID testEventId = UUID.randomUUID();
     return new SubscriptionChangeEvent(
             testEventId.toString(),
             System.currentTimeMillis(),
             "SubscriptionCreated",
-            SubscriptionResponse.fromSubscription(createTestSubscription())
+            SubscriptionChangePayload.snapshot(subscription)
     );
   }
 
+  private SubscriptionChangeEvent createTestEventInOtherLane(SubscriptionChangeEvent other) {
+    int otherLane = Math.floorMod(other.payload().id().hashCode(), LANES);
+    SubscriptionChangeEvent event;
+    do {
+      event = createTestEvent();
+    } while (Math.floorMod(event.payload().id().hashCode(), LANES) == otherLane);
+    return event;
+  }
+
   private Subscription createTestSubscription() {
     Subscription testSubscription = new Subscription();
     testSubscription.setId(UUID.randomUUID());
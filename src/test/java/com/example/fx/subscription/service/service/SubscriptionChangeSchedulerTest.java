@@ -1,27 +1,44 @@
 package com.example.fx.subscription.service.service;
 
-import com.example.fx.subscription.service.dto.subscription.SubscriptionResponse;
+import com.example.fx.subscription.service.dto.subscription.SubscriptionChangePayload;
 import com.example.fx.subscription.service.model.*;
 import com.example.fx.subscription.service.repository.EventsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SubscriptionChangeSchedulerTest {
 
   private static final String PENDING = "PENDING";
+  private static final int CHUNK_SIZE = 2;
+  private static final int MAX_CHUNKS_PER_RUN = 3;
+  private static final Duration RATE = Duration.ofSeconds(8);
+  private static final Duration MIN_RATE = Duration.ofSeconds(1);
+  private static final Duration MAX_RATE = Duration.ofSeconds(60);
 
   @Mock
   private EventsOutboxRepository eventsOutboxRepository;
@@ -29,14 +46,35 @@ class SubscriptionChangeSchedulerTest {
   @Mock
   private SubscriptionChangePublisher subscriptionChangePublisher;
 
-  @InjectMocks
+  @Mock
+  private EventsOutboxService eventsOutboxService;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private SchedulerLeadership schedulerLeadership;
+
   private SubscriptionChangeScheduler subscriptionChangeScheduler;
+  private OutboxPollTrigger outboxPollTrigger;
+  private SimpleMeterRegistry meterRegistry;
 
   private EventsOutbox testEventsOutbox;
   private UUID testEventId;
 
   @BeforeEach
   void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    var outboxCompactor = new OutboxCompactor(eventsOutboxService, false, new SimpleMeterRegistry());
+    outboxPollTrigger = new OutboxPollTrigger(RATE, Duration.ZERO, MIN_RATE, MAX_RATE, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+    subscriptionChangeScheduler = new SubscriptionChangeScheduler(eventsOutboxRepository, subscriptionChangePublisher,
+            outboxCompactor, outboxPollTrigger, schedulerLeadership, transactionTemplate, CHUNK_SIZE, MAX_CHUNKS_PER_RUN,
+            meterRegistry);
+    lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    lenient().when(schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_DRAIN)).thenReturn(true);
+
     testEventId = UUID.randomUUID();
 
     Subscription testSubscription = new Subscription();
@@ -53,7 +91,7 @@ class SubscriptionChangeSchedulerTest {
     testEventsOutbox.setAggregateType("Subscription");
     testEventsOutbox.setAggregateId(testSubscription.getId());
     testEventsOutbox.setEventType("SubscriptionCreated");
-    testEventsOutbox.setPayload(SubscriptionResponse.fromSubscription(testSubscription));
+    testEventsOutbox.setPayload(SubscriptionChangePayload.snapshot(testSubscription));
     testEventsOutbox.setStatus(PENDING);
     testEventsOutbox.setTimestamp(System.currentTimeMillis());
   }
@@ -62,29 +100,29 @@ class SubscriptionChangeSchedulerTest {
   void checkForOutboxSubscriptions_WhenPendingEventsExist_ShouldPublishAllEvents() {
     // Given
     List<EventsOutbox> pendingEvents = List.of(testEventsOutbox);
-    when(eventsOutboxRepository.findByStatus(PENDING))
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
             .thenReturn(pendingEvents);
 
     // When
     subscriptionChangeScheduler.checkForOutboxSubscriptions();
 
     // Then
-    verify(eventsOutboxRepository).findByStatus(PENDING);
-    verify(subscriptionChangePublisher).sendMessage(any(SubscriptionChangeEvent.class));
+    verify(eventsOutboxRepository).claimByStatus(PENDING, CHUNK_SIZE);
+    verify(subscriptionChangePublisher).sendMessages(argThat(events -> events.size() == 1));
   }
 
   @Test
   void checkForOutboxSubscriptions_WhenNoPendingEvents_ShouldNotPublishAnyEvents() {
     // Given
-    when(eventsOutboxRepository.findByStatus(PENDING))
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
             .thenReturn(List.of());
 
     // When
     subscriptionChangeScheduler.checkForOutboxSubscriptions();
 
     // Then
-    verify(eventsOutboxRepository).findByStatus(PENDING);
-    verify(subscriptionChangePublisher, never()).sendMessage(any(SubscriptionChangeEvent.class));
+    verify(eventsOutboxRepository).claimByStatus(PENDING, CHUNK_SIZE);
+    verify(subscriptionChangePublisher, never()).sendMessages(argThat(events -> !events.isEmpty()));
   }
 
   @Test
@@ -99,14 +137,141 @@ class SubscriptionChangeSchedulerTest {
     secondEvent.setTimestamp(System.currentTimeMillis());
 
     List<EventsOutbox> pendingEvents = List.of(testEventsOutbox, secondEvent);
-    when(eventsOutboxRepository.findByStatus(PENDING))
-            .thenReturn(pendingEvents);
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
+            .thenReturn(pendingEvents)
+            .thenReturn(List.of());
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    verify(eventsOutboxRepository, times(2)).claimByStatus(PENDING, CHUNK_SIZE);
+    verify(subscriptionChangePublisher).sendMessages(argThat(events -> events.size() == 2));
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenBacklogExceedsOneChunk_ShouldClaimChunksInSeparateTransactions() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
+            .thenReturn(List.of(testEventsOutbox, testEventsOutbox))
+            .thenReturn(List.of(testEventsOutbox));
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    verify(transactionTemplate, times(2)).execute(any());
+    verify(eventsOutboxRepository, times(2)).claimByStatus(PENDING, CHUNK_SIZE);
+    verify(subscriptionChangePublisher, times(2)).sendMessages(anyList());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenBacklogExceedsMaxChunks_ShouldStopAtMaxChunksPerRun() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
+            .thenReturn(List.of(testEventsOutbox, testEventsOutbox));
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    verify(eventsOutboxRepository, times(MAX_CHUNKS_PER_RUN)).claimByStatus(anyString(), anyInt());
+    verify(subscriptionChangePublisher, times(MAX_CHUNKS_PER_RUN)).sendMessages(argThat(events -> events.size() == CHUNK_SIZE));
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenNoPendingEvents_ShouldBackOffPollInterval() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE)).thenReturn(List.of());
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    assertEquals(RATE.multipliedBy(2), outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenBacklogExceedsMaxChunks_ShouldPollAtMinRate() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
+            .thenReturn(List.of(testEventsOutbox, testEventsOutbox));
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    assertEquals(MIN_RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenFewFreshEvents_ShouldHalvePollInterval() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE)).thenReturn(List.of(testEventsOutbox));
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    assertEquals(RATE.dividedBy(2), outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenNotLeader_ShouldStayIdle() {
+    // Given
+    when(schedulerLeadership.isLeader(SchedulerLeadership.OUTBOX_DRAIN)).thenReturn(false);
+
+    // When
+    subscriptionChangeScheduler.checkForOutboxSubscriptions();
+
+    // Then
+    verifyNoInteractions(eventsOutboxRepository, subscriptionChangePublisher, transactionTemplate);
+    assertEquals(RATE, outboxPollTrigger.currentInterval());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_WhenCalledConcurrently_ShouldDrainOneAtATime() throws Exception {
+    // Given
+    CountDownLatch firstClaimed = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE)).thenAnswer(_ -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      firstClaimed.countDown();
+      releaseFirst.await(5, TimeUnit.SECONDS);
+      inFlight.decrementAndGet();
+      return List.of();
+    });
+
+    // When
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<?> trigger = executor.submit(subscriptionChangeScheduler::checkForOutboxSubscriptions);
+      firstClaimed.await(5, TimeUnit.SECONDS);
+      Future<?> notification = executor.submit(subscriptionChangeScheduler::checkForOutboxSubscriptions);
+      Thread.sleep(100);
+      releaseFirst.countDown();
+      trigger.get(5, TimeUnit.SECONDS);
+      notification.get(5, TimeUnit.SECONDS);
+    }
+
+    // Then
+    verify(eventsOutboxRepository, times(2)).claimByStatus(PENDING, CHUNK_SIZE);
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  void checkForOutboxSubscriptions_ShouldRecordDrainDurationAndSize() {
+    // Given
+    when(eventsOutboxRepository.claimByStatus(PENDING, CHUNK_SIZE))
+            .thenReturn(List.of(testEventsOutbox, testEventsOutbox))
+            .thenReturn(List.of(testEventsOutbox));
 
     // When
     subscriptionChangeScheduler.checkForOutboxSubscriptions();
 
     // Then
-    verify(eventsOutboxRepository).findByStatus(PENDING);
-    verify(subscriptionChangePublisher, times(2)).sendMessage(any(SubscriptionChangeEvent.class));
+    assertEquals(1, meterRegistry.get("outbox.drain.duration").timer().count());
+    assertEquals(3, meterRegistry.get("outbox.drain.events").summary().totalAmount());
   }
-} 
\ No newline at end of file
+}
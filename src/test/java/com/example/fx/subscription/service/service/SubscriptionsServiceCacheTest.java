@@ -58,6 +58,8 @@ class SubscriptionsServiceCacheTest {
     // Setup in-memory cache for testing
     Objects.requireNonNull(cacheManager.getCache("subscription")).clear();
     Objects.requireNonNull(cacheManager.getCache("subscriptionsByUser")).clear();
+    Objects.requireNonNull(cacheManager.getCache("subscriptionOwner")).clear();
+    Objects.requireNonNull(cacheManager.getCache("subscriptionMisses")).clear();
     reset(fxUserRepository);
     reset(eventsOutboxRepository);
 
@@ -159,10 +161,65 @@ class SubscriptionsServiceCacheTest {
     assertThrows(SubscriptionNotFoundException.class, () ->
             subscriptionsService.findSubscriptionResponsesByUserId(userId));
 
-    // Verify cache is empty (due to unless condition)
+    // Verify cache is empty (the exception is not cached)
     assertNull(Objects.requireNonNull(cacheManager.getCache("subscriptionsByUser")).get(testUserId.toString()));
   }
 
+  @Test
+  void findSubscriptionById_WhenMissing_ShouldCacheMiss() {
+    // Given
+    String subscriptionId = testSubscriptionId.toString();
+    when(subscriptionRepository.findById(testSubscriptionId))
+            .thenReturn(Optional.empty());
+
+    // When & Then
+    assertThrows(SubscriptionNotFoundException.class, () -> subscriptionsService.findSubscriptionById(subscriptionId));
+    assertThrows(SubscriptionNotFoundException.class, () -> subscriptionsService.findSubscriptionById(subscriptionId));
+
+    verify(subscriptionRepository, times(1)).findById(testSubscriptionId);
+    assertNull(Objects.requireNonNull(cacheManager.getCache("subscription")).get(subscriptionId));
+  }
+
+  @Test
+  void findSubscriptionResponsesByUserId_WithEmptyResult_ShouldCacheMiss() {
+    // Given
+    String userId = testUserId.toString();
+    when(subscriptionRepository.findSubscriptionsByUserId(testUserId))
+            .thenReturn(List.of());
+
+    // When & Then
+    assertThrows(SubscriptionNotFoundException.class, () ->
+            subscriptionsService.findSubscriptionResponsesByUserId(userId));
+    assertThrows(SubscriptionNotFoundException.class, () ->
+            subscriptionsService.findSubscriptionResponsesByUserId(userId));
+
+    verify(subscriptionRepository, times(1)).findSubscriptionsByUserId(testUserId);
+  }
+
+  @Test
+  void createSubscription_ShouldClearCachedMiss() {
+    // Given
+    String userId = testUserId.toString();
+    when(subscriptionRepository.findSubscriptionsByUserId(testUserId))
+            .thenReturn(List.of())
+            .thenReturn(List.of(testSubscription));
+    when(fxUserRepository.findById(testUserId))
+            .thenReturn(Optional.of(testUser));
+    when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+            .thenReturn(testSubscription);
+    assertThrows(SubscriptionNotFoundException.class, () ->
+            subscriptionsService.findSubscriptionResponsesByUserId(userId));
+
+    // When
+    subscriptionsService.createSubscription(
+            new SubscriptionCreateRequest("EUR/USD", BigDecimal.valueOf(1.10), "BELOW", List.of("email")), testUserId);
+    SubscriptionListResponse result = subscriptionsService.findSubscriptionResponsesByUserId(userId);
+
+    // Then
+    assertEquals(1, result.totalCount());
+    verify(subscriptionRepository, times(2)).findSubscriptionsByUserId(testUserId);
+  }
+
   @Test
   void createSubscription_ShouldEvictUserCacheAndPutSubscriptionCache() {
     // Given
@@ -258,6 +315,87 @@ class SubscriptionsServiceCacheTest {
     assertNull(Objects.requireNonNull(cacheManager.getCache("subscriptionsByUser")).get(testUserId.toString()));
   }
 
+  @Test
+  void isSubscriptionOwner_ShouldCacheOwner() {
+    // Given
+    when(subscriptionRepository.findUserIdById(testSubscriptionId))
+            .thenReturn(Optional.of(testUserId));
+
+    // When
+    boolean owner = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
+    boolean otherUser = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), UUID.randomUUID());
+
+    // Then
+    assertTrue(owner);
+    assertFalse(otherUser);
+    assertEquals(testUserId.toString(), Objects.requireNonNull(cacheManager.getCache("subscriptionOwner"))
+            .get(testSubscriptionId.toString(), String.class));
+    verify(subscriptionRepository, times(1)).findUserIdById(testSubscriptionId);
+    verify(subscriptionRepository, never()).existsByIdAndUserId(any(), any());
+  }
+
+  @Test
+  void isSubscriptionOwner_WhenSubscriptionDoesNotExist_ShouldNotCache() {
+    // Given
+    when(subscriptionRepository.findUserIdById(testSubscriptionId))
+            .thenReturn(Optional.empty());
+
+    // When
+    boolean owner = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
+
+    // Then
+    assertFalse(owner);
+    assertNull(Objects.requireNonNull(cacheManager.getCache("subscriptionOwner")).get(testSubscriptionId.toString()));
+  }
+
+  @Test
+  void isSubscriptionOwner_WhenSubscriptionDoesNotExist_ShouldCacheMiss() {
+    // Given
+    when(subscriptionRepository.findUserIdById(testSubscriptionId))
+            .thenReturn(Optional.empty());
+
+    // When
+    subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
+    boolean owner = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
+
+    // Then
+    assertFalse(owner);
+    verify(subscriptionRepository, times(1)).findUserIdById(testSubscriptionId);
+  }
+
+  @Test
+  void createSubscription_ShouldRecordOwner() {
+    // Given
+    when(fxUserRepository.findById(testUserId))
+            .thenReturn(Optional.of(testUser));
+    when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+            .thenReturn(testSubscription);
+
+    // When
+    subscriptionsService.createSubscription(
+            new SubscriptionCreateRequest("EUR/USD", BigDecimal.valueOf(1.10), "BELOW", List.of("email")), testUserId);
+
+    // Then
+    assertTrue(subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId));
+    verify(subscriptionRepository, never()).findUserIdById(any());
+  }
+
+  @Test
+  void deleteSubscriptionById_ShouldForgetOwner() {
+    // Given
+    when(subscriptionRepository.findById(testSubscriptionId))
+            .thenReturn(Optional.of(testSubscription));
+    Objects.requireNonNull(cacheManager.getCache("subscriptionOwner"))
+            .put(testSubscriptionId.toString(), testUserId.toString());
+
+    // When
+    subscriptionsService.deleteSubscriptionById(testSubscriptionId.toString());
+
+    // Then
+    assertNull(Objects.requireNonNull(cacheManager.getCache("subscriptionOwner")).get(testSubscriptionId.toString()));
+    assertFalse(subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId));
+  }
+
   @Test
   void cacheKeyGeneration_ShouldBeConsistent() {
     // Given
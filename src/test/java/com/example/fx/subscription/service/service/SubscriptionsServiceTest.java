@@ -12,9 +12,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -24,6 +28,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +44,15 @@ class SubscriptionsServiceTest {
   @Mock
   private EventsOutboxRepository eventsOutboxRepository;
 
+  @Mock
+  private ApplicationEventPublisher applicationEventPublisher;
+
+  @Mock
+  private SubscriptionOwnershipIndex subscriptionOwnershipIndex;
+
+  @Mock
+  private SubscriptionNegativeCache subscriptionNegativeCache;
+
   @InjectMocks
   private SubscriptionsService subscriptionsService;
 
@@ -99,6 +113,19 @@ class SubscriptionsServiceTest {
     SubscriptionNotFoundException exception = assertThrows(SubscriptionNotFoundException.class,
             () -> subscriptionsService.findSubscriptionById(testSubscriptionIdString));
     assertTrue(exception.getMessage().contains("Subscription not found with Id: " + testSubscriptionId));
+    verify(subscriptionNegativeCache).recordMissing("subscription:" + testSubscriptionId);
+  }
+
+  @Test
+  void findSubscriptionById_WhenKnownMissing_ShouldThrowWithoutQuery() {
+    // Given
+    String testSubscriptionIdString = testSubscriptionId.toString();
+    when(subscriptionNegativeCache.isKnownMissing("subscription:" + testSubscriptionId)).thenReturn(true);
+
+    // When & Then
+    assertThrows(SubscriptionNotFoundException.class,
+            () -> subscriptionsService.findSubscriptionById(testSubscriptionIdString));
+    verify(subscriptionRepository, never()).findById(any());
   }
 
   @Test
@@ -212,6 +239,19 @@ class SubscriptionsServiceTest {
     SubscriptionNotFoundException exception = assertThrows(SubscriptionNotFoundException.class,
             () -> subscriptionsService.findSubscriptionResponsesByUserId(userId));
     assertTrue(exception.getMessage().contains("Subscription not found with Id: " + testUserId));
+    verify(subscriptionNegativeCache).recordMissing("user:" + testUserId);
+  }
+
+  @Test
+  void findSubscriptionResponsesByUserId_WhenKnownMissing_ShouldThrowWithoutQuery() {
+    // Given
+    String userId = testUserId.toString();
+    when(subscriptionNegativeCache.isKnownMissing("user:" + testUserId)).thenReturn(true);
+
+    // When & Then
+    assertThrows(SubscriptionNotFoundException.class,
+            () -> subscriptionsService.findSubscriptionResponsesByUserId(userId));
+    verify(subscriptionRepository, never()).findSubscriptionsByUserId(any());
   }
 
   @Test
@@ -232,8 +272,8 @@ class SubscriptionsServiceTest {
   @Test
   void isSubscriptionOwner_WhenUserIsOwner_ShouldReturnTrue() {
     // Given
-    when(subscriptionRepository.existsByIdAndUserId(any(UUID.class), any(UUID.class)))
-            .thenReturn(true);
+    when(subscriptionOwnershipIndex.findOwnerId(testSubscriptionId.toString()))
+            .thenReturn(testUserId.toString());
 
     // When
     boolean result = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
@@ -245,8 +285,8 @@ class SubscriptionsServiceTest {
   @Test
   void isSubscriptionOwner_WhenUserIsNotOwner_ShouldReturnFalse() {
     // Given
-    when(subscriptionRepository.existsByIdAndUserId(any(UUID.class), any(UUID.class)))
-            .thenReturn(false);
+    when(subscriptionOwnershipIndex.findOwnerId(testSubscriptionId.toString()))
+            .thenReturn(testUserId.toString());
 
     // When
     boolean result = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), UUID.randomUUID());
@@ -255,6 +295,18 @@ class SubscriptionsServiceTest {
     assertFalse(result);
   }
 
+  @Test
+  void isSubscriptionOwner_WhenSubscriptionDoesNotExist_ShouldReturnFalse() {
+    // Given
+    when(subscriptionOwnershipIndex.findOwnerId(testSubscriptionId.toString())).thenReturn(null);
+
+    // When
+    boolean result = subscriptionsService.isSubscriptionOwner(testSubscriptionId.toString(), testUserId);
+
+    // Then
+    assertFalse(result);
+  }
+
   @Test
   void createSubscription_WhenUserExists_ShouldCreateAndReturnSubscription() {
     // Given
@@ -280,6 +332,41 @@ class SubscriptionsServiceTest {
     assertEquals(testSubscriptionId.toString(), result.id());
     verify(subscriptionRepository).saveAndFlush(any(Subscription.class));
     verify(eventsOutboxRepository).save(any(EventsOutbox.class));
+    verify(applicationEventPublisher).publishEvent(any(EventsOutboxSaved.class));
+    verify(subscriptionOwnershipIndex).recordOwner(testSubscriptionId.toString(), testUserId.toString());
+    verify(subscriptionNegativeCache).forget("user:" + testUserId);
+    verify(subscriptionNegativeCache).forget("subscription:" + testSubscriptionId);
+  }
+
+  @Test
+  void createSubscription_InTransaction_ShouldForgetMissesAfterCommit() {
+    // Given
+    SubscriptionCreateRequest createRequest = new SubscriptionCreateRequest(
+            "EUR/USD",
+            BigDecimal.valueOf(1.10),
+            "BELOW",
+            List.of("email")
+    );
+
+    when(fxUserRepository.findById(testUserId))
+            .thenReturn(Optional.of(testUser));
+    when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+            .thenReturn(testSubscription);
+    TransactionSynchronizationManager.initSynchronization();
+
+    try {
+      // When
+      subscriptionsService.createSubscription(createRequest, testUserId);
+
+      // Then
+      verify(subscriptionNegativeCache, never()).forget(any());
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      verify(subscriptionNegativeCache).forget("user:" + testUserId);
+      verify(subscriptionNegativeCache).forget("subscription:" + testSubscriptionId);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
   }
 
   @Test
@@ -409,6 +496,45 @@ class SubscriptionsServiceTest {
     verify(eventsOutboxRepository).save(any(EventsOutbox.class));
   }
 
+  @Test
+  void updateSubscriptionById_ShouldWriteOnlyChangedFieldsAndVersionToOutbox() {
+    // Given
+    SubscriptionUpdateRequest updateRequest = new SubscriptionUpdateRequest(
+            "GBP/USD",
+            BigDecimal.valueOf(1.50),
+            null,
+            null,
+            null
+    );
+    testSubscription.setVersion(4);
+
+    when(subscriptionRepository.findById(testSubscriptionId))
+            .thenReturn(Optional.of(testSubscription));
+    when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+            .thenAnswer(invocation -> {
+              Subscription saved = invocation.getArgument(0);
+              saved.setVersion(saved.getVersion() + 1);
+              return saved;
+            });
+    ArgumentCaptor<EventsOutbox> outboxCaptor = ArgumentCaptor.forClass(EventsOutbox.class);
+
+    // When
+    subscriptionsService.updateSubscriptionById(testSubscriptionId.toString(), updateRequest);
+
+    // Then
+    verify(eventsOutboxRepository).save(outboxCaptor.capture());
+    SubscriptionChangePayload payload = outboxCaptor.getValue().getPayload();
+    assertEquals("SubscriptionUpdated", outboxCaptor.getValue().getEventType());
+    assertEquals(testSubscriptionId.toString(), payload.id());
+    assertEquals(5, payload.version());
+    assertEquals(BigDecimal.valueOf(1.50), payload.threshold());
+    assertNotNull(payload.updatedAt());
+    assertNull(payload.currencyPair());
+    assertNull(payload.user());
+    assertNull(payload.notificationsChannels());
+    assertNull(payload.createdAt());
+  }
+
   @Test
   void updateSubscriptionById_WithOnlyNotificationChannels_ShouldUpdateOnlyNotificationChannels() {
     // Given
@@ -456,6 +582,45 @@ class SubscriptionsServiceTest {
     verify(subscriptionRepository).findById(testSubscriptionId);
     verify(subscriptionRepository).deleteById(testSubscriptionId);
     verify(eventsOutboxRepository).save(any(EventsOutbox.class));
+    verify(subscriptionOwnershipIndex).forgetOwner(testSubscriptionId.toString());
+  }
+
+  @Test
+  void deleteSubscriptionById_InTransaction_ShouldForgetOwnerAfterCommit() {
+    // Given
+    when(subscriptionRepository.findById(testSubscriptionId))
+            .thenReturn(Optional.of(testSubscription));
+    TransactionSynchronizationManager.initSynchronization();
+
+    try {
+      // When
+      subscriptionsService.deleteSubscriptionById(testSubscriptionId.toString());
+
+      // Then
+      verify(subscriptionOwnershipIndex, never()).forgetOwner(any());
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      verify(subscriptionOwnershipIndex).forgetOwner(testSubscriptionId.toString());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void deleteSubscriptionById_ShouldWriteOnlyIdsToOutbox() {
+    // Given
+    testSubscription.setVersion(2);
+    when(subscriptionRepository.findById(testSubscriptionId))
+            .thenReturn(Optional.of(testSubscription));
+    ArgumentCaptor<EventsOutbox> outboxCaptor = ArgumentCaptor.forClass(EventsOutbox.class);
+
+    // When
+    subscriptionsService.deleteSubscriptionById(testSubscriptionId.toString());
+
+    // Then
+    verify(eventsOutboxRepository).save(outboxCaptor.capture());
+    assertEquals(new SubscriptionChangePayload(testSubscriptionId.toString(), 3, testUserId.toString(),
+            null, null, null, null, null, null, null, null), outboxCaptor.getValue().getPayload());
   }
 
   @Test